@@ -0,0 +1,180 @@
+package com.bookdepository.algorithms.sorting;
+
+import com.bookdepository.model.Record;
+import com.bookdepository.io.PerformanceResult;
+import com.bookdepository.io.SortMetrics;
+
+/**
+ * Iterative bottom-up HeapSort implementation with performance tracking.
+ * Sorts records by bestseller rank.
+ *
+ * Uses Floyd's sift-down: the hole left at the root is first walked down to a
+ * leaf along the path of largest children, then the displaced record is bubbled
+ * back up from there. Since that record usually belongs near the bottom, this
+ * needs about half the comparisons of the classic sift-down. The heap arity is
+ * configurable; 4-ary and 8-ary heaps are shallower and keep siblings on the
+ * same cache lines.
+ *
+ * Each level a record moves along the sift path is counted as one swap, which
+ * matches the swaps {@link HeapSort} performs for the same movement.
+ */
+public class BottomUpHeapSort implements Sorter {
+    /**
+     * Default heap arity (binary heap).
+     */
+    public static final int DEFAULT_ARITY = 2;
+
+    private final int arity;
+    private final SortCounter counter;
+
+    /**
+     * Default constructor. Uses a binary heap.
+     */
+    public BottomUpHeapSort() {
+        this(DEFAULT_ARITY);
+    }
+
+    /**
+     * Creates a bottom-up HeapSort over a d-ary heap.
+     *
+     * @param arity Number of children per heap node (at least 2)
+     */
+    public BottomUpHeapSort(int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Arity must be at least 2: " + arity);
+        }
+        this.arity = arity;
+        this.counter = new SortCounter();
+    }
+
+    /**
+     * Gets the algorithm name; non-binary heaps carry their arity as a suffix.
+     *
+     * @return Algorithm name
+     */
+    @Override
+    public String getName() {
+        return arity == DEFAULT_ARITY ? "BottomUpHeapSort" : "BottomUpHeapSort" + arity;
+    }
+
+    /**
+     * Sorts an array of records using bottom-up HeapSort.
+     *
+     * @param records Array of records to sort
+     * @return Performance result with comparisons, swaps, and execution time
+     */
+    @Override
+    public PerformanceResult sort(Record[] records) {
+        counter.start();
+
+        if (records != null && records.length > 1) {
+            int n = records.length;
+
+            // Build max heap, starting at the last internal node
+            long phaseStart = counter.startPhase();
+            for (int i = (n - 2) / arity; i >= 0; i--) {
+                siftDown(records, i, n);
+            }
+            counter.endPhase("heapBuild", phaseStart);
+
+            // Extract elements from heap one by one
+            phaseStart = counter.startPhase();
+            for (int end = n - 1; end > 0; end--) {
+                counter.swap(records, 0, end);
+                siftDown(records, 0, end);
+            }
+            counter.endPhase("extraction", phaseStart);
+        }
+
+        counter.stop();
+        return counter.toResult();
+    }
+
+    /**
+     * Restores the heap property below root using Floyd's sift-to-leaf, then bubble-up.
+     *
+     * @param records Array of records
+     * @param root    Index of the record to sift down
+     * @param n       Size of heap
+     */
+    private void siftDown(Record[] records, int root, int n) {
+        Record sifted = records[root];
+
+        // Walk down to a leaf, always following the largest child
+        int leaf = root;
+        int child = arity * leaf + 1;
+        while (child < n) {
+            int largest = child;
+            int lastChild = Math.min(child + arity, n);
+            for (int c = child + 1; c < lastChild; c++) {
+                if (counter.before(records[largest], records[c])) {
+                    largest = c;
+                }
+            }
+            leaf = largest;
+            child = arity * leaf + 1;
+        }
+
+        // Climb back up to the first record on the path that the sifted record does not exceed
+        int target = leaf;
+        while (target != root) {
+            if (!counter.before(records[target], sifted)) {
+                break;
+            }
+            target = parent(target);
+        }
+
+        // Shift the path above target up one level and drop the sifted record into target
+        Record carried = records[target];
+        records[target] = sifted;
+        while (target != root) {
+            target = parent(target);
+            Record temp = records[target];
+            records[target] = carried;
+            carried = temp;
+            counter.addSwaps(1);
+        }
+    }
+
+    /**
+     * Gets the parent index of a heap node.
+     *
+     * @param i Node index
+     * @return Parent index
+     */
+    private int parent(int i) {
+        return (i - 1) / arity;
+    }
+
+    /**
+     * Gets the heap arity.
+     *
+     * @return Number of children per heap node
+     */
+    public int getArity() {
+        return arity;
+    }
+
+    @Override
+    public SortMetrics getLastMetrics() {
+        return counter.toMetrics();
+    }
+
+    /**
+     * Gets the current comparison count.
+     *
+     * @return Number of comparisons
+     */
+    public long getComparisons() {
+        return counter.getComparisons();
+    }
+
+    /**
+     * Gets the current swap count.
+     *
+     * @return Number of swaps
+     */
+    public long getSwaps() {
+        return counter.getSwaps();
+    }
+}
@@ -1,22 +1,30 @@
 package com.bookdepository.algorithms.sorting;
 
 import com.bookdepository.model.Record;
+import com.bookdepository.model.ColumnarRecords;
 import com.bookdepository.io.PerformanceResult;
+import com.bookdepository.io.SortMetrics;
 
 /**
  * HeapSort algorithm implementation with performance tracking.
  * Sorts records by bestseller rank.
+ *
+ * The metrics of each sort split the time into the "heapBuild" and
+ * "extraction" phases; the rank-key mode adds "pack" and "permute".
  */
-public class HeapSort {
-    private int comparisons;
-    private int swaps;
+public class HeapSort implements Sorter {
+    private final SortCounter counter;
 
     /**
      * Default constructor.
      */
     public HeapSort() {
-        this.comparisons = 0;
-        this.swaps = 0;
+        this.counter = new SortCounter();
+    }
+
+    @Override
+    public String getName() {
+        return "HeapSort";
     }
 
     /**
@@ -25,109 +33,205 @@ public class HeapSort {
      * @param records Array of records to sort
      * @return Performance result with comparisons, swaps, and execution time
      */
+    @Override
     public PerformanceResult sort(Record[] records) {
-        comparisons = 0;
-        swaps = 0;
-        long startTime = System.currentTimeMillis();
+        return sort(records, 0, records == null ? 0 : records.length);
+    }
 
-        if (records != null && records.length > 0) {
-            int n = records.length;
+    /**
+     * Sorts the range [from, to) of an array of records using HeapSort algorithm.
+     *
+     * @param records Array of records to sort
+     * @param from    First index of the range (inclusive)
+     * @param to      Last index of the range (exclusive)
+     * @return Performance result with comparisons, swaps, and execution time
+     */
+    public PerformanceResult sort(Record[] records, int from, int to) {
+        counter.start();
+
+        if (records != null && to - from > 0) {
+            int n = to - from;
 
             // Build max heap (rearrange array)
+            long phaseStart = counter.startPhase();
             for (int i = n / 2 - 1; i >= 0; i--) {
-                heapify(records, n, i);
+                heapify(records, from, n, i);
             }
+            counter.endPhase("heapBuild", phaseStart);
 
             // Extract elements from heap one by one
+            phaseStart = counter.startPhase();
             for (int i = n - 1; i > 0; i--) {
                 // Move current root to end
-                swap(records, 0, i);
+                counter.swap(records, from, from + i);
 
                 // Call heapify on the reduced heap
-                heapify(records, i, 0);
+                heapify(records, from, i, 0);
             }
+            counter.endPhase("extraction", phaseStart);
         }
 
-        long endTime = System.currentTimeMillis();
-        long executionTime = endTime - startTime;
+        counter.stop();
+        return counter.toResult();
+    }
 
-        return new PerformanceResult(comparisons, swaps, executionTime);
+    /**
+     * Sorts an array of records using HeapSort on packed primitive rank keys.
+     * Performs exactly the same comparisons and swaps as {@link #sort(Record[])},
+     * but on a long[] of keys, and applies the resulting permutation back to the records.
+     *
+     * @param records Array of records to sort
+     * @return Performance result with comparisons, swaps, and execution time
+     */
+    public PerformanceResult sortByRankKey(Record[] records) {
+        counter.start();
+
+        if (records != null && records.length > 0) {
+            long phaseStart = counter.startPhase();
+            long[] keys = RankKeys.pack(records);
+            int n = keys.length;
+            counter.endPhase("pack", phaseStart);
+
+            phaseStart = counter.startPhase();
+            for (int i = n / 2 - 1; i >= 0; i--) {
+                heapify(keys, n, i);
+            }
+            counter.endPhase("heapBuild", phaseStart);
+
+            phaseStart = counter.startPhase();
+            for (int i = n - 1; i > 0; i--) {
+                counter.swap(keys, 0, i);
+                heapify(keys, i, 0);
+            }
+            counter.endPhase("extraction", phaseStart);
+
+            phaseStart = counter.startPhase();
+            RankKeys.applyPermutation(records, keys);
+            counter.endPhase("permute", phaseStart);
+        }
+
+        counter.stop();
+        return counter.toResult();
     }
 
     /**
-     * Heapifies a subtree rooted at index i.
+     * Sorts a columnar record store using HeapSort.
+     * Performs the same comparisons and swaps as {@link #sort(Record[])} on the
+     * same records, reading ranks from the store's int column.
+     *
+     * @param store Record store to sort
+     * @return Performance result with comparisons, swaps, and execution time
+     */
+    public PerformanceResult sortStore(ColumnarRecords store) {
+        counter.start();
+
+        if (store != null && store.size() > 0) {
+            int n = store.size();
+
+            long phaseStart = counter.startPhase();
+            for (int i = n / 2 - 1; i >= 0; i--) {
+                heapify(store, n, i);
+            }
+            counter.endPhase("heapBuild", phaseStart);
+
+            phaseStart = counter.startPhase();
+            for (int i = n - 1; i > 0; i--) {
+                counter.swap(store, 0, i);
+                heapify(store, i, 0);
+            }
+            counter.endPhase("extraction", phaseStart);
+        }
+
+        counter.stop();
+        return counter.toResult();
+    }
+
+    /**
+     * Heapifies a subtree rooted at index i of the heap stored at records[offset..offset + n).
+     * The largest record is the one that sorts last.
      *
      * @param records Array of records
+     * @param offset  Array index of the heap root
      * @param n       Size of heap
-     * @param i       Root index of subtree
+     * @param i       Root index of subtree, relative to offset
      */
-    private void heapify(Record[] records, int n, int i) {
+    private void heapify(Record[] records, int offset, int n, int i) {
         int largest = i; // Initialize largest as root
         int left = 2 * i + 1; // Left child
         int right = 2 * i + 2; // Right child
 
         // Compare with left child
-        if (left < n) {
-            comparisons++;
-            if (shouldSwap(records[left], records[largest])) {
-                largest = left;
-            }
+        if (left < n && counter.before(records[offset + largest], records[offset + left])) {
+            largest = left;
         }
 
         // Compare with right child
-        if (right < n) {
-            comparisons++;
-            if (shouldSwap(records[right], records[largest])) {
-                largest = right;
-            }
+        if (right < n && counter.before(records[offset + largest], records[offset + right])) {
+            largest = right;
         }
 
         // If largest is not root, swap and continue heapifying
         if (largest != i) {
-            swap(records, i, largest);
-            heapify(records, n, largest);
+            counter.swap(records, offset + i, offset + largest);
+            heapify(records, offset, n, largest);
         }
     }
 
     /**
-     * Determines if two records should be swapped based on bestseller rank.
+     * Heapifies a subtree of the record store rooted at position i.
      *
-     * @param a First record
-     * @param b Second record
-     * @return true if a should come before b (in max heap order)
+     * @param store Record store
+     * @param n     Size of heap
+     * @param i     Root position of subtree
      */
-    private boolean shouldSwap(Record a, Record b) {
-        int rankA = a.getBestsellersRank();
-        int rankB = b.getBestsellersRank();
+    private void heapify(ColumnarRecords store, int n, int i) {
+        int largest = i;
+        int left = 2 * i + 1;
+        int right = 2 * i + 2;
 
-        // Handle zero ranks (put them at the end)
-        if (rankA == 0 && rankB == 0) {
-            return false;
-        }
-        if (rankA == 0) {
-            return false; // A goes after B
+        if (left < n && counter.rankBefore(store.getRank(largest), store.getRank(left))) {
+            largest = left;
         }
-        if (rankB == 0) {
-            return true; // A goes before B
+
+        if (right < n && counter.rankBefore(store.getRank(largest), store.getRank(right))) {
+            largest = right;
         }
 
-        return rankA < rankB; // Lower rank is better (max heap)
+        if (largest != i) {
+            counter.swap(store, i, largest);
+            heapify(store, n, largest);
+        }
     }
 
     /**
-     * Swaps two elements in the array.
+     * Heapifies a subtree of the key array rooted at index i.
      *
-     * @param records Array of records
-     * @param i       First index
-     * @param j       Second index
+     * @param keys Array of packed keys
+     * @param n    Size of heap
+     * @param i    Root index of subtree
      */
-    private void swap(Record[] records, int i, int j) {
-        if (i != j) {
-            Record temp = records[i];
-            records[i] = records[j];
-            records[j] = temp;
-            swaps++;
+    private void heapify(long[] keys, int n, int i) {
+        int largest = i;
+        int left = 2 * i + 1;
+        int right = 2 * i + 2;
+
+        if (left < n && counter.before(keys[largest], keys[left])) {
+            largest = left;
         }
+
+        if (right < n && counter.before(keys[largest], keys[right])) {
+            largest = right;
+        }
+
+        if (largest != i) {
+            counter.swap(keys, i, largest);
+            heapify(keys, n, largest);
+        }
+    }
+
+    @Override
+    public SortMetrics getLastMetrics() {
+        return counter.toMetrics();
     }
 
     /**
@@ -135,8 +239,8 @@ public class HeapSort {
      *
      * @return Number of comparisons
      */
-    public int getComparisons() {
-        return comparisons;
+    public long getComparisons() {
+        return counter.getComparisons();
     }
 
     /**
@@ -144,7 +248,7 @@ public class HeapSort {
      *
      * @return Number of swaps
      */
-    public int getSwaps() {
-        return swaps;
+    public long getSwaps() {
+        return counter.getSwaps();
     }
 }
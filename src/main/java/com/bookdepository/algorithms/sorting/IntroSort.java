@@ -0,0 +1,202 @@
+package com.bookdepository.algorithms.sorting;
+
+import com.bookdepository.model.Record;
+import com.bookdepository.io.PerformanceResult;
+import com.bookdepository.io.SortMetrics;
+
+/**
+ * Hardened QuickSort (introsort) implementation with performance tracking.
+ * Sorts records by bestseller rank.
+ *
+ * Pivots are chosen by median-of-three, or by Tukey's ninther on larger ranges,
+ * so already sorted and reverse sorted input split evenly. When the recursion
+ * depth exceeds 2 * log2(n) the remaining range is handed to {@link HeapSort},
+ * which bounds the worst case at O(n log n). The smaller partition is sorted
+ * recursively and the larger one iteratively, which keeps the stack at O(log n).
+ */
+public class IntroSort implements Sorter {
+    /**
+     * Range size from which the ninther is used instead of median-of-three.
+     */
+    private static final int NINTHER_THRESHOLD = 40;
+
+    private final HeapSort heapSort;
+    private final SortCounter counter;
+    private int heapSortFallbacks;
+
+    /**
+     * Default constructor.
+     */
+    public IntroSort() {
+        this.heapSort = new HeapSort();
+        this.counter = new SortCounter();
+        this.heapSortFallbacks = 0;
+    }
+
+    @Override
+    public String getName() {
+        return "IntroSort";
+    }
+
+    /**
+     * Sorts an array of records using introsort.
+     *
+     * @param records Array of records to sort
+     * @return Performance result with comparisons, swaps, and execution time
+     */
+    @Override
+    public PerformanceResult sort(Record[] records) {
+        counter.start();
+        heapSortFallbacks = 0;
+
+        if (records != null && records.length > 1) {
+            introSort(records, 0, records.length - 1, depthLimit(records.length));
+        }
+
+        counter.stop();
+        return counter.toResult();
+    }
+
+    /**
+     * Computes the recursion depth budget for an array of size n.
+     *
+     * @param n Array size
+     * @return 2 * floor(log2(n))
+     */
+    private static int depthLimit(int n) {
+        return 2 * (31 - Integer.numberOfLeadingZeros(n));
+    }
+
+    /**
+     * Introsort loop: recurses into the smaller partition and iterates on the larger one.
+     *
+     * @param records    Array of records
+     * @param low        Starting index
+     * @param high       Ending index
+     * @param depthLimit Remaining partitioning depth before falling back to HeapSort
+     */
+    private void introSort(Record[] records, int low, int high, int depthLimit) {
+        while (low < high) {
+            if (depthLimit == 0) {
+                long phaseStart = counter.startPhase();
+                heapSort.sort(records, low, high + 1);
+                counter.endPhase("heapSortFallback", phaseStart);
+                counter.add(heapSort.getLastMetrics());
+                heapSortFallbacks++;
+                return;
+            }
+            depthLimit--;
+
+            counter.swap(records, choosePivot(records, low, high), high);
+            int pi = partition(records, low, high);
+
+            if (pi - low < high - pi) {
+                introSort(records, low, pi - 1, depthLimit);
+                low = pi + 1;
+            } else {
+                introSort(records, pi + 1, high, depthLimit);
+                high = pi - 1;
+            }
+        }
+    }
+
+    /**
+     * Chooses a pivot index using median-of-three, or the ninther for larger ranges.
+     *
+     * @param records Array of records
+     * @param low     Starting index
+     * @param high    Ending index
+     * @return Index of the chosen pivot
+     */
+    private int choosePivot(Record[] records, int low, int high) {
+        int size = high - low + 1;
+        int mid = low + (high - low) / 2;
+
+        if (size < NINTHER_THRESHOLD) {
+            return medianOfThree(records, low, mid, high);
+        }
+
+        int eighth = size / 8;
+        int first = medianOfThree(records, low, low + eighth, low + 2 * eighth);
+        int middle = medianOfThree(records, mid - eighth, mid, mid + eighth);
+        int last = medianOfThree(records, high - 2 * eighth, high - eighth, high);
+        return medianOfThree(records, first, middle, last);
+    }
+
+    /**
+     * Returns the index of the median of three records.
+     *
+     * @param records Array of records
+     * @param a       First index
+     * @param b       Second index
+     * @param c       Third index
+     * @return Index holding the median record
+     */
+    private int medianOfThree(Record[] records, int a, int b, int c) {
+        if (counter.before(records[a], records[b])) {
+            if (counter.before(records[b], records[c])) {
+                return b;
+            }
+            return counter.before(records[a], records[c]) ? c : a;
+        }
+        if (counter.before(records[a], records[c])) {
+            return a;
+        }
+        return counter.before(records[b], records[c]) ? c : b;
+    }
+
+    /**
+     * Partitions the array around the pivot stored at high.
+     *
+     * @param records Array of records
+     * @param low     Starting index
+     * @param high    Ending index
+     * @return Index of the pivot after partitioning
+     */
+    private int partition(Record[] records, int low, int high) {
+        Record pivot = records[high];
+        int i = low - 1;
+
+        for (int j = low; j < high; j++) {
+            // Compare by bestseller rank (lower rank is better)
+            if (counter.before(records[j], pivot)) {
+                i++;
+                counter.swap(records, i, j);
+            }
+        }
+        counter.swap(records, i + 1, high);
+        return i + 1;
+    }
+
+    @Override
+    public SortMetrics getLastMetrics() {
+        return counter.toMetrics();
+    }
+
+    /**
+     * Gets the current comparison count, including HeapSort fallbacks.
+     *
+     * @return Number of comparisons
+     */
+    public long getComparisons() {
+        return counter.getComparisons();
+    }
+
+    /**
+     * Gets the current swap count, including HeapSort fallbacks.
+     *
+     * @return Number of swaps
+     */
+    public long getSwaps() {
+        return counter.getSwaps();
+    }
+
+    /**
+     * Gets the number of ranges the last sort handed to HeapSort.
+     *
+     * @return Number of HeapSort fallbacks
+     */
+    public int getHeapSortFallbacks() {
+        return heapSortFallbacks;
+    }
+}
@@ -0,0 +1,188 @@
+package com.bookdepository.algorithms.sorting;
+
+import com.bookdepository.model.Record;
+import com.bookdepository.io.PerformanceResult;
+import com.bookdepository.io.SortMetrics;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parallel QuickSort implementation with performance tracking.
+ * Partitions larger than the threshold are split into fork/join tasks;
+ * smaller partitions are sorted sequentially inside their task.
+ * Uses the same partition scheme as {@link QuickSort}, so the sorted order
+ * and the comparison/swap totals are identical to the sequential sort.
+ */
+public class ParallelQuickSort implements Sorter {
+    /**
+     * Default partition size below which a task sorts sequentially.
+     */
+    public static final int DEFAULT_THRESHOLD = 8192;
+
+    private final int threshold;
+    private final ForkJoinPool pool;
+    private final SortCounter counter;
+
+    /**
+     * Default constructor. Uses the default threshold and the common pool.
+     */
+    public ParallelQuickSort() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Creates a parallel QuickSort running on the common pool.
+     *
+     * @param threshold Partition size below which a task sorts sequentially
+     */
+    public ParallelQuickSort(int threshold) {
+        this(threshold, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a parallel QuickSort running on the given pool.
+     *
+     * @param threshold Partition size below which a task sorts sequentially
+     * @param pool      Pool the sort tasks are submitted to
+     */
+    public ParallelQuickSort(int threshold, ForkJoinPool pool) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Threshold must be positive: " + threshold);
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool must not be null");
+        }
+        this.threshold = threshold;
+        this.pool = pool;
+        this.counter = new SortCounter();
+    }
+
+    @Override
+    public String getName() {
+        return "ParallelQuickSort";
+    }
+
+    /**
+     * Sorts an array of records using parallel QuickSort.
+     *
+     * @param records Array of records to sort
+     * @return Performance result with comparisons, swaps, and execution time
+     */
+    @Override
+    public PerformanceResult sort(Record[] records) {
+        counter.start();
+
+        if (records != null && records.length > 0) {
+            SortTask task = new SortTask(records, 0, records.length - 1, threshold);
+            pool.invoke(task);
+            counter.add(task.counter);
+        }
+
+        counter.stop();
+        return counter.toResult();
+    }
+
+    /**
+     * Gets the partition size below which a task sorts sequentially.
+     *
+     * @return Sequential cutoff
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    @Override
+    public SortMetrics getLastMetrics() {
+        return counter.toMetrics();
+    }
+
+    /**
+     * Gets the comparison count of the last sort.
+     *
+     * @return Number of comparisons
+     */
+    public long getComparisons() {
+        return counter.getComparisons();
+    }
+
+    /**
+     * Gets the swap count of the last sort.
+     *
+     * @return Number of swaps
+     */
+    public long getSwaps() {
+        return counter.getSwaps();
+    }
+
+    /**
+     * Fork/join task sorting one partition.
+     * Each task counts into its own counter and adds its subtasks' counters
+     * after joining them, so no counter is shared between threads.
+     */
+    private static final class SortTask extends RecursiveAction {
+        private final Record[] records;
+        private final int low;
+        private final int high;
+        private final int threshold;
+        private final SortCounter counter;
+
+        SortTask(Record[] records, int low, int high, int threshold) {
+            this.records = records;
+            this.low = low;
+            this.high = high;
+            this.threshold = threshold;
+            this.counter = new SortCounter();
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low + 1 <= threshold) {
+                quickSort(low, high);
+                return;
+            }
+
+            int pi = partition(low, high);
+            SortTask left = new SortTask(records, low, pi - 1, threshold);
+            SortTask right = new SortTask(records, pi + 1, high, threshold);
+            invokeAll(left, right);
+
+            counter.add(left.counter);
+            counter.add(right.counter);
+        }
+
+        /**
+         * Sequential QuickSort used below the threshold.
+         *
+         * @param low  Starting index
+         * @param high Ending index
+         */
+        private void quickSort(int low, int high) {
+            if (low < high) {
+                int pi = partition(low, high);
+                quickSort(low, pi - 1);
+                quickSort(pi + 1, high);
+            }
+        }
+
+        /**
+         * Partitions the range around its last element.
+         *
+         * @param low  Starting index
+         * @param high Ending index
+         * @return Index of the pivot after partitioning
+         */
+        private int partition(int low, int high) {
+            Record pivot = records[high];
+            int i = low - 1;
+
+            for (int j = low; j < high; j++) {
+                if (counter.before(records[j], pivot)) {
+                    i++;
+                    counter.swap(records, i, j);
+                }
+            }
+            counter.swap(records, i + 1, high);
+            return i + 1;
+        }
+    }
+}
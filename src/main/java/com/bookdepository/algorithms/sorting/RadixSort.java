@@ -0,0 +1,221 @@
+package com.bookdepository.algorithms.sorting;
+
+import com.bookdepository.model.Record;
+import com.bookdepository.io.PerformanceResult;
+import com.bookdepository.io.SortMetrics;
+
+/**
+ * LSD radix sort implementation with performance tracking.
+ * Sorts records by bestseller rank, with zero ranks at the end.
+ *
+ * The rank of every record is read once into an int key; each pass then
+ * distributes records by one digit of that key into a scratch array. The sort
+ * is stable and performs no key comparisons. Passes whose digit is the same
+ * for every record (the high digits, since ranks are small) are skipped.
+ *
+ * The result reports zero comparisons and the number of record moves as swaps;
+ * the number of distribution passes is available from {@link #getPasses()}.
+ * The metrics split the time into the "keys", "histogram", "distribution"
+ * and "copyBack" phases.
+ */
+public class RadixSort implements Sorter {
+    /**
+     * Default number of key bits per pass.
+     */
+    public static final int DEFAULT_RADIX_BITS = 8;
+
+    private final int radixBits;
+    private int[] keys;
+    private int[] keyScratch;
+    private Record[] defaultScratch;
+    private final SortCounter counter;
+    private int passes;
+
+    /**
+     * Default constructor. Sorts 8 bits per pass.
+     */
+    public RadixSort() {
+        this(DEFAULT_RADIX_BITS);
+    }
+
+    /**
+     * Creates a radix sort with the given digit width.
+     *
+     * @param radixBits Number of key bits per pass (1 to 16, typically 8 or 11)
+     */
+    public RadixSort(int radixBits) {
+        if (radixBits < 1 || radixBits > 16) {
+            throw new IllegalArgumentException("Radix bits must be between 1 and 16: " + radixBits);
+        }
+        this.radixBits = radixBits;
+        this.keys = new int[0];
+        this.keyScratch = new int[0];
+        this.defaultScratch = new Record[0];
+        this.counter = new SortCounter();
+        this.passes = 0;
+    }
+
+    /**
+     * Gets the algorithm name; digit widths other than 8 bits carry the width as a suffix.
+     *
+     * @return Algorithm name
+     */
+    @Override
+    public String getName() {
+        return radixBits == DEFAULT_RADIX_BITS ? "RadixSort" : "RadixSort" + radixBits;
+    }
+
+    /**
+     * Sorts an array of records using LSD radix sort, with a scratch array
+     * kept by this instance and grown as needed.
+     *
+     * @param records Array of records to sort
+     * @return Performance result with zero comparisons, record moves, and execution time
+     */
+    @Override
+    public PerformanceResult sort(Record[] records) {
+        if (records != null && defaultScratch.length < records.length) {
+            defaultScratch = new Record[records.length];
+        }
+        return sort(records, defaultScratch);
+    }
+
+    /**
+     * Sorts an array of records using LSD radix sort.
+     * The scratch array is used as the distribution target and can be reused
+     * across calls; it is allocated if null or shorter than the input.
+     *
+     * @param records Array of records to sort
+     * @param scratch Scratch array of at least records.length elements, or null
+     * @return Performance result with zero comparisons, record moves, and execution time
+     */
+    public PerformanceResult sort(Record[] records, Record[] scratch) {
+        passes = 0;
+        counter.start();
+
+        if (records != null && records.length > 1) {
+            int n = records.length;
+            if (scratch == null || scratch.length < n) {
+                scratch = new Record[n];
+            }
+            if (keys.length < n) {
+                keys = new int[n];
+                keyScratch = new int[n];
+            }
+
+            long phaseStart = counter.startPhase();
+            for (int i = 0; i < n; i++) {
+                keys[i] = RankKeys.unsignedKey(records[i].getBestsellersRank());
+            }
+            counter.endPhase("keys", phaseStart);
+
+            phaseStart = counter.startPhase();
+            int[][] counts = countDigits(keys, n);
+            counter.endPhase("histogram", phaseStart);
+
+            Record[] source = records;
+            Record[] target = scratch;
+            int[] sourceKeys = keys;
+            int[] targetKeys = keyScratch;
+
+            phaseStart = counter.startPhase();
+            for (int digit = 0; digit < counts.length; digit++) {
+                int[] count = counts[digit];
+                int shift = digit * radixBits;
+                int mask = count.length - 1;
+
+                if (count[(sourceKeys[0] >>> shift) & mask] == n) {
+                    continue; // Every record has the same digit
+                }
+
+                // Turn the histogram into starting offsets
+                int offset = 0;
+                for (int d = 0; d < count.length; d++) {
+                    int c = count[d];
+                    count[d] = offset;
+                    offset += c;
+                }
+
+                for (int i = 0; i < n; i++) {
+                    int key = sourceKeys[i];
+                    int position = count[(key >>> shift) & mask]++;
+                    target[position] = source[i];
+                    targetKeys[position] = key;
+                }
+                counter.addSwaps(n);
+                passes++;
+
+                Record[] tempRecords = source;
+                source = target;
+                target = tempRecords;
+                int[] tempKeys = sourceKeys;
+                sourceKeys = targetKeys;
+                targetKeys = tempKeys;
+            }
+            counter.endPhase("distribution", phaseStart);
+
+            if (source != records) {
+                phaseStart = counter.startPhase();
+                System.arraycopy(source, 0, records, 0, n);
+                counter.addSwaps(n);
+                counter.endPhase("copyBack", phaseStart);
+            }
+        }
+
+        counter.stop();
+        return counter.toResult();
+    }
+
+    @Override
+    public SortMetrics getLastMetrics() {
+        return counter.toMetrics();
+    }
+
+    /**
+     * Builds the digit histograms for every pass in a single scan of the keys.
+     *
+     * @param keys Unsigned rank keys
+     * @param n    Number of keys
+     * @return One histogram per digit, least significant first
+     */
+    private int[][] countDigits(int[] keys, int n) {
+        int digits = (Integer.SIZE + radixBits - 1) / radixBits;
+        int mask = (1 << radixBits) - 1;
+        int[][] counts = new int[digits][1 << radixBits];
+
+        for (int i = 0; i < n; i++) {
+            int key = keys[i];
+            for (int digit = 0; digit < digits; digit++) {
+                counts[digit][(key >>> (digit * radixBits)) & mask]++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Gets the number of key bits per pass.
+     *
+     * @return Radix bits
+     */
+    public int getRadixBits() {
+        return radixBits;
+    }
+
+    /**
+     * Gets the number of distribution passes of the last sort.
+     *
+     * @return Number of passes
+     */
+    public int getPasses() {
+        return passes;
+    }
+
+    /**
+     * Gets the number of record moves of the last sort.
+     *
+     * @return Number of record moves
+     */
+    public long getMoves() {
+        return counter.getSwaps();
+    }
+}
@@ -0,0 +1,113 @@
+package com.bookdepository.algorithms.sorting;
+
+import com.bookdepository.model.Record;
+
+/**
+ * Packed primitive sort keys for records.
+ * Each key holds the record's bestseller rank in the upper 32 bits and the
+ * record's original index in the lower 32 bits, so an algorithm can sort a
+ * single long[] without touching the Record objects and then apply the
+ * resulting permutation back to the array.
+ */
+final class RankKeys {
+
+    private RankKeys() {
+    }
+
+    /**
+     * Maps a bestseller rank to a signed int that orders the same way as
+     * shouldSwap: lower ranks first, zero ranks after every other rank.
+     * Ranks in the dataset are non-negative.
+     *
+     * @param rank Bestseller rank
+     * @return Sortable key
+     */
+    static int sortKey(int rank) {
+        return (rank - 1) ^ Integer.MIN_VALUE;
+    }
+
+    /**
+     * Maps a bestseller rank to an int whose unsigned order matches shouldSwap,
+     * for algorithms that work on the key's bits (zero ranks become 0xFFFFFFFF).
+     *
+     * @param rank Bestseller rank
+     * @return Unsigned sortable key
+     */
+    static int unsignedKey(int rank) {
+        return rank - 1;
+    }
+
+    /**
+     * Builds the packed key array for the given records.
+     *
+     * @param records Array of records
+     * @return Packed rank/index keys, one per record
+     */
+    static long[] pack(Record[] records) {
+        long[] keys = new long[records.length];
+        for (int i = 0; i < records.length; i++) {
+            keys[i] = ((long) sortKey(records[i].getBestsellersRank()) << 32) | i;
+        }
+        return keys;
+    }
+
+    /**
+     * Extracts the rank part of a packed key.
+     *
+     * @param key Packed key
+     * @return Sortable rank key
+     */
+    static int rank(long key) {
+        return (int) (key >> 32);
+    }
+
+    /**
+     * Extracts the original index part of a packed key.
+     *
+     * @param key Packed key
+     * @return Original index of the record
+     */
+    static int index(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Reorders records so that records[i] is the record whose index is stored in keys[i].
+     * Works in place by following the permutation's cycles, so no second
+     * record array is allocated. Each position is marked done by rewriting its
+     * key's index to the position itself; the keys' index bits are therefore
+     * consumed, while their rank bits are left as they were.
+     *
+     * @param records Array of records, in original order
+     * @param keys    Sorted packed keys
+     */
+    static void applyPermutation(Record[] records, long[] keys) {
+        for (int start = 0; start < keys.length; start++) {
+            if (index(keys[start]) == start) {
+                continue;
+            }
+            Record first = records[start];
+            int position = start;
+            int source = index(keys[position]);
+            while (source != start) {
+                records[position] = records[source];
+                keys[position] = withIndex(keys[position], position);
+                position = source;
+                source = index(keys[position]);
+            }
+            records[position] = first;
+            keys[position] = withIndex(keys[position], position);
+        }
+    }
+
+    /**
+     * Replaces the original index part of a packed key.
+     *
+     * @param key   Packed key
+     * @param index New index
+     * @return Key with the same rank and the given index
+     */
+    private static long withIndex(long key, int index) {
+        return (key & 0xFFFFFFFF00000000L) | index;
+    }
+}
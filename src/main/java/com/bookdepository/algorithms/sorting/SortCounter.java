@@ -0,0 +1,306 @@
+package com.bookdepository.algorithms.sorting;
+
+import com.bookdepository.model.Record;
+import com.bookdepository.model.ColumnarRecords;
+import com.bookdepository.io.PerformanceResult;
+import com.bookdepository.io.SortMetrics;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Instrumented rank comparator and swap helper shared by the sorting algorithms.
+ * Every comparison and swap made through it is counted, so all algorithms
+ * report their metrics the same way. It also times the run with
+ * System.nanoTime(), overall and per named phase.
+ *
+ * A counter is not thread-safe; parallel algorithms give each task its own
+ * counter and combine them with {@link #add(SortCounter)}.
+ */
+public class SortCounter {
+    private long comparisons;
+    private long swaps;
+    private long startNanos;
+    private long elapsedNanos;
+    private final Map<String, Long> phaseNanos;
+
+    /**
+     * Default constructor.
+     */
+    public SortCounter() {
+        this.comparisons = 0;
+        this.swaps = 0;
+        this.startNanos = 0;
+        this.elapsedNanos = 0;
+        this.phaseNanos = new LinkedHashMap<>();
+    }
+
+    /**
+     * Resets the counters, the timer and the phase times.
+     */
+    public void reset() {
+        comparisons = 0;
+        swaps = 0;
+        startNanos = 0;
+        elapsedNanos = 0;
+        phaseNanos.clear();
+    }
+
+    /**
+     * Resets the counter and starts timing a sorting run.
+     */
+    public void start() {
+        reset();
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Stops timing the sorting run.
+     */
+    public void stop() {
+        elapsedNanos = System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Marks the start of a phase.
+     *
+     * @return Timestamp to pass to {@link #endPhase(String, long)}
+     */
+    public long startPhase() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Adds the time since phaseStart to the named phase.
+     * A phase can be entered several times; its times are summed.
+     *
+     * @param phase      Phase name
+     * @param phaseStart Timestamp returned by {@link #startPhase()}
+     */
+    public void endPhase(String phase, long phaseStart) {
+        addPhaseNanos(phase, System.nanoTime() - phaseStart);
+    }
+
+    /**
+     * Adds time measured by the caller to the named phase. Lets a phase
+     * entered very often be summed in a local long and recorded once.
+     *
+     * @param phase Phase name
+     * @param nanos Nanoseconds to add
+     */
+    public void addPhaseNanos(String phase, long nanos) {
+        Long previous = phaseNanos.get(phase);
+        phaseNanos.put(phase, previous == null ? nanos : previous + nanos);
+    }
+
+    /**
+     * Attributes the part of the run not covered by any phase to the named phase.
+     * Call after {@link #stop()}.
+     *
+     * @param phase Phase name
+     */
+    public void endRemainderPhase(String phase) {
+        long covered = 0;
+        for (long nanos : phaseNanos.values()) {
+            covered += nanos;
+        }
+        phaseNanos.put(phase, Math.max(0, elapsedNanos - covered));
+    }
+
+    /**
+     * Determines if one bestseller rank sorts before another.
+     * Lower ranks come first and zero ranks come after every other rank.
+     * Does not count a comparison.
+     *
+     * @param rankA First rank
+     * @param rankB Second rank
+     * @return true if rankA should come before rankB
+     */
+    public static boolean ranksBefore(int rankA, int rankB) {
+        // Handle zero ranks (put them at the end)
+        if (rankA == 0) {
+            return false; // A goes after B
+        }
+        if (rankB == 0) {
+            return true; // A goes before B
+        }
+
+        return rankA < rankB; // Lower rank is better
+    }
+
+    /**
+     * Compares two records by bestseller rank and counts one comparison.
+     *
+     * @param a First record
+     * @param b Second record
+     * @return true if a should come before b
+     */
+    public boolean before(Record a, Record b) {
+        comparisons++;
+        return ranksBefore(a.getBestsellersRank(), b.getBestsellersRank());
+    }
+
+    /**
+     * Three-way comparison of two records by bestseller rank; counts one comparison.
+     *
+     * @param a First record
+     * @param b Second record
+     * @return Negative if a comes before b, zero if they rank equally, positive otherwise
+     */
+    public int compare(Record a, Record b) {
+        comparisons++;
+        int rankA = a.getBestsellersRank();
+        int rankB = b.getBestsellersRank();
+
+        if (rankA == rankB) {
+            return 0;
+        }
+        return ranksBefore(rankA, rankB) ? -1 : 1;
+    }
+
+    /**
+     * Compares two bestseller ranks and counts one comparison.
+     *
+     * @param rankA First rank
+     * @param rankB Second rank
+     * @return true if rankA should come before rankB
+     */
+    public boolean rankBefore(int rankA, int rankB) {
+        comparisons++;
+        return ranksBefore(rankA, rankB);
+    }
+
+    /**
+     * Compares two packed rank keys (see {@link RankKeys}) and counts one comparison.
+     *
+     * @param a First key
+     * @param b Second key
+     * @return true if a should come before b
+     */
+    public boolean before(long a, long b) {
+        comparisons++;
+        return RankKeys.rank(a) < RankKeys.rank(b);
+    }
+
+    /**
+     * Swaps two elements in the array, counting the swap if the indices differ.
+     *
+     * @param records Array of records
+     * @param i       First index
+     * @param j       Second index
+     */
+    public void swap(Record[] records, int i, int j) {
+        if (i != j) {
+            Record temp = records[i];
+            records[i] = records[j];
+            records[j] = temp;
+            swaps++;
+        }
+    }
+
+    /**
+     * Swaps two packed keys in the array, counting the swap if the indices differ.
+     *
+     * @param keys Array of packed keys
+     * @param i    First index
+     * @param j    Second index
+     */
+    public void swap(long[] keys, int i, int j) {
+        if (i != j) {
+            long temp = keys[i];
+            keys[i] = keys[j];
+            keys[j] = temp;
+            swaps++;
+        }
+    }
+
+    /**
+     * Swaps two records of a columnar store, counting the swap if the positions differ.
+     *
+     * @param store Record store
+     * @param i     First position
+     * @param j     Second position
+     */
+    public void swap(ColumnarRecords store, int i, int j) {
+        if (i != j) {
+            store.swap(i, j);
+            swaps++;
+        }
+    }
+
+    /**
+     * Counts record moves done outside {@link #swap}, one swap per move.
+     *
+     * @param moves Number of moves
+     */
+    public void addSwaps(long moves) {
+        swaps += moves;
+    }
+
+    /**
+     * Adds another counter's totals to this one.
+     *
+     * @param other Counter to add
+     */
+    public void add(SortCounter other) {
+        comparisons += other.comparisons;
+        swaps += other.swaps;
+    }
+
+    /**
+     * Adds the counters of metrics produced by another algorithm.
+     *
+     * @param metrics Metrics to add
+     */
+    public void add(SortMetrics metrics) {
+        comparisons += metrics.getComparisons();
+        swaps += metrics.getSwaps();
+    }
+
+    /**
+     * Builds a performance result from the counters and the timed run.
+     * The result keeps its int counters and millisecond time; counters beyond
+     * Integer.MAX_VALUE saturate there, while {@link #toMetrics()} stays exact.
+     *
+     * @return Performance result
+     */
+    public PerformanceResult toResult() {
+        return new PerformanceResult(saturate(comparisons), saturate(swaps), elapsedNanos / 1_000_000);
+    }
+
+    /**
+     * Builds the detailed metrics of the timed run.
+     *
+     * @return Sort metrics with exact counters, nanosecond time and phase times
+     */
+    public SortMetrics toMetrics() {
+        return new SortMetrics(comparisons, swaps, elapsedNanos, phaseNanos);
+    }
+
+    /**
+     * Narrows a counter to an int, saturating instead of wrapping.
+     *
+     * @param value Counter value
+     * @return Value, capped at Integer.MAX_VALUE
+     */
+    private static int saturate(long value) {
+        return (int) Math.min(value, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gets the comparison count.
+     *
+     * @return Number of comparisons
+     */
+    public long getComparisons() {
+        return comparisons;
+    }
+
+    /**
+     * Gets the swap count.
+     *
+     * @return Number of swaps
+     */
+    public long getSwaps() {
+        return swaps;
+    }
+}
@@ -0,0 +1,69 @@
+package com.bookdepository.algorithms.sorting;
+
+import com.bookdepository.model.Record;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reusable input buffers for repeated sorting runs.
+ * Holds one master snapshot of the records; {@link #fill(int)} copies the first
+ * n records into a buffer owned by the calling thread with System.arraycopy,
+ * so running several algorithms over the same sizes allocates each buffer once
+ * instead of building a new array per algorithm per size.
+ */
+public class SortWorkspace {
+    private final Record[] master;
+    private final ThreadLocal<Map<Integer, Record[]>> buffers;
+
+    /**
+     * Creates a workspace over a snapshot of the given records.
+     *
+     * @param records Records in their original order
+     */
+    public SortWorkspace(List<Record> records) {
+        this(records.toArray(new Record[0]));
+    }
+
+    /**
+     * Creates a workspace over the given array, which is used as the master
+     * snapshot and must not be modified afterwards.
+     *
+     * @param master Records in their original order
+     */
+    public SortWorkspace(Record[] master) {
+        this.master = master;
+        this.buffers = ThreadLocal.withInitial(HashMap::new);
+    }
+
+    /**
+     * Gets the calling thread's buffer of length n, refilled with the first n
+     * records of the master snapshot. The buffer is overwritten by the next
+     * call for the same size on the same thread.
+     *
+     * @param n Number of records
+     * @return Buffer holding master[0..n) in original order
+     * @throws IllegalArgumentException if n is negative or exceeds the snapshot size
+     */
+    public Record[] fill(int n) {
+        if (n < 0 || n > master.length) {
+            throw new IllegalArgumentException("Size must be between 0 and " + master.length + ": " + n);
+        }
+        Record[] buffer = buffers.get().get(n);
+        if (buffer == null) {
+            buffer = new Record[n];
+            buffers.get().put(n, buffer);
+        }
+        System.arraycopy(master, 0, buffer, 0, n);
+        return buffer;
+    }
+
+    /**
+     * Gets the number of records in the master snapshot.
+     *
+     * @return Snapshot size
+     */
+    public int size() {
+        return master.length;
+    }
+}
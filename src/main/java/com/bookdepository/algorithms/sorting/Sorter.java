@@ -0,0 +1,41 @@
+package com.bookdepository.algorithms.sorting;
+
+import com.bookdepository.model.Record;
+import com.bookdepository.io.PerformanceResult;
+import com.bookdepository.io.SortMetrics;
+
+/**
+ * Common interface of the record sorting algorithms.
+ * Implementations sort records by bestseller rank, with zero ranks at the end,
+ * and report their comparisons, swaps and execution time. The detailed metrics
+ * of the last run, with 64-bit counters, nanosecond time and phase times, are
+ * available from {@link #getLastMetrics()}.
+ *
+ * Implementations with a public no-argument constructor can be listed in
+ * META-INF/services/com.bookdepository.algorithms.sorting.Sorter to be picked
+ * up by {@link SorterRegistry}.
+ */
+public interface Sorter {
+
+    /**
+     * Gets the name the algorithm is registered and reported under.
+     *
+     * @return Algorithm name
+     */
+    String getName();
+
+    /**
+     * Sorts an array of records in place.
+     *
+     * @param records Array of records to sort
+     * @return Performance result with comparisons, swaps, and execution time
+     */
+    PerformanceResult sort(Record[] records);
+
+    /**
+     * Gets the detailed metrics of the last sort.
+     *
+     * @return Metrics of the last call to {@link #sort(Record[])}
+     */
+    SortMetrics getLastMetrics();
+}
@@ -0,0 +1,160 @@
+package com.bookdepository.algorithms.sorting;
+
+import com.bookdepository.model.Record;
+import com.bookdepository.io.PerformanceResult;
+import com.bookdepository.io.SortMetrics;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Registry of the sorting algorithms available to the experiments and benchmarks,
+ * looked up by name (case-insensitive).
+ *
+ * The built-in algorithms are registered up front. Further {@link Sorter}
+ * implementations are discovered with {@link ServiceLoader} and registered
+ * under their {@link Sorter#getName()}; each lookup creates a fresh instance.
+ */
+public final class SorterRegistry {
+    /**
+     * Algorithms run by SortingExperiment when none are named.
+     */
+    public static final String[] DEFAULT_ALGORITHMS = {"QuickSort", "HeapSort", "RadixSort"};
+
+    private static final Map<String, Supplier<Sorter>> SORTERS = new LinkedHashMap<>();
+    private static final Map<String, String> NAMES = new LinkedHashMap<>();
+
+    static {
+        register("QuickSort", QuickSort::new);
+        register("HeapSort", HeapSort::new);
+        register("QuickSortRankKey", () -> {
+            QuickSort quickSort = new QuickSort();
+            return rankKeySorter("QuickSortRankKey", quickSort, quickSort::sortByRankKey);
+        });
+        register("HeapSortRankKey", () -> {
+            HeapSort heapSort = new HeapSort();
+            return rankKeySorter("HeapSortRankKey", heapSort, heapSort::sortByRankKey);
+        });
+        register("ParallelQuickSort", ParallelQuickSort::new);
+        register("IntroSort", IntroSort::new);
+        register("ThreeWayQuickSort", ThreeWayQuickSort::new);
+        register("BottomUpHeapSort", BottomUpHeapSort::new);
+        register("BottomUpHeapSort4", () -> new BottomUpHeapSort(4));
+        register("BottomUpHeapSort8", () -> new BottomUpHeapSort(8));
+        register("RadixSort", RadixSort::new);
+        register("RadixSort11", () -> new RadixSort(11));
+
+        for (Sorter sorter : ServiceLoader.load(Sorter.class)) {
+            Class<? extends Sorter> type = sorter.getClass();
+            register(sorter.getName(), () -> newInstance(type));
+        }
+    }
+
+    private SorterRegistry() {
+    }
+
+    /**
+     * Registers a sorting algorithm, replacing any algorithm with the same name.
+     *
+     * @param name    Algorithm name
+     * @param factory Factory creating a new instance of the algorithm
+     */
+    public static synchronized void register(String name, Supplier<Sorter> factory) {
+        SORTERS.put(name.toLowerCase(), factory);
+        NAMES.put(name.toLowerCase(), name);
+    }
+
+    /**
+     * Creates a new instance of the named algorithm.
+     *
+     * @param name Algorithm name
+     * @return New sorter
+     * @throws IllegalArgumentException if no algorithm has that name
+     */
+    public static synchronized Sorter create(String name) {
+        Supplier<Sorter> factory = SORTERS.get(name.trim().toLowerCase());
+        if (factory == null) {
+            throw new IllegalArgumentException("Unknown sorting algorithm: " + name
+                + ". Available: " + getNames());
+        }
+        return factory.get();
+    }
+
+    /**
+     * Creates new instances of the named algorithms, in order.
+     * Each name may also be a comma-separated list of names.
+     *
+     * @param names Algorithm names
+     * @return New sorters
+     * @throws IllegalArgumentException if any name is unknown
+     */
+    public static List<Sorter> createAll(String... names) {
+        List<Sorter> sorters = new ArrayList<>();
+        for (String name : names) {
+            for (String part : name.split(",")) {
+                if (!part.trim().isEmpty()) {
+                    sorters.add(create(part));
+                }
+            }
+        }
+        return sorters;
+    }
+
+    /**
+     * Gets the names of all registered algorithms.
+     *
+     * @return Registered algorithm names, in registration order
+     */
+    public static synchronized Set<String> getNames() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(NAMES.values()));
+    }
+
+    /**
+     * Wraps the rank-key mode of a sorter as a sorter of its own.
+     *
+     * @param name        Name to report
+     * @param sorter      Underlying sorter, which reports the metrics
+     * @param rankKeySort Rank-key sort of the underlying sorter, such as {@link QuickSort#sortByRankKey(Record[])}
+     * @return Sorter running the rank-key sort
+     */
+    private static Sorter rankKeySorter(String name, Sorter sorter,
+                                        Function<Record[], PerformanceResult> rankKeySort) {
+        return new Sorter() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public PerformanceResult sort(Record[] records) {
+                return rankKeySort.apply(records);
+            }
+
+            @Override
+            public SortMetrics getLastMetrics() {
+                return sorter.getLastMetrics();
+            }
+        };
+    }
+
+    /**
+     * Creates an instance of a service-loaded sorter through its no-argument constructor.
+     *
+     * @param type Sorter class
+     * @return New sorter
+     */
+    private static Sorter newInstance(Class<? extends Sorter> type) {
+        try {
+            return type.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot instantiate sorter " + type.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.bookdepository.algorithms.sorting;
+
+import com.bookdepository.model.Record;
+import com.bookdepository.io.PerformanceResult;
+import com.bookdepository.io.SortMetrics;
+
+/**
+ * Three-way (Dutch national flag) QuickSort implementation with performance tracking.
+ * Sorts records by bestseller rank.
+ *
+ * Each partitioning pass splits the range into records ranked before, equal to
+ * and after the pivot, and only the outer two parts are sorted further. Runs of
+ * equal ranks, such as the many zero-ranked records in the dataset, are therefore
+ * settled in a single pass instead of being re-partitioned at every level.
+ */
+public class ThreeWayQuickSort implements Sorter {
+    private final SortCounter counter;
+
+    /**
+     * Default constructor.
+     */
+    public ThreeWayQuickSort() {
+        this.counter = new SortCounter();
+    }
+
+    @Override
+    public String getName() {
+        return "ThreeWayQuickSort";
+    }
+
+    /**
+     * Sorts an array of records using three-way QuickSort.
+     *
+     * @param records Array of records to sort
+     * @return Performance result with comparisons, swaps, and execution time
+     */
+    @Override
+    public PerformanceResult sort(Record[] records) {
+        counter.start();
+
+        if (records != null && records.length > 1) {
+            quickSort(records, 0, records.length - 1);
+        }
+
+        counter.stop();
+        return counter.toResult();
+    }
+
+    /**
+     * Three-way QuickSort: recurses into the smaller outer part and iterates on the larger one.
+     *
+     * @param records Array of records
+     * @param low     Starting index
+     * @param high    Ending index
+     */
+    private void quickSort(Record[] records, int low, int high) {
+        while (low < high) {
+            counter.swap(records, low, medianOfThree(records, low, low + (high - low) / 2, high));
+            Record pivot = records[low];
+
+            // records[low..lt-1] < pivot, records[lt..i-1] == pivot, records[gt+1..high] > pivot
+            int lt = low;
+            int gt = high;
+            int i = low + 1;
+            while (i <= gt) {
+                int cmp = counter.compare(records[i], pivot);
+                if (cmp < 0) {
+                    counter.swap(records, lt++, i++);
+                } else if (cmp > 0) {
+                    counter.swap(records, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            if (lt - low < high - gt) {
+                quickSort(records, low, lt - 1);
+                low = gt + 1;
+            } else {
+                quickSort(records, gt + 1, high);
+                high = lt - 1;
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the median of three records.
+     *
+     * @param records Array of records
+     * @param a       First index
+     * @param b       Second index
+     * @param c       Third index
+     * @return Index holding the median record
+     */
+    private int medianOfThree(Record[] records, int a, int b, int c) {
+        if (counter.before(records[a], records[b])) {
+            if (counter.before(records[b], records[c])) {
+                return b;
+            }
+            return counter.before(records[a], records[c]) ? c : a;
+        }
+        if (counter.before(records[a], records[c])) {
+            return a;
+        }
+        return counter.before(records[b], records[c]) ? c : b;
+    }
+
+    @Override
+    public SortMetrics getLastMetrics() {
+        return counter.toMetrics();
+    }
+
+    /**
+     * Gets the current comparison count.
+     *
+     * @return Number of comparisons
+     */
+    public long getComparisons() {
+        return counter.getComparisons();
+    }
+
+    /**
+     * Gets the current swap count.
+     *
+     * @return Number of swaps
+     */
+    public long getSwaps() {
+        return counter.getSwaps();
+    }
+}
@@ -2,72 +2,312 @@ package com.bookdepository.experiments;
 
 import com.bookdepository.model.Record;
 import com.bookdepository.model.Author;
-import com.bookdepository.io.FileReader;
+import com.bookdepository.model.ColumnarRecords;
+import com.bookdepository.model.OffHeapRecordStore;
+import com.bookdepository.model.RecordStore;
+import com.bookdepository.io.ApproximationReportWriter;
+import com.bookdepository.io.HashTableMetricsWriter;
 import com.bookdepository.io.Part2OutputWriter;
+import com.bookdepository.io.RecordField;
+import com.bookdepository.io.RecordReaders;
+import com.bookdepository.io.RecordSource;
+import com.bookdepository.io.RecordStoreLoader;
+import com.bookdepository.io.RecordStream;
+import com.bookdepository.structures.hashtable.AuthorFrequencyTable;
 import com.bookdepository.structures.hashtable.AuthorHashTable;
+import com.bookdepository.structures.hashtable.HashTableMetrics;
+import com.bookdepository.structures.hashtable.IncrementalAuthorCounts;
+import com.bookdepository.structures.hashtable.ParallelAuthorCounter;
+import com.bookdepository.structures.hashtable.TopAuthors;
+import com.bookdepository.structures.sketch.ApproximationReport;
+import com.bookdepository.structures.sketch.BloomFilteredMap;
+import com.bookdepository.structures.sketch.CountMinSketch;
+import com.bookdepository.structures.sketch.SpaceSaving;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.EnumSet;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.io.Closeable;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 /**
  * Part II: Hash Tables Experiment
  * 
- * This program reads book records, uses hash tables to count author frequencies,
- * and identifies the most frequent authors.
+ * This program streams book records, uses hash tables to count author frequencies,
+ * and identifies the most frequent authors. Records are counted as they are
+ * read and not kept, so memory use does not grow with the dataset. Only the
+ * author column is decoded; the reader is chosen by the bookdepository.reader
+ * system property (see {@link RecordReaders}).
+ * 
+ * With --ordinals, the records are read with the same reader and loaded into
+ * a {@link RecordStore} that interns author ids into int ordinals, and the
+ * ordinals are counted in a primitive {@link AuthorFrequencyTable}; the top N
+ * is the same, ties included. The store holds the author ordinals of every
+ * record, so unlike the default path its memory grows with the dataset. With
+ * --threads T, the ordinals are counted on T threads. Either way, the probe,
+ * collision and resize figures of the table go to output/outputPart2Metrics.txt.
+ * With --store direct or --store mapped as well, the records CSV is loaded
+ * into an {@link OffHeapRecordStore} instead, kept in direct buffers or in
+ * buffers mapped onto temporary files, so the ordinals of a dataset larger
+ * than the heap can still be counted.
+ * 
+ * With --approximate, the author ids are fed only to a Space-Saving counter
+ * and a Count-Min Sketch, both in fixed memory set by --epsilon and --delta,
+ * and the Space-Saving top N is written. With --compare-exact as well, the
+ * authors are also counted exactly, and the errors against the exact counts
+ * go to output/outputPart2Approximate.txt.
+ * 
+ * With --state FILE, the counts are kept in FILE between runs: the first run
+ * counts the whole dataset, and later runs load the counts and apply the
+ * records of --deletes CSV and --inserts CSV instead of recounting. Options
+ * that a run would otherwise ignore, such as --state with --ordinals, are
+ * rejected.
+ * 
+ * With --bloom, author ids are checked against a Bloom filter of the author
+ * map before the map is probed, so ids missing from authors.csv are mostly
+ * rejected without a map lookup; the measured false-positive rate and the
+ * share of lookups the filter answered on its own are printed at the end.
  * 
  * Output: Results are written to output/outputPart2.txt
  */
 public class HashTableExperiment {
+    /**
+     * Command-line option that counts interned author ordinals in an
+     * {@link AuthorFrequencyTable} instead of Author objects. The records are
+     * loaded into a {@link RecordStore} first, so memory grows with the dataset.
+     */
+    public static final String ORDINALS_OPTION = "--ordinals";
+
+    /**
+     * Command-line option, followed by a thread count, that counts author
+     * ordinals on that many threads with a {@link ParallelAuthorCounter}.
+     * Like {@link #ORDINALS_OPTION}, it loads every record first.
+     */
+    public static final String THREADS_OPTION = "--threads";
+
+    /**
+     * Command-line option that selects where {@link #ORDINALS_OPTION} and
+     * {@link #THREADS_OPTION} keep the records: {@value #HEAP_STORE} (the
+     * default) for a {@link RecordStore}, {@value #DIRECT_STORE} for an
+     * {@link OffHeapRecordStore} in direct buffers, or {@value #MAPPED_STORE}
+     * for one in buffers mapped onto temporary files under java.io.tmpdir.
+     * The off-heap stores parse the CSV themselves, whatever the
+     * bookdepository.reader property says.
+     */
+    public static final String STORE_OPTION = "--store";
+    public static final String HEAP_STORE = "heap";
+    public static final String DIRECT_STORE = "direct";
+    public static final String MAPPED_STORE = "mapped";
+
+    /**
+     * Command-line option that writes the top N estimated by a fixed-memory
+     * Space-Saving counter, also feeding a Count-Min Sketch, without keeping
+     * exact counts. With {@link #COMPARE_EXACT_OPTION}, it reports their
+     * errors against the exact counts. It cannot be combined with
+     * {@link #ORDINALS_OPTION}, {@link #THREADS_OPTION} or {@link #STATE_OPTION}.
+     */
+    public static final String APPROXIMATE_OPTION = "--approximate";
+
+    /**
+     * Command-line option that, with {@link #APPROXIMATE_OPTION}, also counts
+     * the authors exactly and reports the error of the approximate counters.
+     * Without it, --approximate keeps only the fixed-memory counters.
+     */
+    public static final String COMPARE_EXACT_OPTION = "--compare-exact";
+
+    /**
+     * Command-line option, followed by a fraction of the total count, that
+     * sets the error bound of the approximate counters.
+     */
+    public static final String EPSILON_OPTION = "--epsilon";
+
+    /**
+     * Command-line option, followed by a probability, that sets how often a
+     * Count-Min estimate may exceed its error bound.
+     */
+    public static final String DELTA_OPTION = "--delta";
+
+    /**
+     * Command-line option, followed by a file, that keeps the author counts
+     * in that file between runs and updates them with record deltas.
+     */
+    public static final String STATE_OPTION = "--state";
+
+    /**
+     * Command-line option, followed by a records CSV, of records to add to
+     * the saved counts.
+     */
+    public static final String INSERTS_OPTION = "--inserts";
+
+    /**
+     * Command-line option, followed by a records CSV, of records to remove
+     * from the saved counts.
+     */
+    public static final String DELETES_OPTION = "--deletes";
+
+    /**
+     * Command-line option that puts a Bloom filter of the author ids in
+     * front of the author map.
+     */
+    public static final String BLOOM_OPTION = "--bloom";
+
+    /**
+     * Command-line option, followed by a probability, that sets the
+     * false-positive rate of the --bloom filter.
+     */
+    public static final String BLOOM_FPP_OPTION = "--bloom-fpp";
+
+    /**
+     * Default false-positive rate of the --bloom filter.
+     */
+    public static final double DEFAULT_BLOOM_FPP = 0.01;
+
+    /**
+     * Default error bound of the approximate counters: 0.01% of the total count.
+     */
+    public static final double DEFAULT_EPSILON = 1e-4;
+
+    /**
+     * Default probability of a Count-Min estimate exceeding its bound.
+     */
+    public static final double DEFAULT_DELTA = 0.01;
     
     public static void main(String[] args) {
         try {
+            int threads = parseThreads(args);
+            boolean approximate = parseApproximate(args, threads);
+            boolean compareExact = parseCompareExact(args, approximate);
+            String statePath = parseStatePath(args, threads);
+            String storeKind = parseStore(args, threads);
+            double epsilon = parseFraction(args, EPSILON_OPTION, DEFAULT_EPSILON);
+            double delta = parseFraction(args, DELTA_OPTION, DEFAULT_DELTA);
+            double bloomFpp = parseFraction(args, BLOOM_FPP_OPTION, DEFAULT_BLOOM_FPP);
+            
             Scanner scanner = new Scanner(System.in);
             System.out.print("Enter the number of top authors to display (N): ");
             int topN = scanner.nextInt();
             scanner.close();
             
-            // Read all records
-            List<Record> records = FileReader.readAllRecords();
-            System.out.println("Total records loaded: " + records.size());
-            
             // Read authors map for name lookup
-            java.util.Map<String, Author> authorMap = FileReader.readAuthorsMap();
+            Map<String, Author> authorMap;
+            BloomFilteredMap<Author> filteredMap = null;
+            if (Arrays.asList(args).contains(BLOOM_OPTION)) {
+                filteredMap = RecordReaders.readAuthorsMap(RecordStream.DEFAULT_RECORDS_FILE, bloomFpp);
+                authorMap = filteredMap;
+            } else {
+                authorMap = RecordReaders.readAuthorsMap(RecordStream.DEFAULT_RECORDS_FILE);
+            }
             System.out.println("Total authors in map: " + authorMap.size());
             
-            // Create hash table for authors with frequency tracking
-            AuthorHashTable authorHashTable = new AuthorHashTable(records.size() / 2);
+            if (statePath != null) {
+                List<Author> topAuthors = updateState(Paths.get(statePath), optionValue(args, INSERTS_OPTION),
+                    optionValue(args, DELETES_OPTION), authorMap, topN);
+                printFilterReport(filteredMap);
+                Part2OutputWriter.writeMostFrequentAuthors(topAuthors, topN);
+                System.out.println("Experiment completed. Results written to output/outputPart2.txt");
+                System.out.println("Top " + topAuthors.size() + " authors written to file.");
+                return;
+            }
             
-            // Process all records and count author frequencies
-            int processedCount = 0;
-            for (Record record : records) {
-                if (record.getAuthors() != null) {
-                    for (String authorId : record.getAuthors()) {
-                        if (authorId != null && !authorId.isEmpty()) {
-                            Author author = authorMap.get(authorId);
-                            if (author != null) {
-                                authorHashTable.insertOrIncrement(author);
-                            }
+            List<Author> allAuthors;
+            int processedCount;
+            SpaceSaving spaceSaving = null;
+            CountMinSketch sketch = null;
+            if (threads > 0 || Arrays.asList(args).contains(ORDINALS_OPTION)) {
+                // Intern author ids into ordinals at load time and count ints;
+                // the store keeps every record's authors, on or off the heap
+                ColumnarRecords store = loadStore(storeKind);
+                try {
+                    HashTableMetrics metrics = new HashTableMetrics();
+                    AuthorFrequencyTable frequencies;
+                    if (threads > 0) {
+                        ForkJoinPool pool = new ForkJoinPool(threads);
+                        try {
+                            frequencies = new ParallelAuthorCounter(ParallelAuthorCounter.DEFAULT_THRESHOLD, pool)
+                                .count(store, metrics);
+                        } finally {
+                            pool.shutdown();
                         }
+                        System.out.println("Counted on " + threads + " threads");
+                    } else {
+                        frequencies = new AuthorFrequencyTable(store.getDistinctAuthorCount());
+                        frequencies.setMetrics(metrics);
+                        frequencies.countAll(store);
+                    }
+                    allAuthors = frequencies.getAllAuthors(store, authorMap);
+                    HashTableMetricsWriter.writeMetrics(frequencies);
+                    System.out.println("Mean probe length: " + metrics.getMeanProbe()
+                        + ". Metrics written to output/outputPart2Metrics.txt");
+                    processedCount = store.size();
+                } finally {
+                    if (store instanceof Closeable) {
+                        ((Closeable) store).close();
                     }
                 }
-                processedCount++;
-                if (processedCount % 10000 == 0) {
-                    System.out.println("Processed " + processedCount + " records...");
+            } else if (approximate && !compareExact) {
+                // Only the fixed-memory counters; no exact count is kept
+                allAuthors = null;
+                spaceSaving = SpaceSaving.forError(epsilon);
+                sketch = new CountMinSketch(epsilon, delta);
+                try (RecordSource records = RecordReaders.open(RecordStream.DEFAULT_RECORDS_FILE,
+                        EnumSet.of(RecordField.AUTHORS))) {
+                    processedCount = countApproximate(records, authorMap, spaceSaving, sketch);
+                }
+            } else {
+                // Create hash table for authors with frequency tracking
+                AuthorHashTable authorHashTable = newAuthorHashTable(authorMap);
+
+                // Stream the records and count author frequencies; ties
+                // are broken by first occurrence, as on the ordinal path
+                allAuthors = new ArrayList<>();
+                try (RecordSource records = RecordReaders.open(RecordStream.DEFAULT_RECORDS_FILE,
+                        EnumSet.of(RecordField.AUTHORS))) {
+                    if (approximate) {
+                        spaceSaving = SpaceSaving.forError(epsilon);
+                        sketch = new CountMinSketch(epsilon, delta);
+                        processedCount = countApproximate(records, authorMap, authorHashTable, allAuthors,
+                            spaceSaving, sketch);
+                    } else {
+                        processedCount = countAuthors(records, authorMap, authorHashTable, allAuthors);
+                    }
                 }
             }
+            System.out.println("Total records processed: " + processedCount);
             
-            // Get all authors and sort by frequency
-            List<Author> allAuthors = authorHashTable.getAllAuthors();
-            Collections.sort(allAuthors, (a, b) -> b.compareByFrequency(a));
-            
-            System.out.println("Total unique authors found: " + allAuthors.size());
+            List<Author> topAuthors;
+            if (approximate) {
+                System.out.println("Space-Saving: " + spaceSaving.getCapacity() + " counters; Count-Min: "
+                    + sketch.getWidth() + " x " + sketch.getDepth() + ", " + sketch.getMemoryBytes() + " bytes");
+                if (compareExact) {
+                    ApproximationReport report = ApproximationReport.compare(allAuthors, topN, spaceSaving, sketch);
+                    ApproximationReportWriter.writeReport(report);
+                    System.out.println("Space-Saving top " + topN + " recall: " + report.getTopRecall()
+                        + ", Count-Min mean error: " + report.getSketchMeanError()
+                        + ". Report written to output/outputPart2Approximate.txt");
+                }
+                topAuthors = approximateTop(spaceSaving, authorMap, topN);
+            } else {
+                System.out.println("Total unique authors found: " + allAuthors.size());
+
+                // Select the top N by frequency without sorting every author
+                topAuthors = TopAuthors.select(allAuthors, topN);
+            }
             
+            printFilterReport(filteredMap);
+
             // Write top N authors to output file
-            Part2OutputWriter.writeMostFrequentAuthors(allAuthors, topN);
+            Part2OutputWriter.writeMostFrequentAuthors(topAuthors, topN);
             
             System.out.println("Experiment completed. Results written to output/outputPart2.txt");
-            System.out.println("Top " + Math.min(topN, allAuthors.size()) + " authors written to file.");
+            System.out.println("Top " + topAuthors.size() + " authors written to file.");
             
         } catch (IOException e) {
             System.err.println("Error reading files: " + e.getMessage());
@@ -77,4 +317,383 @@ public class HashTableExperiment {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Updates saved author counts with record deltas and saves them back.
+     * Without a saved state, the whole dataset is counted first.
+     *
+     * @param stateFile  File of the saved counts
+     * @param insertsCsv Records CSV of inserted records, or null
+     * @param deletesCsv Records CSV of deleted records, or null
+     * @param authorMap  Authors by id; ids missing from it are not counted
+     * @param topN       Number of top authors
+     * @return Top authors, most frequent first
+     * @throws IOException If a file cannot be read or the state cannot be saved
+     */
+    static List<Author> updateState(Path stateFile, String insertsCsv, String deletesCsv,
+                                    Map<String, Author> authorMap, int topN) throws IOException {
+        IncrementalAuthorCounts counts;
+        if (Files.exists(stateFile)) {
+            counts = IncrementalAuthorCounts.load(stateFile, authorMap, topN);
+            System.out.println("Loaded author counts from " + stateFile);
+        } else {
+            counts = new IncrementalAuthorCounts(authorMap, topN);
+            try (RecordSource records = RecordReaders.open(RecordStream.DEFAULT_RECORDS_FILE,
+                    EnumSet.of(RecordField.AUTHORS))) {
+                System.out.println("Total records processed: " + counts.insertAll(records));
+            }
+        }
+        if (deletesCsv != null) {
+            try (RecordSource records = RecordReaders.open(deletesCsv, EnumSet.of(RecordField.AUTHORS))) {
+                System.out.println("Records deleted: " + counts.deleteAll(records));
+            }
+        }
+        if (insertsCsv != null) {
+            try (RecordSource records = RecordReaders.open(insertsCsv, EnumSet.of(RecordField.AUTHORS))) {
+                System.out.println("Records inserted: " + counts.insertAll(records));
+            }
+        }
+        counts.save(stateFile);
+        System.out.println("Author counts saved to " + stateFile);
+        System.out.println("Total unique authors found: " + counts.size());
+        return counts.getTopAuthors();
+    }
+
+    /**
+     * Prints what the Bloom filter in front of the author map saved.
+     *
+     * @param filteredMap Filtered author map, or null without --bloom
+     */
+    private static void printFilterReport(BloomFilteredMap<Author> filteredMap) {
+        if (filteredMap == null) {
+            return;
+        }
+        System.out.println(String.format(Locale.ROOT,
+            "Bloom filter: %d bits, %d hashes, %d bytes; %d lookups, %d answered by the filter (%.2f%%), "
+                + "%d false positives (%.4f%%, expected %.4f%%)",
+            filteredMap.getFilter().getBitCount(), filteredMap.getFilter().getHashCount(),
+            filteredMap.getFilter().getMemoryBytes(), filteredMap.getLookups(), filteredMap.getFiltered(),
+            100 * filteredMap.getSavedLookupShare(), filteredMap.getFalsePositives(),
+            100 * filteredMap.getFalsePositiveRate(),
+            100 * filteredMap.getFilter().getExpectedFalsePositiveRate()));
+    }
+
+    /**
+     * Builds the top authors of a Space-Saving counter, with their
+     * approximate counts as frequencies.
+     *
+     * @param spaceSaving Heavy-hitter counter of author ids
+     * @param authorMap   Authors by id
+     * @param topN        Number of authors
+     * @return Top authors, most frequent first
+     */
+    static List<Author> approximateTop(SpaceSaving spaceSaving, Map<String, Author> authorMap, int topN) {
+        List<Author> topAuthors = new ArrayList<>();
+        for (SpaceSaving.Entry entry : spaceSaving.top(topN)) {
+            Author known = authorMap.get(entry.getKey());
+            Author author = new Author(known.getId(), known.getName());
+            author.setFrequency((int) Math.min(entry.getCount(), Integer.MAX_VALUE));
+            topAuthors.add(author);
+        }
+        return topAuthors;
+    }
+
+    /**
+     * Reads the --approximate flag. The approximate counters are fed while
+     * the records stream, so they cannot be combined with --ordinals,
+     * --threads or --state.
+     *
+     * @param args    Command-line arguments
+     * @param threads Value of the --threads option, or 0 if it is absent
+     * @return Whether --approximate is given
+     * @throws IllegalArgumentException If --approximate is given with --ordinals, --threads or --state
+     */
+    static boolean parseApproximate(String[] args, int threads) {
+        List<String> options = Arrays.asList(args);
+        if (!options.contains(APPROXIMATE_OPTION)) {
+            return false;
+        }
+        if (threads > 0 || options.contains(ORDINALS_OPTION) || options.contains(STATE_OPTION)) {
+            throw new IllegalArgumentException(APPROXIMATE_OPTION + " cannot be combined with "
+                + ORDINALS_OPTION + ", " + THREADS_OPTION + " or " + STATE_OPTION);
+        }
+        return true;
+    }
+
+    /**
+     * Reads the --compare-exact flag, which only applies to --approximate.
+     *
+     * @param args        Command-line arguments
+     * @param approximate Whether --approximate is given
+     * @return Whether the approximate counts are compared with exact ones
+     * @throws IllegalArgumentException If --compare-exact is given without --approximate
+     */
+    static boolean parseCompareExact(String[] args, boolean approximate) {
+        if (!Arrays.asList(args).contains(COMPARE_EXACT_OPTION)) {
+            return false;
+        }
+        if (!approximate) {
+            throw new IllegalArgumentException(COMPARE_EXACT_OPTION + " needs " + APPROXIMATE_OPTION);
+        }
+        return true;
+    }
+
+    /**
+     * Reads the --state option. The saved counts are updated by
+     * {@link IncrementalAuthorCounts}, so --state cannot be combined with
+     * --ordinals or --threads, and --inserts and --deletes need it.
+     *
+     * @param args    Command-line arguments
+     * @param threads Value of the --threads option, or 0 if it is absent
+     * @return State file path, or null if the option is absent
+     * @throws IllegalArgumentException If the options are combined in a way that would ignore some of them
+     */
+    static String parseStatePath(String[] args, int threads) {
+        String statePath = optionValue(args, STATE_OPTION);
+        if (statePath == null) {
+            if (optionValue(args, INSERTS_OPTION) != null || optionValue(args, DELETES_OPTION) != null) {
+                throw new IllegalArgumentException(INSERTS_OPTION + " and " + DELETES_OPTION + " need "
+                    + STATE_OPTION);
+            }
+            return null;
+        }
+        if (threads > 0 || Arrays.asList(args).contains(ORDINALS_OPTION)) {
+            throw new IllegalArgumentException(STATE_OPTION + " cannot be combined with "
+                + ORDINALS_OPTION + " or " + THREADS_OPTION);
+        }
+        return statePath;
+    }
+
+    /**
+     * Reads the value of the --store option.
+     *
+     * @param args    Command-line arguments
+     * @param threads Value of the --threads option, or 0 if it is absent
+     * @return {@value #HEAP_STORE}, {@value #DIRECT_STORE} or {@value #MAPPED_STORE}
+     * @throws IllegalArgumentException If the value is unknown, or an off-heap
+     *                                  store is asked for without --ordinals or --threads
+     */
+    static String parseStore(String[] args, int threads) {
+        String value = optionValue(args, STORE_OPTION);
+        if (value == null || HEAP_STORE.equals(value)) {
+            return HEAP_STORE;
+        }
+        if (!DIRECT_STORE.equals(value) && !MAPPED_STORE.equals(value)) {
+            throw new IllegalArgumentException("Unknown " + STORE_OPTION + " value: " + value
+                + " (expected " + HEAP_STORE + ", " + DIRECT_STORE + " or " + MAPPED_STORE + ")");
+        }
+        if (threads == 0 && !Arrays.asList(args).contains(ORDINALS_OPTION)) {
+            throw new IllegalArgumentException(STORE_OPTION + " " + value + " needs "
+                + ORDINALS_OPTION + " or " + THREADS_OPTION);
+        }
+        return value;
+    }
+
+    /**
+     * Loads every record's author ordinals into the store --store selects.
+     * The heap store is filled from the reader bookdepository.reader selects;
+     * the off-heap stores parse the records CSV directly.
+     *
+     * @param storeKind {@value #HEAP_STORE}, {@value #DIRECT_STORE} or {@value #MAPPED_STORE}
+     * @return Loaded store; an off-heap store must be closed by the caller
+     * @throws IOException If the records cannot be read or the store cannot be created
+     */
+    static ColumnarRecords loadStore(String storeKind) throws IOException {
+        if (DIRECT_STORE.equals(storeKind)) {
+            return RecordStoreLoader.loadOffHeap(RecordStream.DEFAULT_RECORDS_FILE, Integer.MAX_VALUE, null);
+        }
+        if (MAPPED_STORE.equals(storeKind)) {
+            return RecordStoreLoader.loadOffHeap(RecordStream.DEFAULT_RECORDS_FILE, Integer.MAX_VALUE,
+                Paths.get(System.getProperty("java.io.tmpdir")));
+        }
+        try (RecordSource records = RecordReaders.open(RecordStream.DEFAULT_RECORDS_FILE,
+                EnumSet.of(RecordField.AUTHORS))) {
+            return RecordStoreLoader.load(records, Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Reads the value of the --threads option.
+     *
+     * @param args Command-line arguments
+     * @return Number of counting threads, or 0 if the option is absent
+     * @throws IllegalArgumentException If the value is missing or not a positive number
+     */
+    static int parseThreads(String[] args) {
+        String value = optionValue(args, THREADS_OPTION);
+        if (value == null) {
+            return 0;
+        }
+        int threads;
+        try {
+            threads = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid thread count: " + value);
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        return threads;
+    }
+
+    /**
+     * Reads a fraction option such as --epsilon.
+     *
+     * @param args         Command-line arguments
+     * @param option       Option name
+     * @param defaultValue Value if the option is absent
+     * @return Value, strictly between 0 and 1
+     * @throws IllegalArgumentException If the value is missing or not a fraction
+     */
+    static double parseFraction(String[] args, String option, double defaultValue) {
+        String value = optionValue(args, option);
+        if (value == null) {
+            return defaultValue;
+        }
+        double fraction;
+        try {
+            fraction = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + option + " value: " + value);
+        }
+        if (!(fraction > 0 && fraction < 1)) {
+            throw new IllegalArgumentException(option + " must be between 0 and 1: " + value);
+        }
+        return fraction;
+    }
+
+    /**
+     * Finds the value following an option.
+     *
+     * @param args   Command-line arguments
+     * @param option Option name
+     * @return Value, or null if the option is absent
+     * @throws IllegalArgumentException If the option has no value
+     */
+    private static String optionValue(String[] args, String option) {
+        for (int i = 0; i < args.length; i++) {
+            if (option.equals(args[i])) {
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException(option + " needs a value");
+                }
+                return args[i + 1];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates the table the streaming path counts authors in. It never holds
+     * more authors than the map knows, and is given twice that capacity, so
+     * it stays at most half full and is not rehashed while the records are
+     * counted, as the baseline's table of records.size() / 2 was not. Its
+     * capacity does not affect the output: ties are broken by first
+     * occurrence, not by the table's iteration order.
+     *
+     * @param authorMap Authors by id
+     * @return Empty author table
+     */
+    public static AuthorHashTable newAuthorHashTable(Map<String, Author> authorMap) {
+        return new AuthorHashTable((int) Math.min(2L * authorMap.size(), Integer.MAX_VALUE));
+    }
+
+    /**
+     * Counts the authors of every record of a source.
+     *
+     * The table counts the authors of the map, which start at frequency 0,
+     * so an author is added to counted when it is met for the first time.
+     * counted then lists the authors in first-occurrence order, the tie
+     * order {@link TopAuthors} is given on every path, rather than in the
+     * table's bucket order.
+     *
+     * @param records         Source of records with their authors
+     * @param authorMap       Authors by id, none counted yet; ids missing from it are skipped
+     * @param authorHashTable Table the frequencies are counted in
+     * @param counted         Receives each counted author once, in first-occurrence order
+     * @return Number of records processed
+     */
+    public static int countAuthors(RecordSource records, Map<String, Author> authorMap,
+                                   AuthorHashTable authorHashTable, List<Author> counted) {
+        return forEachAuthor(records, authorMap, author -> {
+            if (author.getFrequency() == 0) {
+                counted.add(author);
+            }
+            authorHashTable.insertOrIncrement(author);
+        });
+    }
+
+    /**
+     * Counts the authors of every record of a source in the fixed-memory
+     * approximate counters only. Memory does not grow with the number of
+     * distinct authors.
+     *
+     * @param records     Source of records with their authors
+     * @param authorMap   Authors by id; ids missing from it are skipped
+     * @param spaceSaving Heavy-hitter counter of author ids
+     * @param sketch      Count-Min Sketch of author ids
+     * @return Number of records processed
+     */
+    public static int countApproximate(RecordSource records, Map<String, Author> authorMap,
+                                       SpaceSaving spaceSaving, CountMinSketch sketch) {
+        return forEachAuthor(records, authorMap, author -> {
+            spaceSaving.offer(author.getId());
+            sketch.add(author.getId());
+        });
+    }
+
+    /**
+     * Counts the authors of every record of a source exactly and in the
+     * fixed-memory approximate counters, to measure the approximation error.
+     *
+     * @param records         Source of records with their authors
+     * @param authorMap       Authors by id, none counted yet; ids missing from it are skipped
+     * @param authorHashTable Table the exact frequencies are counted in
+     * @param counted         Receives each counted author once, in first-occurrence order
+     * @param spaceSaving     Heavy-hitter counter of author ids
+     * @param sketch          Count-Min Sketch of author ids
+     * @return Number of records processed
+     */
+    public static int countApproximate(RecordSource records, Map<String, Author> authorMap,
+                                       AuthorHashTable authorHashTable, List<Author> counted,
+                                       SpaceSaving spaceSaving, CountMinSketch sketch) {
+        return forEachAuthor(records, authorMap, author -> {
+            if (author.getFrequency() == 0) {
+                counted.add(author);
+            }
+            authorHashTable.insertOrIncrement(author);
+            spaceSaving.offer(author.getId());
+            sketch.add(author.getId());
+        });
+    }
+
+    /**
+     * Hands every known author of every record of a source to an action.
+     *
+     * @param records   Source of records with their authors
+     * @param authorMap Authors by id; ids missing from it are skipped
+     * @param action    Action run once per author occurrence
+     * @return Number of records processed
+     */
+    private static int forEachAuthor(RecordSource records, Map<String, Author> authorMap,
+                                     Consumer<Author> action) {
+        int processedCount = 0;
+        while (records.hasNext()) {
+            Record record = records.next();
+            if (record.getAuthors() != null) {
+                for (String authorId : record.getAuthors()) {
+                    if (authorId != null && !authorId.isEmpty()) {
+                        Author author = authorMap.get(authorId);
+                        if (author != null) {
+                            action.accept(author);
+                        }
+                    }
+                }
+            }
+            processedCount++;
+            if (processedCount % 10000 == 0) {
+                System.out.println("Processed " + processedCount + " records...");
+            }
+        }
+        return processedCount;
+    }
 }
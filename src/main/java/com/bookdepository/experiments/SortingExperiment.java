@@ -4,8 +4,16 @@ import com.bookdepository.model.Record;
 import com.bookdepository.io.FileReader;
 import com.bookdepository.io.OutputFileWriter;
 import com.bookdepository.io.PerformanceResult;
-import com.bookdepository.algorithms.sorting.QuickSort;
-import com.bookdepository.algorithms.sorting.HeapSort;
+import com.bookdepository.io.RecordField;
+import com.bookdepository.io.RecordReaders;
+import com.bookdepository.io.RecordStream;
+import com.bookdepository.io.SortingMetricsWriter;
+import com.bookdepository.algorithms.sorting.SortWorkspace;
+import com.bookdepository.algorithms.sorting.Sorter;
+import com.bookdepository.algorithms.sorting.SorterRegistry;
+import com.bookdepository.utils.AllocationCounter;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.io.IOException;
 
@@ -13,48 +21,68 @@ import java.io.IOException;
  * Part I: Sorting Algorithms Experiment
  * 
  * This program reads book records from the dataset and analyzes
- * the performance of QuickSort and HeapSort algorithms.
+ * the performance of sorting algorithms. The algorithms are chosen by
+ * name on the command line (see {@link SorterRegistry}); without
+ * arguments, QuickSort, HeapSort and RadixSort are run.
  * 
- * Output: Results are written to output/output.txt
+ * Usage: SortingExperiment [algorithm ...]
+ * 
+ * The records CSV is read with the reader named by the
+ * bookdepository.reader system property (see {@link RecordReaders}).
+ * 
+ * Output: Results are written to output/output.txt; the detailed metrics
+ * (64-bit counters, nanosecond times and phase times) to
+ * output/outputSortingMetrics.txt
  */
 public class SortingExperiment {
     
     public static void main(String[] args) {
         try {
+            // Resolve algorithms before doing any work
+            String[] names = args.length > 0 ? args : SorterRegistry.DEFAULT_ALGORITHMS;
+            List<Sorter> sorters = SorterRegistry.createAll(names);
+            
             // Clear output file
             OutputFileWriter.clearOutput();
+            SortingMetricsWriter.clearOutput();
             
             // Read input sizes
             List<Integer> sizes = FileReader.readInputSizes();
             
-            // Read all records once
-            List<Record> allRecords = FileReader.readAllRecords();
+            // Read only as many records, and only the fields, the runs need
+            int maxSize = sizes.isEmpty() ? 0 : Collections.max(sizes);
+            List<Record> allRecords = RecordReaders.readRecords(RecordStream.DEFAULT_RECORDS_FILE, maxSize,
+                EnumSet.of(RecordField.ID, RecordField.RANK));
             System.out.println("Total records loaded: " + allRecords.size());
             
+            // Snapshot the records once; every run refills a reused buffer from it
+            SortWorkspace workspace = new SortWorkspace(allRecords);
+            
             // Test each size
             for (Integer size : sizes) {
                 System.out.println("Processing size: " + size);
                 
                 // Take first 'size' records
-                int actualSize = Math.min(size, allRecords.size());
-                List<Record> records = allRecords.subList(0, actualSize);
-                
-                // Test QuickSort
-                Record[] quickSortArray = records.toArray(new Record[0]);
-                QuickSort quickSort = new QuickSort();
-                PerformanceResult quickSortResult = quickSort.sort(quickSortArray);
-                
-                // Test HeapSort
-                Record[] heapSortArray = records.toArray(new Record[0]);
-                HeapSort heapSort = new HeapSort();
-                PerformanceResult heapSortResult = heapSort.sort(heapSortArray);
+                int actualSize = Math.min(size, workspace.size());
                 
-                // Write results
-                OutputFileWriter.writeSortingResults(java.util.Collections.singletonList(quickSortResult), "QuickSort");
-                OutputFileWriter.writeSortingResults(java.util.Collections.singletonList(heapSortResult), "HeapSort");
+                // Test each algorithm on a fresh copy and write its results
+                for (Sorter sorter : sorters) {
+                    Record[] array = workspace.fill(actualSize);
+                    long allocatedBefore = AllocationCounter.currentThreadAllocatedBytes();
+                    PerformanceResult result = sorter.sort(array);
+                    long allocatedAfter = AllocationCounter.currentThreadAllocatedBytes();
+                    
+                    if (AllocationCounter.isSupported()) {
+                        System.out.println("  " + sorter.getName() + ": "
+                            + (allocatedAfter - allocatedBefore) + " bytes allocated");
+                    }
+                    OutputFileWriter.writeSortingResults(Collections.singletonList(result), sorter.getName());
+                    SortingMetricsWriter.writeSortingMetrics(sorter.getName(), actualSize, sorter.getLastMetrics());
+                }
             }
             
-            System.out.println("Experiment completed. Results written to output/output.txt");
+            System.out.println("Experiment completed. Results written to output/output.txt"
+                + " and output/outputSortingMetrics.txt");
             
         } catch (IOException e) {
             System.err.println("Error reading files: " + e.getMessage());
@@ -0,0 +1,70 @@
+package com.bookdepository.io;
+
+import com.bookdepository.structures.sketch.ApproximationReport;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes the accuracy of the approximate author counts to
+ * output/outputPart2Approximate.txt, one name=value pair per line, so runs
+ * with different error bounds can be compared for their memory/accuracy
+ * trade-off.
+ */
+public class ApproximationReportWriter {
+    private static final String OUTPUT_FILE = "output/outputPart2Approximate.txt";
+
+    /**
+     * Writes a report, replacing the previous one.
+     *
+     * @param report Approximation report
+     * @throws IOException If the file cannot be written
+     */
+    public static void writeReport(ApproximationReport report) throws IOException {
+        File file = new File(OUTPUT_FILE);
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(file, false)))) {
+            for (String line : formatLines(report)) {
+                writer.println(line);
+            }
+        }
+    }
+
+    /**
+     * Formats a report as name=value lines.
+     *
+     * @param report Approximation report
+     * @return Lines without line terminators
+     */
+    static List<String> formatLines(ApproximationReport report) {
+        List<String> lines = new ArrayList<>();
+        lines.add("top_n=" + report.getTopN());
+        lines.add("occurrences=" + report.getTotal());
+        lines.add("space_saving_counters=" + report.getSpaceSavingCapacity());
+        lines.add("space_saving_error_bound=" + format(report.getSpaceSavingBound()));
+        lines.add("space_saving_top_recall=" + format(report.getTopRecall()));
+        lines.add("space_saving_max_error=" + report.getSpaceSavingMaxError());
+        lines.add("space_saving_mean_error=" + format(report.getSpaceSavingMeanError()));
+        lines.add("count_min_width=" + report.getSketchWidth());
+        lines.add("count_min_depth=" + report.getSketchDepth());
+        lines.add("count_min_bytes=" + report.getSketchBytes());
+        lines.add("count_min_error_bound=" + format(report.getSketchBound()));
+        lines.add("count_min_max_error=" + report.getSketchMaxError());
+        lines.add("count_min_mean_error=" + format(report.getSketchMeanError()));
+        lines.add("count_min_mean_error_all=" + format(report.getSketchAllMeanError()));
+        lines.add("count_min_within_bound=" + format(report.getSketchWithinBound()));
+        return lines;
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
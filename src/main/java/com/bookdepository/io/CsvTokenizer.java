@@ -0,0 +1,114 @@
+package com.bookdepository.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits CSV text into rows of fields, one row at a time.
+ * Fields may be quoted; quoted fields can contain commas, line breaks and
+ * doubled quotes. Rows end at LF or CRLF outside quotes, and blank rows are skipped.
+ */
+final class CsvTokenizer implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Reader reader;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+    private final StringBuilder field;
+    private final List<String> fields;
+
+    /**
+     * Creates a tokenizer reading from the given reader.
+     *
+     * @param reader Source of CSV text
+     */
+    CsvTokenizer(Reader reader) {
+        this.reader = reader;
+        this.buffer = new char[BUFFER_SIZE];
+        this.position = 0;
+        this.limit = 0;
+        this.field = new StringBuilder();
+        this.fields = new ArrayList<>();
+    }
+
+    /**
+     * Reads the next non-blank row.
+     *
+     * @return Fields of the row, or null at the end of the input
+     * @throws IOException If the input cannot be read
+     */
+    String[] next() throws IOException {
+        while (true) {
+            fields.clear();
+            field.setLength(0);
+            boolean quoted = false;
+            boolean blank = true;
+
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+
+            while (c != -1) {
+                if (quoted) {
+                    if (c == '"') {
+                        c = read();
+                        if (c != '"') {
+                            quoted = false;
+                            continue; // Re-examine the character after the closing quote
+                        }
+                    }
+                    field.append((char) c);
+                } else if (c == '"') {
+                    quoted = true;
+                    blank = false;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    blank = false;
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                    blank = false;
+                }
+                c = read();
+            }
+
+            if (!blank) {
+                fields.add(field.toString());
+                return fields.toArray(new String[0]);
+            }
+            if (c == -1) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Reads one character through the buffer.
+     *
+     * @return Character, or -1 at the end of the input
+     * @throws IOException If the input cannot be read
+     */
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
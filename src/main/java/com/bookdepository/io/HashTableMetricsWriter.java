@@ -0,0 +1,81 @@
+package com.bookdepository.io;
+
+import com.bookdepository.structures.hashtable.HashTableMetrics;
+import com.bookdepository.structures.hashtable.MeteredTable;
+import com.bookdepository.structures.hashtable.ProbeHistogram;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes the probe, collision, cluster and resize figures of a hash table to
+ * output/outputPart2Metrics.txt, one name=value pair per line, next to the
+ * top authors of output/outputPart2.txt.
+ */
+public class HashTableMetricsWriter {
+    private static final String OUTPUT_FILE = "output/outputPart2Metrics.txt";
+
+    /**
+     * Writes the metrics of a table, replacing the previous ones.
+     *
+     * @param table Table with metrics set
+     * @throws IOException If the file cannot be written
+     */
+    public static void writeMetrics(MeteredTable table) throws IOException {
+        File file = new File(OUTPUT_FILE);
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(file, false)))) {
+            for (String line : formatLines(table)) {
+                writer.println(line);
+            }
+        }
+    }
+
+    /**
+     * Formats the metrics of a table as name=value lines. Each resize gets a
+     * line with its start, duration, capacities and size at the time.
+     *
+     * @param table Table with metrics set
+     * @return Lines without line terminators
+     */
+    static List<String> formatLines(MeteredTable table) {
+        HashTableMetrics metrics = table.getMetrics();
+        ProbeHistogram clusters = table.getClusterHistogram();
+        List<String> lines = new ArrayList<>();
+        lines.add("size=" + table.size());
+        lines.add("capacity=" + table.capacity());
+        lines.add("load_factor=" + format(table.getLoadFactor()));
+        lines.add("memory_bytes=" + table.getMemoryBytes());
+        lines.add("operations=" + metrics.getOperations());
+        lines.add("probes=" + metrics.getProbes());
+        lines.add("mean_probe=" + format(metrics.getMeanProbe()));
+        lines.add("max_probe=" + metrics.getMaxProbe());
+        lines.add("collisions=" + metrics.getCollisions());
+        lines.add("clusters=" + clusters.getLookups());
+        lines.add("mean_cluster=" + format(clusters.getMean()));
+        lines.add("max_cluster=" + clusters.getMax());
+        lines.add("cluster_histogram=" + clusters);
+        List<HashTableMetrics.ResizeEvent> resizes = metrics.getResizes();
+        lines.add("resizes=" + resizes.size());
+        lines.add("resize_ms=" + format(metrics.getResizeNanos() / 1e6));
+        for (int i = 0; i < resizes.size(); i++) {
+            HashTableMetrics.ResizeEvent resize = resizes.get(i);
+            lines.add("resize_" + (i + 1) + "=at " + format(resize.getOffsetNanos() / 1e6) + " ms, took "
+                + format(resize.getDurationNanos() / 1e6) + " ms, " + resize.getFromCapacity() + " -> "
+                + resize.getToCapacity() + " slots, " + resize.getSize() + " entries");
+        }
+        return lines;
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
@@ -0,0 +1,453 @@
+package com.bookdepository.io;
+
+import com.bookdepository.model.Record;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Memory-mapped, zero-copy reader of the records CSV.
+ * The file is mapped with {@link FileChannel#map} in windows, and rows are
+ * split on the raw UTF-8 bytes: quotes, commas and line breaks are all ASCII,
+ * so no character decoding is needed to find them. Only the fields that were
+ * asked for are turned into Strings, and plain numeric ranks are parsed
+ * straight from the bytes.
+ *
+ * Rows follow the same rules as {@link RecordStream}, so both readers produce
+ * the same records from the same file.
+ */
+public class MappedRecordReader implements RecordSource {
+    /**
+     * Default size of the mapped window in bytes.
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 28;
+
+    private final FileChannel channel;
+    private final boolean ownsChannel;
+    private final long end;
+    private final Set<RecordField> fields;
+    private final RecordColumns columns;
+    private int windowSize;
+    private MappedByteBuffer window;
+    private ByteBuffer view;
+    private long windowStart;
+    private long rowStart;
+    private long nextRowStart;
+    private boolean rowReady;
+    private int lastColumn;
+    private int fieldCount;
+    private int[] fieldStart;
+    private int[] fieldEnd;
+    private boolean[] fieldPlain;
+    private byte[] scratch;
+    private long recordsRead;
+
+    /**
+     * Opens a records CSV, filling in every field.
+     *
+     * @param path Path of the CSV file
+     * @throws IOException If the file cannot be opened or its header is invalid
+     */
+    public MappedRecordReader(String path) throws IOException {
+        this(path, EnumSet.allOf(RecordField.class));
+    }
+
+    /**
+     * Opens a records CSV, filling in only the given fields.
+     *
+     * @param path   Path of the CSV file
+     * @param fields Fields to fill in
+     * @throws IOException If the file cannot be opened or its header is invalid
+     */
+    public MappedRecordReader(String path, Set<RecordField> fields) throws IOException {
+        this(path, fields, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Opens a records CSV with a given mapping window size.
+     * Windows grow on their own when a single row does not fit.
+     *
+     * @param path       Path of the CSV file
+     * @param fields     Fields to fill in
+     * @param windowSize Initial size of the mapped window in bytes
+     * @throws IOException If the file cannot be opened or its header is invalid
+     */
+    public MappedRecordReader(String path, Set<RecordField> fields, int windowSize) throws IOException {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Window size must be positive: " + windowSize);
+        }
+        this.channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ);
+        this.ownsChannel = true;
+        this.end = channel.size();
+        this.fields = EnumSet.copyOf(fields);
+        this.windowSize = windowSize;
+        this.windowStart = -1;
+        this.rowStart = 0;
+        this.fieldStart = new int[16];
+        this.fieldEnd = new int[16];
+        this.fieldPlain = new boolean[16];
+        this.scratch = new byte[256];
+        this.recordsRead = 0;
+
+        try {
+            // Split every header column, then only up to the last wanted one
+            this.lastColumn = Integer.MAX_VALUE;
+            if (!scanRow()) {
+                throw new IOException("Records file is empty");
+            }
+            String[] header = new String[fieldCount];
+            for (int i = 0; i < fieldCount; i++) {
+                header[i] = decode(i);
+            }
+            this.columns = RecordColumns.fromHeader(header);
+            this.lastColumn = -1;
+            for (RecordField field : this.fields) {
+                lastColumn = Math.max(lastColumn, columns.indexOf(field));
+            }
+            advance();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the rows in the byte range [start, end) of an open file whose
+     * header has already been read. The range must start and end on row
+     * boundaries. The channel is left open by {@link #close()}.
+     *
+     * @param channel    Open channel of the CSV file
+     * @param start      File offset of the first row
+     * @param end        File offset after the last row
+     * @param columns    Column layout from the file's header
+     * @param fields     Fields to fill in
+     * @param windowSize Initial size of the mapped window in bytes
+     * @throws IOException If the range cannot be mapped
+     */
+    MappedRecordReader(FileChannel channel, long start, long end, RecordColumns columns,
+                       Set<RecordField> fields, int windowSize) throws IOException {
+        this.channel = channel;
+        this.ownsChannel = false;
+        this.end = end;
+        this.fields = EnumSet.copyOf(fields);
+        this.columns = columns;
+        this.windowSize = windowSize;
+        this.windowStart = -1;
+        this.fieldStart = new int[16];
+        this.fieldEnd = new int[16];
+        this.fieldPlain = new boolean[16];
+        this.scratch = new byte[256];
+        this.recordsRead = 0;
+        this.lastColumn = -1;
+        for (RecordField field : this.fields) {
+            lastColumn = Math.max(lastColumn, columns.indexOf(field));
+        }
+        this.nextRowStart = start;
+        advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return rowReady;
+    }
+
+    @Override
+    public Record next() {
+        if (!rowReady) {
+            throw new NoSuchElementException();
+        }
+
+        Record record = new Record();
+        if (fields.contains(RecordField.ID)) {
+            record.setId(stringField(columns.id));
+        }
+        if (fields.contains(RecordField.TITLE)) {
+            record.setTitle(stringField(columns.title));
+        }
+        if (fields.contains(RecordField.AUTHORS)) {
+            record.setAuthors(RecordColumns.parseAuthors(stringField(columns.authors)));
+        }
+        if (fields.contains(RecordField.RANK)) {
+            record.setBestsellersRank(rankField(columns.rank));
+        }
+        recordsRead++;
+
+        try {
+            advance();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return record;
+    }
+
+    /**
+     * Moves to the next row.
+     *
+     * @throws IOException If the file cannot be mapped
+     */
+    private void advance() throws IOException {
+        rowStart = nextRowStart;
+        rowReady = scanRow();
+    }
+
+    /**
+     * Finds the field boundaries of the next non-blank row starting at rowStart.
+     * Maps a new window when the row runs past the current one.
+     *
+     * @return false at the end of the file
+     * @throws IOException If the file cannot be mapped
+     */
+    private boolean scanRow() throws IOException {
+        while (rowStart < end) {
+            if (windowStart < 0 || rowStart < windowStart || rowStart >= windowStart + window.limit()) {
+                map(rowStart);
+            }
+
+            int result = scanInWindow();
+            if (result < 0) {
+                // The row does not end inside this window
+                if (rowStart == windowStart) {
+                    if (windowSize == Integer.MAX_VALUE) {
+                        throw new IOException("Row at offset " + rowStart + " is longer than 2 GB");
+                    }
+                    windowSize = (int) Math.min(2L * windowSize, Integer.MAX_VALUE);
+                }
+                map(rowStart);
+                continue;
+            }
+            if (result > 0) {
+                return true;
+            }
+            rowStart = nextRowStart; // Blank row
+        }
+        return false;
+    }
+
+    /**
+     * Maps the window starting at the given file offset.
+     *
+     * @param start File offset
+     * @throws IOException If the file cannot be mapped
+     */
+    private void map(long start) throws IOException {
+        long size = Math.min(windowSize, end - start);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+        view = window.duplicate();
+        windowStart = start;
+    }
+
+    /**
+     * Splits the row at rowStart inside the current window.
+     *
+     * @return 1 for a row, 0 for a blank row, -1 if the row does not end in the window
+     */
+    private int scanInWindow() {
+        int limit = window.limit();
+        boolean atEnd = windowStart + limit == end;
+        int i = (int) (rowStart - windowStart);
+        int start = i;
+        boolean inQuotes = false;
+        boolean plain = true;
+        boolean blank = true;
+        fieldCount = 0;
+
+        while (true) {
+            if (i == limit) {
+                if (!atEnd) {
+                    return -1;
+                }
+                nextRowStart = end;
+                break;
+            }
+
+            byte b = window.get(i);
+            if (inQuotes) {
+                if (b == '"') {
+                    if (i + 1 == limit && !atEnd) {
+                        return -1; // Cannot tell a closing quote from an escaped one yet
+                    }
+                    if (i + 1 < limit && window.get(i + 1) == '"') {
+                        i++;
+                    } else {
+                        inQuotes = false;
+                    }
+                }
+            } else if (b == '"') {
+                inQuotes = true;
+                plain = false;
+                blank = false;
+            } else if (b == ',') {
+                addField(start, i, plain);
+                start = i + 1;
+                plain = true;
+                blank = false;
+            } else if (b == '\n') {
+                nextRowStart = windowStart + i + 1;
+                break;
+            } else if (b == '\r') {
+                plain = false;
+            } else {
+                blank = false;
+            }
+            i++;
+        }
+
+        if (blank) {
+            return 0;
+        }
+        addField(start, i, plain);
+        return 1;
+    }
+
+    /**
+     * Records the boundaries of a field, if its column can be needed.
+     *
+     * @param start Window index of the first byte
+     * @param end   Window index after the last byte
+     * @param plain true if the field has no quotes or carriage returns
+     */
+    private void addField(int start, int end, boolean plain) {
+        int index = fieldCount++;
+        if (index > lastColumn) {
+            return;
+        }
+        if (index == fieldStart.length) {
+            int capacity = 2 * index;
+            fieldStart = java.util.Arrays.copyOf(fieldStart, capacity);
+            fieldEnd = java.util.Arrays.copyOf(fieldEnd, capacity);
+            fieldPlain = java.util.Arrays.copyOf(fieldPlain, capacity);
+        }
+        fieldStart[index] = start;
+        fieldEnd[index] = end;
+        fieldPlain[index] = plain;
+    }
+
+    /**
+     * Builds the String of a column of the current row.
+     *
+     * @param column Column index, or -1 if absent
+     * @return Field value, or null if the row has no such column
+     */
+    private String stringField(int column) {
+        return column >= 0 && column < fieldCount ? decode(column) : null;
+    }
+
+    /**
+     * Parses the rank column of the current row, straight from the bytes when
+     * it is a plain integer.
+     *
+     * @param column Rank column index
+     * @return Rank, 0 if empty or malformed
+     */
+    private int rankField(int column) {
+        if (column >= fieldCount) {
+            return 0;
+        }
+        if (fieldPlain[column]) {
+            int start = fieldStart[column];
+            int end = fieldEnd[column];
+            if (end > start && end - start <= 9) {
+                int value = 0;
+                int i = start;
+                for (; i < end; i++) {
+                    int digit = window.get(i) - '0';
+                    if (digit < 0 || digit > 9) {
+                        break;
+                    }
+                    value = value * 10 + digit;
+                }
+                if (i == end) {
+                    return value;
+                }
+            }
+        }
+        return RecordColumns.parseRank(decode(column));
+    }
+
+    /**
+     * Decodes a field of the current row, unquoting it if needed.
+     *
+     * @param column Column index
+     * @return Field value
+     */
+    private String decode(int column) {
+        int start = fieldStart[column];
+        int end = fieldEnd[column];
+        if (scratch.length < end - start) {
+            scratch = new byte[Math.max(end - start, 2 * scratch.length)];
+        }
+
+        if (fieldPlain[column]) {
+            view.limit(end).position(start);
+            view.get(scratch, 0, end - start);
+            return new String(scratch, 0, end - start, StandardCharsets.UTF_8);
+        }
+
+        int length = 0;
+        boolean inQuotes = false;
+        for (int i = start; i < end; i++) {
+            byte b = window.get(i);
+            if (inQuotes) {
+                if (b == '"') {
+                    if (i + 1 < end && window.get(i + 1) == '"') {
+                        scratch[length++] = b;
+                        i++;
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    scratch[length++] = b;
+                }
+            } else if (b == '"') {
+                inQuotes = true;
+            } else if (b != '\r') {
+                scratch[length++] = b;
+            }
+        }
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the column layout read from the header.
+     *
+     * @return Column layout
+     */
+    RecordColumns getColumns() {
+        return columns;
+    }
+
+    /**
+     * Gets the file offset of the next row to be read; right after opening,
+     * that is where the data rows start.
+     *
+     * @return File offset of the next row
+     */
+    long getRowOffset() {
+        return rowStart;
+    }
+
+    /**
+     * Gets the number of records handed out so far.
+     *
+     * @return Number of records read
+     */
+    public long getRecordsRead() {
+        return recordsRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        rowReady = false;
+        if (ownsChannel) {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.bookdepository.io;
+
+import com.bookdepository.model.Record;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Parallel loader of the records CSV.
+ *
+ * The data rows are cut into byte ranges of about {@link #getChunkBytes()} bytes,
+ * and each range is parsed by a {@link MappedRecordReader} on a fork/join pool.
+ * Cut points are moved forward to the next row boundary. Titles can hold quoted
+ * line breaks, so a boundary is the first line break outside quotes: the
+ * quotes in every range are counted in parallel first, and their running
+ * parity tells whether each range starts inside a quoted field.
+ *
+ * Chunks are handed back in file order, so the loaded list, or the records
+ * read from {@link #open(String, Set)}, come in the same order as from
+ * {@link RecordStream}.
+ */
+public class ParallelRecordLoader {
+    /**
+     * Default size of a chunk in bytes.
+     */
+    public static final int DEFAULT_CHUNK_BYTES = 1 << 24;
+
+    private final int chunkBytes;
+    private final ForkJoinPool pool;
+
+    /**
+     * Default constructor. Uses the default chunk size and the common pool.
+     */
+    public ParallelRecordLoader() {
+        this(DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * Creates a loader running on the common pool.
+     *
+     * @param chunkBytes Approximate number of bytes parsed per task
+     */
+    public ParallelRecordLoader(int chunkBytes) {
+        this(chunkBytes, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a loader running on the given pool.
+     *
+     * @param chunkBytes Approximate number of bytes parsed per task
+     * @param pool       Pool the parsing tasks are submitted to
+     */
+    public ParallelRecordLoader(int chunkBytes, ForkJoinPool pool) {
+        if (chunkBytes < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkBytes);
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool must not be null");
+        }
+        this.chunkBytes = chunkBytes;
+        this.pool = pool;
+    }
+
+    /**
+     * Loads every record of a records CSV.
+     *
+     * @param path   Path of the CSV file
+     * @param fields Fields to fill in
+     * @return All records, in file order
+     * @throws IOException If the file cannot be read
+     */
+    public List<Record> load(String path, Set<RecordField> fields) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            Layout layout = layout(path, channel);
+            List<Future<List<Record>>> parsed = new ArrayList<>();
+            for (int i = 0; i < layout.chunks(); i++) {
+                parsed.add(submitChunk(channel, layout, i, fields));
+            }
+
+            List<List<Record>> chunks = new ArrayList<>();
+            int total = 0;
+            for (Future<List<Record>> future : parsed) {
+                List<Record> chunk = await(future);
+                chunks.add(chunk);
+                total += chunk.size();
+            }
+
+            List<Record> records = new ArrayList<>(total);
+            for (List<Record> chunk : chunks) {
+                records.addAll(chunk);
+            }
+            return records;
+        }
+    }
+
+    /**
+     * Opens a records CSV as a record source that parses chunks ahead in
+     * parallel. At most two chunks per pool thread are held at a time, so
+     * memory stays bounded while the caller consumes the records in order.
+     *
+     * @param path   Path of the CSV file
+     * @param fields Fields to fill in
+     * @return Record source
+     * @throws IOException If the file cannot be opened
+     */
+    public RecordSource open(String path, Set<RecordField> fields) throws IOException {
+        FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ);
+        try {
+            return new ChunkSource(channel, layout(path, channel), EnumSet.copyOf(fields));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the approximate number of bytes parsed per task.
+     *
+     * @return Chunk size in bytes
+     */
+    public int getChunkBytes() {
+        return chunkBytes;
+    }
+
+    /**
+     * Reads the header and computes the row-aligned chunk boundaries.
+     *
+     * @param path    Path of the CSV file
+     * @param channel Open channel of the file
+     * @return Chunk layout
+     * @throws IOException If the file cannot be read
+     */
+    private Layout layout(String path, FileChannel channel) throws IOException {
+        RecordColumns columns;
+        long dataStart;
+        try (MappedRecordReader header = new MappedRecordReader(path, EnumSet.noneOf(RecordField.class))) {
+            columns = header.getColumns();
+            dataStart = header.getRowOffset();
+        }
+
+        long fileSize = channel.size();
+        int chunks = (int) Math.max(1, (fileSize - dataStart + chunkBytes - 1) / chunkBytes);
+
+        // Count the quotes of every raw range in parallel
+        List<Future<Boolean>> parities = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            long start = dataStart + (long) i * chunkBytes;
+            long end = Math.min(fileSize, start + chunkBytes);
+            parities.add(pool.submit(() -> oddQuotes(channel, start, end)));
+        }
+
+        boolean[] startsQuoted = new boolean[chunks];
+        boolean quoted = false;
+        for (int i = 0; i < chunks; i++) {
+            startsQuoted[i] = quoted;
+            quoted ^= await(parities.get(i));
+        }
+
+        // Move every cut point to the row boundary after it
+        List<Future<Long>> cuts = new ArrayList<>(chunks);
+        for (int i = 1; i < chunks; i++) {
+            long start = dataStart + (long) i * chunkBytes;
+            boolean inQuotes = startsQuoted[i];
+            cuts.add(pool.submit(() -> nextRowBoundary(channel, start, fileSize, inQuotes)));
+        }
+
+        long[] bounds = new long[chunks + 1];
+        bounds[0] = dataStart;
+        for (int i = 1; i < chunks; i++) {
+            // A row longer than a chunk leaves the chunks it covers empty
+            bounds[i] = Math.max(bounds[i - 1], await(cuts.get(i - 1)));
+        }
+        bounds[chunks] = fileSize;
+        return new Layout(columns, bounds);
+    }
+
+    /**
+     * Determines whether a byte range holds an odd number of quote characters.
+     * Escaped quotes come in pairs, so the parity says whether the quoting
+     * state flips across the range.
+     *
+     * @param channel Open channel of the file
+     * @param start   File offset of the range
+     * @param end     File offset after the range
+     * @return true if the range has an odd number of quotes
+     * @throws IOException If the range cannot be mapped
+     */
+    private static boolean oddQuotes(FileChannel channel, long start, long end) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        int quotes = 0;
+        int limit = buffer.limit();
+        for (int i = 0; i < limit; i++) {
+            if (buffer.get(i) == '"') {
+                quotes++;
+            }
+        }
+        return (quotes & 1) != 0;
+    }
+
+    /**
+     * Finds the first row start after a file offset.
+     *
+     * @param channel  Open channel of the file
+     * @param start    File offset to search from
+     * @param fileSize Size of the file
+     * @param inQuotes Whether start lies inside a quoted field
+     * @return Offset after the first line break outside quotes, or fileSize
+     * @throws IOException If the file cannot be mapped
+     */
+    private long nextRowBoundary(FileChannel channel, long start, long fileSize, boolean inQuotes)
+            throws IOException {
+        long position = start;
+        while (position < fileSize) {
+            long size = Math.min(chunkBytes, fileSize - position);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+            for (int i = 0; i < size; i++) {
+                byte b = buffer.get(i);
+                if (b == '"') {
+                    inQuotes = !inQuotes;
+                } else if (b == '\n' && !inQuotes) {
+                    return position + i + 1;
+                }
+            }
+            position += size;
+        }
+        return fileSize;
+    }
+
+    /**
+     * Submits the parsing of one chunk.
+     *
+     * @param channel Open channel of the file
+     * @param layout  Chunk layout
+     * @param index   Chunk index
+     * @param fields  Fields to fill in
+     * @return Future records of the chunk, in file order
+     */
+    private Future<List<Record>> submitChunk(FileChannel channel, Layout layout, int index,
+                                             Set<RecordField> fields) {
+        long start = layout.bounds[index];
+        long end = layout.bounds[index + 1];
+        return pool.submit(() -> {
+            if (start == end) {
+                return Collections.<Record>emptyList();
+            }
+            int windowSize = (int) Math.min(end - start, Integer.MAX_VALUE);
+            MappedRecordReader reader = new MappedRecordReader(channel, start, end, layout.columns, fields, windowSize);
+            return reader.nextChunk(Integer.MAX_VALUE);
+        });
+    }
+
+    /**
+     * Waits for a task and unwraps its failure.
+     *
+     * @param future Task result
+     * @param <T>    Result type
+     * @return Task result
+     * @throws IOException If the task failed reading the file
+     */
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading records", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Header columns and row-aligned chunk boundaries of a file.
+     */
+    private static final class Layout {
+        private final RecordColumns columns;
+        private final long[] bounds;
+
+        Layout(RecordColumns columns, long[] bounds) {
+            this.columns = columns;
+            this.bounds = bounds;
+        }
+
+        int chunks() {
+            return bounds.length - 1;
+        }
+    }
+
+    /**
+     * Record source handing out parsed chunks in order while later chunks
+     * are parsed ahead on the pool.
+     */
+    private final class ChunkSource implements RecordSource {
+        private final FileChannel channel;
+        private final Layout layout;
+        private final Set<RecordField> fields;
+        private final Deque<Future<List<Record>>> pending;
+        private final int lookAhead;
+        private int nextChunk;
+        private Iterator<Record> current;
+
+        ChunkSource(FileChannel channel, Layout layout, Set<RecordField> fields) {
+            this.channel = channel;
+            this.layout = layout;
+            this.fields = fields;
+            this.pending = new ArrayDeque<>();
+            this.lookAhead = 2 * pool.getParallelism();
+            this.nextChunk = 0;
+            this.current = Collections.emptyIterator();
+            fill();
+        }
+
+        /**
+         * Submits chunks until the look-ahead is full.
+         */
+        private void fill() {
+            while (pending.size() < lookAhead && nextChunk < layout.chunks()) {
+                pending.add(submitChunk(channel, layout, nextChunk++, fields));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                Future<List<Record>> future = pending.poll();
+                if (future == null) {
+                    return false;
+                }
+                try {
+                    current = await(future).iterator();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                fill();
+            }
+            return true;
+        }
+
+        @Override
+        public Record next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (Future<List<Record>> future : pending) {
+                future.cancel(false);
+            }
+            pending.clear();
+            nextChunk = layout.chunks();
+            current = Collections.emptyIterator();
+            channel.close();
+        }
+    }
+}
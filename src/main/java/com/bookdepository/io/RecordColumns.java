@@ -0,0 +1,217 @@
+package com.bookdepository.io;
+
+import com.bookdepository.model.Record;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Column layout of a records CSV, resolved from its header row.
+ * Header names are matched case-insensitively with '-' and '_' treated alike,
+ * so both the dataset dump (authors, bestsellers-rank) and the test fixtures
+ * (author_id, bestsellers_rank) are understood.
+ */
+final class RecordColumns {
+    final int id;
+    final int title;
+    final int authors;
+    final int rank;
+    final int price;
+    final int rating;
+
+    private RecordColumns(int id, int title, int authors, int rank, int price, int rating) {
+        this.id = id;
+        this.title = title;
+        this.authors = authors;
+        this.rank = rank;
+        this.price = price;
+        this.rating = rating;
+    }
+
+    /**
+     * Resolves the column indices from a header row.
+     *
+     * @param header Header fields
+     * @return Column layout
+     * @throws IOException If the rank or author column is missing
+     */
+    static RecordColumns fromHeader(String[] header) throws IOException {
+        int id = -1;
+        int title = -1;
+        int authors = -1;
+        int rank = -1;
+        int price = -1;
+        int rating = -1;
+
+        for (int i = 0; i < header.length; i++) {
+            String name = header[i].trim().toLowerCase(Locale.ROOT).replace('-', '_');
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1);
+            }
+            switch (name) {
+                case "id":
+                    id = i;
+                    break;
+                case "title":
+                    title = i;
+                    break;
+                case "authors":
+                case "author_id":
+                    authors = i;
+                    break;
+                case "bestsellers_rank":
+                    rank = i;
+                    break;
+                case "price":
+                    price = i;
+                    break;
+                case "rating":
+                case "rating_avg":
+                    rating = i;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        if (rank < 0) {
+            throw new IOException("Missing bestsellers_rank column in header");
+        }
+        if (authors < 0) {
+            throw new IOException("Missing authors column in header");
+        }
+        return new RecordColumns(id, title, authors, rank, price, rating);
+    }
+
+    /**
+     * Builds a record from the fields of one row.
+     * Missing trailing fields leave the record's value empty, and fields
+     * that were not requested are left unset.
+     *
+     * @param fields Row fields
+     * @param wanted Record fields to fill in
+     * @return Record
+     */
+    Record toRecord(String[] fields, Set<RecordField> wanted) {
+        Record record = new Record();
+        if (wanted.contains(RecordField.ID)) {
+            record.setId(field(fields, id));
+        }
+        if (wanted.contains(RecordField.TITLE)) {
+            record.setTitle(field(fields, title));
+        }
+        if (wanted.contains(RecordField.AUTHORS)) {
+            record.setAuthors(parseAuthors(field(fields, authors)));
+        }
+        if (wanted.contains(RecordField.RANK)) {
+            record.setBestsellersRank(parseRank(field(fields, rank)));
+        }
+        return record;
+    }
+
+    /**
+     * Gets the column index of a record field.
+     *
+     * @param field Record field
+     * @return Column index, or -1 if the file has no such column
+     */
+    int indexOf(RecordField field) {
+        switch (field) {
+            case ID:
+                return id;
+            case TITLE:
+                return title;
+            case AUTHORS:
+                return authors;
+            default:
+                return rank;
+        }
+    }
+
+    /**
+     * Gets a field by column index.
+     *
+     * @param fields Row fields
+     * @param index  Column index, or -1 if the column is absent
+     * @return Field value, or null if absent
+     */
+    static String field(String[] fields, int index) {
+        return index >= 0 && index < fields.length ? fields[index] : null;
+    }
+
+    /**
+     * Parses a bestseller rank. Empty or malformed ranks are read as 0,
+     * which sorts after every ranked record.
+     *
+     * @param value Rank field
+     * @return Rank
+     */
+    static int parseRank(String value) {
+        if (value == null) {
+            return 0;
+        }
+        String trimmed = value.trim();
+        if (trimmed.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(trimmed);
+        } catch (NumberFormatException e) {
+            try {
+                return (int) Double.parseDouble(trimmed);
+            } catch (NumberFormatException notANumber) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Parses a decimal field such as a price or rating.
+     *
+     * @param value Decimal field
+     * @return Value, or NaN if empty or malformed
+     */
+    static float parseDecimal(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return Float.NaN;
+        }
+        try {
+            return Float.parseFloat(value.trim());
+        } catch (NumberFormatException e) {
+            return Float.NaN;
+        }
+    }
+
+    /**
+     * Parses an author field into author ids.
+     * Accepts a single id ("A1") as well as the dataset's list form ("[1, 2]").
+     *
+     * @param value Author field
+     * @return Author ids, possibly empty
+     */
+    static List<String> parseAuthors(String value) {
+        List<String> authors = new ArrayList<>();
+        if (value == null) {
+            return authors;
+        }
+
+        String list = value.trim();
+        if (list.startsWith("[") && list.endsWith("]")) {
+            list = list.substring(1, list.length() - 1);
+        }
+
+        for (String part : list.split(",")) {
+            String id = part.trim();
+            if (id.length() >= 2 && (id.charAt(0) == '\'' || id.charAt(0) == '"')
+                    && id.charAt(id.length() - 1) == id.charAt(0)) {
+                id = id.substring(1, id.length() - 1).trim();
+            }
+            if (!id.isEmpty()) {
+                authors.add(id);
+            }
+        }
+        return authors;
+    }
+}
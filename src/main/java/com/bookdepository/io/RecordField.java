@@ -0,0 +1,17 @@
+package com.bookdepository.io;
+
+/**
+ * Fields of a book record that a reader can fill in.
+ * Readers only build the fields they are asked for, so a run that needs
+ * nothing but ranks or author ids does not pay for decoding titles.
+ */
+public enum RecordField {
+    /** Book identifier. */
+    ID,
+    /** Book title. */
+    TITLE,
+    /** Author ids. */
+    AUTHORS,
+    /** Bestseller rank. */
+    RANK
+}
@@ -0,0 +1,169 @@
+package com.bookdepository.io;
+
+import com.bookdepository.model.Author;
+import com.bookdepository.model.Record;
+import com.bookdepository.structures.sketch.BloomFilteredMap;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Chooses the reader used to load the records CSV.
+ *
+ * Four readers are available: "stream", the buffered character reader
+ * ({@link RecordStream}), "mmap", the memory-mapped byte reader
+ * ({@link MappedRecordReader}), "parallel", which parses chunks of the
+ * file on all cores ({@link ParallelRecordLoader}), and "snapshot", which
+ * reads the binary snapshot written next to the CSV on the first run
+ * ({@link RecordSnapshot}). The experiments use the one named by the
+ * {@value #READER_PROPERTY} system property, "stream" by default:
+ *
+ *     java -Dbookdepository.reader=mmap ... SortingExperiment
+ */
+public final class RecordReaders {
+    /**
+     * System property naming the records reader.
+     */
+    public static final String READER_PROPERTY = "bookdepository.reader";
+
+    /**
+     * Name of the buffered character reader.
+     */
+    public static final String STREAM = "stream";
+
+    /**
+     * Name of the memory-mapped reader.
+     */
+    public static final String MMAP = "mmap";
+
+    /**
+     * Name of the parallel chunked reader.
+     */
+    public static final String PARALLEL = "parallel";
+
+    /**
+     * Name of the binary snapshot reader.
+     */
+    public static final String SNAPSHOT = "snapshot";
+
+    private static final List<String> NAMES = Arrays.asList(STREAM, MMAP, PARALLEL, SNAPSHOT);
+
+    private static final Map<String, RecordSnapshot> SNAPSHOTS = new HashMap<>();
+
+    private RecordReaders() {
+    }
+
+    /**
+     * Opens a records CSV with the reader named by the system property.
+     *
+     * @param path   Path of the CSV file
+     * @param fields Fields to fill in
+     * @return Record source
+     * @throws IOException If the file cannot be opened
+     */
+    public static RecordSource open(String path, Set<RecordField> fields) throws IOException {
+        return open(selectedReader(), path, fields);
+    }
+
+    /**
+     * Gets the reader named by the system property.
+     *
+     * @return Reader name, lower case
+     */
+    public static String selectedReader() {
+        return System.getProperty(READER_PROPERTY, STREAM).trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Opens a records CSV with the named reader.
+     *
+     * @param reader Reader name, "stream", "mmap", "parallel" or "snapshot" (case-insensitive)
+     * @param path   Path of the CSV file
+     * @param fields Fields to fill in
+     * @return Record source
+     * @throws IOException If the file cannot be opened
+     * @throws IllegalArgumentException If the reader name is unknown
+     */
+    public static RecordSource open(String reader, String path, Set<RecordField> fields) throws IOException {
+        switch (reader.trim().toLowerCase(Locale.ROOT)) {
+            case STREAM:
+                return RecordStream.open(path, fields);
+            case MMAP:
+                return new MappedRecordReader(path, fields);
+            case PARALLEL:
+                return new ParallelRecordLoader().open(path, fields);
+            case SNAPSHOT:
+                return snapshot(path).source(fields);
+            default:
+                throw new IllegalArgumentException("Unknown record reader: " + reader + ". Available: " + NAMES);
+        }
+    }
+
+    /**
+     * Gets the snapshot of a records CSV. Each path is opened once and the
+     * snapshot reused while its sources are unchanged, so a run that reads
+     * both the records and the authors maps it only once.
+     *
+     * @param recordsCsv Path of the records CSV
+     * @return Mapped snapshot
+     * @throws IOException If the snapshot cannot be opened or built
+     */
+    static synchronized RecordSnapshot snapshot(String recordsCsv) throws IOException {
+        RecordSnapshot snapshot = SNAPSHOTS.get(recordsCsv);
+        if (snapshot == null || !snapshot.isCurrent(recordsCsv, RecordSnapshot.DEFAULT_AUTHORS_FILE)) {
+            snapshot = RecordSnapshot.openOrBuild(recordsCsv);
+            SNAPSHOTS.put(recordsCsv, snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Reads at most limit records from the start of a records CSV.
+     * Stops reading the file as soon as the limit is reached.
+     *
+     * @param path   Path of the CSV file
+     * @param limit  Maximum number of records
+     * @param fields Fields to fill in
+     * @return The first records of the file, in file order
+     * @throws IOException If the file cannot be read
+     */
+    public static List<Record> readRecords(String path, int limit, Set<RecordField> fields) throws IOException {
+        try (RecordSource source = open(path, fields)) {
+            return source.nextChunk(limit);
+        }
+    }
+
+    /**
+     * Reads the authors map for a records CSV. With the snapshot reader the
+     * map comes from the snapshot; otherwise authors.csv is parsed.
+     *
+     * @param recordsCsv Path of the records CSV
+     * @return Map from author id to author
+     * @throws IOException If the authors cannot be read
+     */
+    public static Map<String, Author> readAuthorsMap(String recordsCsv) throws IOException {
+        if (SNAPSHOT.equals(selectedReader())) {
+            return snapshot(recordsCsv).getAuthorsMap();
+        }
+        return FileReader.readAuthorsMap();
+    }
+
+    /**
+     * Reads the authors map for a records CSV, from the snapshot or from
+     * authors.csv as {@link #readAuthorsMap(String)} does, and puts a Bloom
+     * filter of its author ids in front of it.
+     *
+     * @param recordsCsv        Path of the records CSV
+     * @param falsePositiveRate False-positive rate of the filter
+     * @return Filtered map from author id to author
+     * @throws IOException If the authors cannot be read
+     */
+    public static BloomFilteredMap<Author> readAuthorsMap(String recordsCsv, double falsePositiveRate)
+            throws IOException {
+        return new BloomFilteredMap<>(readAuthorsMap(recordsCsv), falsePositiveRate);
+    }
+}
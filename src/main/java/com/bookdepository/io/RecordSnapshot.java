@@ -0,0 +1,649 @@
+package com.bookdepository.io;
+
+import com.bookdepository.model.Author;
+import com.bookdepository.model.Record;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary columnar snapshot of the parsed records and authors CSVs.
+ *
+ * The first run parses both CSVs and writes the snapshot; later runs map it
+ * into memory and read records straight from its columns, without parsing any
+ * text. The snapshot stores the size and modification time of both source
+ * files and is rebuilt as soon as either changes, or when its length does not
+ * match the body length in its header. Opening it only reads the header, so
+ * startup does not depend on the snapshot size. A CRC32 of the body is checked
+ * right after the snapshot is written, and on request with
+ * {@link #open(String, String, String, boolean)}.
+ *
+ * The authors are read with an {@link AuthorsReader}, by default
+ * {@link FileReader#readAuthorsMap()}, so the snapshot holds the same authors
+ * as the other readers.
+ *
+ * Layout (big-endian), version {@value #VERSION}:
+ * <pre>
+ * header  magic, version, records CSV size and mtime, authors CSV size and mtime,
+ *         body length, body CRC32
+ * body    record count n, author count m
+ *         ranks          int[n]
+ *         author starts  int[n + 1], into the author references
+ *         author refs    int count, int[count] author ordinals
+ *         author ids     string heap of m entries (the dictionary)
+ *         author names   byte[m] listed-author flags, string heap of m entries
+ *         record ids     string heap of n entries
+ *         titles         string heap of n entries
+ * </pre>
+ * A string heap is an entry count k, byte[k] null flags, int[k + 1] offsets
+ * and the UTF-8 bytes. Missing ids, titles and names are read back as null,
+ * as from the CSV readers.
+ */
+public final class RecordSnapshot {
+    /**
+     * Format version; snapshots of any other version are rebuilt.
+     */
+    public static final int VERSION = 2;
+
+    /**
+     * Default location of the authors CSV.
+     */
+    public static final String DEFAULT_AUTHORS_FILE = "data/authors.csv";
+
+    /**
+     * Suffix appended to the records CSV path to name its snapshot.
+     */
+    public static final String SNAPSHOT_SUFFIX = ".snapshot";
+
+    private static final int MAGIC = 0x42445353; // "BDSS"
+    private static final int HEADER_SIZE = 4 + 4 + 6 * 8;
+
+    private final MappedByteBuffer buffer;
+    private final int recordCount;
+    private final int authorCount;
+    private final int ranksOffset;
+    private final int authorStartsOffset;
+    private final int authorRefsOffset;
+    private final StringHeap authorIds;
+    private final int authorNamedOffset;
+    private final StringHeap authorNames;
+    private final StringHeap recordIds;
+    private final StringHeap titles;
+    private final String[] authorIdCache;
+
+    /**
+     * Reader of the authors stored in a snapshot.
+     */
+    @FunctionalInterface
+    public interface AuthorsReader {
+        /**
+         * Reads the authors.
+         *
+         * @return Map from author id to author
+         * @throws IOException If the authors cannot be read
+         */
+        Map<String, Author> read() throws IOException;
+    }
+
+    private RecordSnapshot(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        int position = HEADER_SIZE;
+        this.recordCount = buffer.getInt(position);
+        this.authorCount = buffer.getInt(position + 4);
+        position += 8;
+        this.ranksOffset = position;
+        position += 4 * recordCount;
+        this.authorStartsOffset = position;
+        position += 4 * (recordCount + 1);
+        int refCount = buffer.getInt(position);
+        this.authorRefsOffset = position + 4;
+        position = authorRefsOffset + 4 * refCount;
+        this.authorIds = new StringHeap(buffer, position);
+        position = authorIds.end();
+        this.authorNamedOffset = position;
+        position += authorCount;
+        this.authorNames = new StringHeap(buffer, position);
+        this.recordIds = new StringHeap(buffer, authorNames.end());
+        this.titles = new StringHeap(buffer, recordIds.end());
+        this.authorIdCache = new String[authorCount];
+    }
+
+    /**
+     * Opens the snapshot of a records CSV, building it first if it is missing,
+     * stale or damaged. The snapshot is stored next to the CSV and holds the
+     * authors of {@link #DEFAULT_AUTHORS_FILE}, read by
+     * {@link FileReader#readAuthorsMap()}.
+     *
+     * @param recordsCsv Path of the records CSV
+     * @return Mapped snapshot
+     * @throws IOException If the CSVs cannot be read or the snapshot cannot be written
+     */
+    public static RecordSnapshot openOrBuild(String recordsCsv) throws IOException {
+        return openOrBuild(recordsCsv, DEFAULT_AUTHORS_FILE, FileReader::readAuthorsMap,
+            recordsCsv + SNAPSHOT_SUFFIX);
+    }
+
+    /**
+     * Opens a snapshot, building it first if it is missing, stale or damaged.
+     * A snapshot it builds is read back and its checksum verified.
+     *
+     * @param recordsCsv   Path of the records CSV
+     * @param authorsCsv   Path of the authors CSV, or null to store no authors
+     * @param authors      Reader of the authors in authorsCsv; used only when building
+     * @param snapshotPath Path of the snapshot file
+     * @return Mapped snapshot
+     * @throws IOException If the CSVs cannot be read or the snapshot cannot be written
+     */
+    public static RecordSnapshot openOrBuild(String recordsCsv, String authorsCsv, AuthorsReader authors,
+            String snapshotPath) throws IOException {
+        RecordSnapshot snapshot = open(recordsCsv, authorsCsv, snapshotPath);
+        if (snapshot == null) {
+            write(recordsCsv, authorsCsv, authors, snapshotPath);
+            snapshot = open(recordsCsv, authorsCsv, snapshotPath, true);
+            if (snapshot == null) {
+                throw new IOException("Snapshot just written is not readable: " + snapshotPath);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Maps a snapshot if it is current for the given sources. Only the header
+     * is read; the body checksum is not verified.
+     *
+     * @param recordsCsv   Path of the records CSV
+     * @param authorsCsv   Path of the authors CSV, or null
+     * @param snapshotPath Path of the snapshot file
+     * @return Mapped snapshot, or null if it is missing, stale, of another version or truncated
+     * @throws IOException If the files cannot be read
+     */
+    public static RecordSnapshot open(String recordsCsv, String authorsCsv, String snapshotPath) throws IOException {
+        return open(recordsCsv, authorsCsv, snapshotPath, false);
+    }
+
+    /**
+     * Maps a snapshot if it is current for the given sources.
+     *
+     * @param recordsCsv   Path of the records CSV
+     * @param authorsCsv   Path of the authors CSV, or null
+     * @param snapshotPath Path of the snapshot file
+     * @param verify       Whether to check the CRC32 of the body, which reads the whole file
+     * @return Mapped snapshot, or null if it is missing, stale, of another version or damaged
+     * @throws IOException If the files cannot be read
+     */
+    public static RecordSnapshot open(String recordsCsv, String authorsCsv, String snapshotPath, boolean verify)
+            throws IOException {
+        Path path = Paths.get(snapshotPath);
+        if (!Files.isRegularFile(path) || Files.size(path) < HEADER_SIZE) {
+            return null;
+        }
+
+        long[] fingerprint = fingerprint(recordsCsv, authorsCsv);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                // Not written by this version, which refuses to exceed 2 GB
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                    || !Arrays.equals(fingerprint, storedFingerprint(buffer))) {
+                return null;
+            }
+            long bodyLength = buffer.getLong(40);
+            if (bodyLength != size - HEADER_SIZE || verify && buffer.getLong(48) != checksum(buffer)) {
+                return null;
+            }
+            return new RecordSnapshot(buffer);
+        }
+    }
+
+    /**
+     * Checks, from file sizes and modification times alone, that the sources
+     * have not changed since this snapshot was written.
+     *
+     * @param recordsCsv Path of the records CSV
+     * @param authorsCsv Path of the authors CSV, or null
+     * @return Whether the snapshot is current
+     * @throws IOException If a source file cannot be read
+     */
+    public boolean isCurrent(String recordsCsv, String authorsCsv) throws IOException {
+        return Arrays.equals(fingerprint(recordsCsv, authorsCsv), storedFingerprint(buffer));
+    }
+
+    /**
+     * Parses the CSVs and writes their snapshot. The file is written under a
+     * temporary name and moved into place, so readers never see a partial file.
+     *
+     * @param recordsCsv   Path of the records CSV
+     * @param authorsCsv   Path of the authors CSV, or null to store no authors
+     * @param authors      Reader of the authors in authorsCsv
+     * @param snapshotPath Path of the snapshot file
+     * @throws IOException If the CSVs cannot be read, the snapshot would exceed
+     *                     2 GB, or the snapshot cannot be written
+     */
+    public static void write(String recordsCsv, String authorsCsv, AuthorsReader authors, String snapshotPath)
+            throws IOException {
+        long[] fingerprint = fingerprint(recordsCsv, authorsCsv);
+
+        // Parse the records into columns, building the author dictionary
+        IntColumn ranks = new IntColumn();
+        IntColumn authorStarts = new IntColumn();
+        IntColumn authorRefs = new IntColumn();
+        HeapBuilder recordIds = new HeapBuilder();
+        HeapBuilder titles = new HeapBuilder();
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+
+        try (RecordStream records = RecordStream.open(recordsCsv)) {
+            while (records.hasNext()) {
+                Record record = records.next();
+                ranks.add(record.getBestsellersRank());
+                authorStarts.add(authorRefs.size());
+                if (record.getAuthors() != null) {
+                    for (String authorId : record.getAuthors()) {
+                        authorRefs.add(ordinal(dictionary, authorId));
+                    }
+                }
+                recordIds.add(record.getId());
+                titles.add(record.getTitle());
+            }
+        }
+        authorStarts.add(authorRefs.size());
+
+        Map<String, Author> listed = authorsCsv == null ? Collections.<String, Author>emptyMap() : authors.read();
+        for (String authorId : listed.keySet()) {
+            ordinal(dictionary, authorId);
+        }
+
+        HeapBuilder authorIds = new HeapBuilder();
+        HeapBuilder authorNames = new HeapBuilder();
+        byte[] named = new byte[dictionary.size()];
+        int index = 0;
+        for (String authorId : dictionary.keySet()) {
+            Author author = listed.get(authorId);
+            authorIds.add(authorId);
+            authorNames.add(author == null ? null : author.getName());
+            named[index++] = (byte) (author == null ? 0 : 1);
+        }
+
+        long expectedLength = 8 + ranks.byteSize() + authorStarts.byteSize() + 4 + authorRefs.byteSize()
+            + authorIds.byteSize() + named.length + authorNames.byteSize() + recordIds.byteSize()
+            + titles.byteSize();
+        if (HEADER_SIZE + expectedLength > Integer.MAX_VALUE) {
+            // Snapshots are mapped as one buffer
+            throw new IOException("Snapshot would exceed 2 GB: " + snapshotPath);
+        }
+
+        Path target = Paths.get(snapshotPath).toAbsolutePath();
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.position(HEADER_SIZE);
+                CRC32 crc = new CRC32();
+                DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16), crc));
+
+                out.writeInt(ranks.size());
+                out.writeInt(dictionary.size());
+                ranks.writeTo(out);
+                authorStarts.writeTo(out);
+                out.writeInt(authorRefs.size());
+                authorRefs.writeTo(out);
+                authorIds.writeTo(out);
+                out.write(named);
+                authorNames.writeTo(out);
+                recordIds.writeTo(out);
+                titles.writeTo(out);
+                out.flush();
+                long bodyLength = channel.position() - HEADER_SIZE;
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC).putInt(VERSION);
+                for (long value : fingerprint) {
+                    header.putLong(value);
+                }
+                header.putLong(bodyLength).putLong(crc.getValue());
+                header.flip();
+                channel.write(header, 0);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Gets the number of records.
+     *
+     * @return Number of records
+     */
+    public int size() {
+        return recordCount;
+    }
+
+    /**
+     * Gets the bestseller rank of a record.
+     *
+     * @param index Record index
+     * @return Rank
+     */
+    public int getRank(int index) {
+        return buffer.getInt(ranksOffset + 4 * checkIndex(index));
+    }
+
+    /**
+     * Gets the author ids of a record.
+     *
+     * @param index Record index
+     * @return Author ids, in file order
+     */
+    public List<String> getAuthors(int index) {
+        checkIndex(index);
+        int start = buffer.getInt(authorStartsOffset + 4 * index);
+        int end = buffer.getInt(authorStartsOffset + 4 * (index + 1));
+        List<String> authors = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            authors.add(authorId(buffer.getInt(authorRefsOffset + 4 * i)));
+        }
+        return authors;
+    }
+
+    /**
+     * Builds a record view of one row, filling in only the given fields.
+     *
+     * @param index  Record index
+     * @param fields Fields to fill in
+     * @return Record
+     */
+    public Record getRecord(int index, Set<RecordField> fields) {
+        checkIndex(index);
+        Record record = new Record();
+        if (fields.contains(RecordField.ID)) {
+            record.setId(recordIds.get(index));
+        }
+        if (fields.contains(RecordField.TITLE)) {
+            record.setTitle(titles.get(index));
+        }
+        if (fields.contains(RecordField.AUTHORS)) {
+            record.setAuthors(getAuthors(index));
+        }
+        if (fields.contains(RecordField.RANK)) {
+            record.setBestsellersRank(getRank(index));
+        }
+        return record;
+    }
+
+    /**
+     * Gets the authors listed in the authors CSV, by id.
+     *
+     * @return Map from author id to author
+     */
+    public Map<String, Author> getAuthorsMap() {
+        Map<String, Author> authors = new HashMap<>();
+        for (int ordinal = 0; ordinal < authorCount; ordinal++) {
+            if (buffer.get(authorNamedOffset + ordinal) != 0) {
+                String id = authorId(ordinal);
+                authors.put(id, new Author(id, authorNames.get(ordinal)));
+            }
+        }
+        return authors;
+    }
+
+    /**
+     * Reads the records in order as a record source.
+     *
+     * @param fields Fields to fill in
+     * @return Record source over the snapshot
+     */
+    public RecordSource source(Set<RecordField> fields) {
+        Set<RecordField> wanted = EnumSet.copyOf(fields);
+        return new RecordSource() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < recordCount;
+            }
+
+            @Override
+            public Record next() {
+                if (next >= recordCount) {
+                    throw new NoSuchElementException();
+                }
+                return getRecord(next++, wanted);
+            }
+
+            @Override
+            public void close() {
+                next = recordCount;
+            }
+        };
+    }
+
+    /**
+     * Gets an author id from the dictionary, decoding it once.
+     *
+     * @param ordinal Author ordinal
+     * @return Author id
+     */
+    private String authorId(int ordinal) {
+        String id = authorIdCache[ordinal];
+        if (id == null) {
+            id = authorIds.get(ordinal);
+            authorIdCache[ordinal] = id;
+        }
+        return id;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= recordCount) {
+            throw new IndexOutOfBoundsException("Record index " + index + " out of range [0, " + recordCount + ")");
+        }
+        return index;
+    }
+
+    /**
+     * Builds the source fingerprint: size and modification time of both CSVs.
+     *
+     * @param recordsCsv Path of the records CSV
+     * @param authorsCsv Path of the authors CSV, or null
+     * @return Records size, records mtime, authors size, authors mtime
+     * @throws IOException If a source file cannot be read
+     */
+    private static long[] fingerprint(String recordsCsv, String authorsCsv) throws IOException {
+        Path records = Paths.get(recordsCsv);
+        long[] fingerprint = new long[4];
+        fingerprint[0] = Files.size(records);
+        fingerprint[1] = Files.getLastModifiedTime(records).toMillis();
+        if (authorsCsv != null) {
+            Path authors = Paths.get(authorsCsv);
+            fingerprint[2] = Files.size(authors);
+            fingerprint[3] = Files.getLastModifiedTime(authors).toMillis();
+        } else {
+            fingerprint[2] = -1;
+            fingerprint[3] = -1;
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Reads the source fingerprint stored in a snapshot header.
+     */
+    private static long[] storedFingerprint(ByteBuffer buffer) {
+        long[] fingerprint = new long[4];
+        for (int i = 0; i < fingerprint.length; i++) {
+            fingerprint[i] = buffer.getLong(8 + 8 * i);
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Computes the CRC32 of the snapshot body.
+     *
+     * @param buffer Mapped snapshot
+     * @return CRC32 value
+     */
+    private static long checksum(MappedByteBuffer buffer) {
+        ByteBuffer body = buffer.duplicate();
+        body.position(HEADER_SIZE);
+        byte[] chunk = new byte[1 << 16];
+        CRC32 crc = new CRC32();
+        while (body.hasRemaining()) {
+            int length = Math.min(chunk.length, body.remaining());
+            body.get(chunk, 0, length);
+            crc.update(chunk, 0, length);
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Gets the dictionary ordinal of an author id, adding it if new.
+     */
+    private static int ordinal(Map<String, Integer> dictionary, String authorId) {
+        Integer ordinal = dictionary.get(authorId);
+        if (ordinal == null) {
+            ordinal = dictionary.size();
+            dictionary.put(authorId, ordinal);
+        }
+        return ordinal;
+    }
+
+    /**
+     * Growable int column used while writing.
+     */
+    private static final class IntColumn {
+        private int[] values = new int[1024];
+        private int size = 0;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, 2 * size);
+            }
+            values[size++] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long byteSize() {
+            return 4L * size;
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            for (int i = 0; i < size; i++) {
+                out.writeInt(values[i]);
+            }
+        }
+    }
+
+    /**
+     * String heap under construction: offsets plus concatenated UTF-8 bytes.
+     */
+    private static final class HeapBuilder {
+        private final IntColumn offsets = new IntColumn();
+        private byte[] nulls = new byte[1024];
+        private byte[] bytes = new byte[1 << 12];
+        private int length = 0;
+
+        HeapBuilder() {
+            offsets.add(0);
+        }
+
+        void add(String value) throws IOException {
+            int index = offsets.size() - 1;
+            if (index == nulls.length) {
+                nulls = Arrays.copyOf(nulls, 2 * index);
+            }
+            nulls[index] = (byte) (value == null ? 1 : 0);
+            byte[] encoded = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+            if ((long) length + encoded.length > Integer.MAX_VALUE - 8) {
+                throw new IOException("String heap would exceed 2 GB");
+            }
+            if (length + encoded.length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, (int) Math.min(Integer.MAX_VALUE - 8,
+                    Math.max(2L * bytes.length, (long) length + encoded.length)));
+            }
+            System.arraycopy(encoded, 0, bytes, length, encoded.length);
+            length += encoded.length;
+            offsets.add(length);
+        }
+
+        long byteSize() {
+            int count = offsets.size() - 1;
+            return 4L + count + offsets.byteSize() + length;
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            int count = offsets.size() - 1;
+            out.writeInt(count);
+            out.write(nulls, 0, count);
+            offsets.writeTo(out);
+            out.write(bytes, 0, length);
+        }
+    }
+
+    /**
+     * Read-only view of a string heap in the mapped snapshot.
+     */
+    private static final class StringHeap {
+        private final ByteBuffer buffer;
+        private final int count;
+        private final int nullsStart;
+        private final int offsetsStart;
+        private final int bytesStart;
+
+        StringHeap(ByteBuffer buffer, int position) {
+            this.buffer = buffer;
+            this.count = buffer.getInt(position);
+            this.nullsStart = position + 4;
+            this.offsetsStart = nullsStart + count;
+            this.bytesStart = offsetsStart + 4 * (count + 1);
+        }
+
+        String get(int index) {
+            if (buffer.get(nullsStart + index) != 0) {
+                return null;
+            }
+            int start = buffer.getInt(offsetsStart + 4 * index);
+            int end = buffer.getInt(offsetsStart + 4 * (index + 1));
+            byte[] bytes = new byte[end - start];
+            ByteBuffer view = buffer.duplicate();
+            view.position(bytesStart + start);
+            view.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        int end() {
+            return bytesStart + buffer.getInt(offsetsStart + 4 * count);
+        }
+    }
+}
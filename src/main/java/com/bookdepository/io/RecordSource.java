@@ -0,0 +1,60 @@
+package com.bookdepository.io;
+
+import com.bookdepository.model.Record;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Sequential source of book records, read in file order.
+ * Errors while iterating are rethrown as {@link UncheckedIOException};
+ * {@link #nextChunk(int)} reports them as {@link IOException}.
+ *
+ * @see RecordReaders
+ */
+public interface RecordSource extends Iterator<Record>, Closeable {
+
+    /**
+     * Reads the next chunk of records.
+     *
+     * @param maxRecords Maximum number of records in the chunk
+     * @return Up to maxRecords records, empty at the end of the file
+     * @throws IOException If the file cannot be read
+     */
+    default List<Record> nextChunk(int maxRecords) throws IOException {
+        List<Record> chunk = new ArrayList<>(Math.min(Math.max(maxRecords, 0), 1 << 16));
+        try {
+            while (chunk.size() < maxRecords && hasNext()) {
+                chunk.add(next());
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return chunk;
+    }
+
+    /**
+     * Gets the remaining records as an ordered, sequential stream.
+     * Closing the stream closes this source.
+     *
+     * @return Stream of the remaining records
+     */
+    default Stream<Record> stream() {
+        Spliterator<Record> spliterator = Spliterators.spliteratorUnknownSize(
+            this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,153 @@
+package com.bookdepository.io;
+
+import com.bookdepository.model.OffHeapRecordStore;
+import com.bookdepository.model.Record;
+import com.bookdepository.model.RecordStore;
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Loads the records CSV straight into a columnar {@link RecordStore} or
+ * {@link OffHeapRecordStore}. Rows are parsed one at a time and only their id,
+ * rank, price, rating and author ids are kept; no Record objects are created.
+ * A store can also be filled from a {@link RecordSource}, from whichever
+ * reader produced it.
+ */
+public final class RecordStoreLoader {
+
+    private RecordStoreLoader() {
+    }
+
+    /**
+     * Loads at most limit records from the start of a records CSV.
+     *
+     * @param path  Path of the CSV file
+     * @param limit Maximum number of records
+     * @return Record store with the first records of the file
+     * @throws IOException If the file cannot be read
+     */
+    public static RecordStore load(String path, int limit) throws IOException {
+        return load(open(path), limit);
+    }
+
+    /**
+     * Loads at most limit records from CSV text.
+     *
+     * @param reader Source of the CSV text; closed when done
+     * @param limit  Maximum number of records
+     * @return Record store with the first records of the text
+     * @throws IOException If the text cannot be read or its header is invalid
+     */
+    public static RecordStore load(Reader reader, int limit) throws IOException {
+        RecordStore.Builder builder = new RecordStore.Builder(Math.min(Math.max(limit, 0), 1 << 16));
+        read(reader, limit, builder::add);
+        return builder.build();
+    }
+
+    /**
+     * Loads at most limit records from a record source, so the store can be
+     * filled by any of the {@link RecordReaders}. Prices and ratings, which
+     * Record does not carry, are stored as NaN.
+     *
+     * @param source Source of the records; not closed
+     * @param limit  Maximum number of records
+     * @return Record store with the first records of the source
+     * @throws IOException If the records cannot be read
+     */
+    public static RecordStore load(RecordSource source, int limit) throws IOException {
+        RecordStore.Builder builder = new RecordStore.Builder(Math.min(Math.max(limit, 0), 1 << 16));
+        try {
+            for (int count = 0; count < limit && source.hasNext(); count++) {
+                Record record = source.next();
+                builder.add(record.getId(), record.getBestsellersRank(), Float.NaN, Float.NaN, record.getAuthors());
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return builder.build();
+    }
+
+    /**
+     * Loads at most limit records from the start of a records CSV into an
+     * off-heap store.
+     *
+     * @param path      Path of the CSV file
+     * @param limit     Maximum number of records
+     * @param directory Directory of the store's temporary files, or null to
+     *                  keep the store in direct buffers
+     * @return Off-heap record store with the first records of the file
+     * @throws IOException If the file cannot be read or the store cannot be created
+     */
+    public static OffHeapRecordStore loadOffHeap(String path, int limit, Path directory) throws IOException {
+        return loadOffHeap(open(path), limit, directory);
+    }
+
+    /**
+     * Loads at most limit records from CSV text into an off-heap store.
+     *
+     * @param reader    Source of the CSV text; closed when done
+     * @param limit     Maximum number of records
+     * @param directory Directory of the store's temporary files, or null to
+     *                  keep the store in direct buffers
+     * @return Off-heap record store with the first records of the text
+     * @throws IOException If the text cannot be read, its header is invalid or
+     *                     the store cannot be created
+     */
+    public static OffHeapRecordStore loadOffHeap(Reader reader, int limit, Path directory) throws IOException {
+        int expectedSize = Math.min(Math.max(limit, 0), 1 << 16);
+        OffHeapRecordStore.Builder builder = directory == null
+            ? new OffHeapRecordStore.Builder(expectedSize)
+            : new OffHeapRecordStore.Builder(expectedSize, directory);
+        try {
+            read(reader, limit, builder::add);
+            return builder.build();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Reader open(String path) throws IOException {
+        return new BufferedReader(new InputStreamReader(new FileInputStream(path), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses at most limit rows and hands their columns to a sink.
+     *
+     * @param reader Source of the CSV text; closed when done
+     * @param limit  Maximum number of records
+     * @param sink   Receiver of the parsed rows
+     * @throws IOException If the text cannot be read or its header is invalid
+     */
+    private static void read(Reader reader, int limit, RowSink sink) throws IOException {
+        try (CsvTokenizer tokenizer = new CsvTokenizer(reader)) {
+            String[] header = tokenizer.next();
+            if (header == null) {
+                throw new IOException("Records file is empty");
+            }
+            RecordColumns columns = RecordColumns.fromHeader(header);
+
+            String[] row;
+            for (int count = 0; count < limit && (row = tokenizer.next()) != null; count++) {
+                sink.add(RecordColumns.field(row, columns.id),
+                    RecordColumns.parseRank(RecordColumns.field(row, columns.rank)),
+                    RecordColumns.parseDecimal(RecordColumns.field(row, columns.price)),
+                    RecordColumns.parseDecimal(RecordColumns.field(row, columns.rating)),
+                    RecordColumns.parseAuthors(RecordColumns.field(row, columns.authors)));
+            }
+        }
+    }
+
+    /**
+     * Receiver of the columns of one parsed row.
+     */
+    private interface RowSink {
+        void add(String id, int rank, float price, float rating, List<String> authors);
+    }
+}
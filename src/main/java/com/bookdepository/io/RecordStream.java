@@ -0,0 +1,133 @@
+package com.bookdepository.io;
+
+import com.bookdepository.model.Record;
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Streaming source of book records read from the records CSV.
+ * Records are parsed one row at a time, so only the records a caller keeps
+ * stay in memory. They can be consumed as an iterator, in chunks with
+ * {@link #nextChunk(int)}, or as an ordered stream.
+ *
+ * Errors while iterating are rethrown as {@link UncheckedIOException}.
+ */
+public class RecordStream implements RecordSource {
+    /**
+     * Default location of the records CSV.
+     */
+    public static final String DEFAULT_RECORDS_FILE = "data/dataset_simp_sem_descricao.csv";
+
+    private final CsvTokenizer tokenizer;
+    private final RecordColumns columns;
+    private final Set<RecordField> fields;
+    private String[] nextRow;
+    private long recordsRead;
+
+    /**
+     * Creates a record stream over CSV text. The header row is read immediately.
+     *
+     * @param reader Source of the CSV text, closed by {@link #close()}
+     * @throws IOException If the header cannot be read or lacks a required column
+     */
+    public RecordStream(Reader reader) throws IOException {
+        this(reader, EnumSet.allOf(RecordField.class));
+    }
+
+    /**
+     * Creates a record stream over CSV text that fills in only the given fields.
+     *
+     * @param reader Source of the CSV text, closed by {@link #close()}
+     * @param fields Fields to fill in
+     * @throws IOException If the header cannot be read or lacks a required column
+     */
+    public RecordStream(Reader reader, Set<RecordField> fields) throws IOException {
+        this.fields = EnumSet.copyOf(fields);
+        this.tokenizer = new CsvTokenizer(reader);
+        String[] header = tokenizer.next();
+        if (header == null) {
+            tokenizer.close();
+            throw new IOException("Records file is empty");
+        }
+        this.columns = RecordColumns.fromHeader(header);
+        this.nextRow = tokenizer.next();
+        this.recordsRead = 0;
+    }
+
+    /**
+     * Opens the default records CSV.
+     *
+     * @return Record stream
+     * @throws IOException If the file cannot be opened
+     */
+    public static RecordStream open() throws IOException {
+        return open(DEFAULT_RECORDS_FILE);
+    }
+
+    /**
+     * Opens a records CSV.
+     *
+     * @param path Path of the CSV file
+     * @return Record stream
+     * @throws IOException If the file cannot be opened
+     */
+    public static RecordStream open(String path) throws IOException {
+        return open(path, EnumSet.allOf(RecordField.class));
+    }
+
+    /**
+     * Opens a records CSV, filling in only the given fields.
+     *
+     * @param path   Path of the CSV file
+     * @param fields Fields to fill in
+     * @return Record stream
+     * @throws IOException If the file cannot be opened
+     */
+    public static RecordStream open(String path, Set<RecordField> fields) throws IOException {
+        return new RecordStream(new BufferedReader(
+            new InputStreamReader(new FileInputStream(path), StandardCharsets.UTF_8)), fields);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextRow != null;
+    }
+
+    @Override
+    public Record next() {
+        if (nextRow == null) {
+            throw new NoSuchElementException();
+        }
+        Record record = columns.toRecord(nextRow, fields);
+        recordsRead++;
+        try {
+            nextRow = tokenizer.next();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return record;
+    }
+
+    /**
+     * Gets the number of records handed out so far.
+     *
+     * @return Number of records read
+     */
+    public long getRecordsRead() {
+        return recordsRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        nextRow = null;
+        tokenizer.close();
+    }
+}
@@ -0,0 +1,82 @@
+package com.bookdepository.io;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Detailed metrics of one sorting run.
+ * Complements {@link PerformanceResult} with 64-bit comparison and swap counters,
+ * the wall time in nanoseconds and the time spent in each named phase of the
+ * algorithm (for example heap construction and extraction in HeapSort).
+ */
+public class SortMetrics {
+    private final long comparisons;
+    private final long swaps;
+    private final long executionTimeNanos;
+    private final Map<String, Long> phaseNanos;
+
+    /**
+     * Creates the metrics of a sorting run.
+     *
+     * @param comparisons        Number of key comparisons
+     * @param swaps              Number of swaps or record moves
+     * @param executionTimeNanos Wall time in nanoseconds
+     * @param phaseNanos         Time per phase in nanoseconds, in phase order
+     */
+    public SortMetrics(long comparisons, long swaps, long executionTimeNanos, Map<String, Long> phaseNanos) {
+        this.comparisons = comparisons;
+        this.swaps = swaps;
+        this.executionTimeNanos = executionTimeNanos;
+        this.phaseNanos = Collections.unmodifiableMap(new LinkedHashMap<>(phaseNanos));
+    }
+
+    /**
+     * Gets the number of key comparisons.
+     *
+     * @return Number of comparisons
+     */
+    public long getComparisons() {
+        return comparisons;
+    }
+
+    /**
+     * Gets the number of swaps or record moves.
+     *
+     * @return Number of swaps
+     */
+    public long getSwaps() {
+        return swaps;
+    }
+
+    /**
+     * Gets the wall time in nanoseconds.
+     *
+     * @return Execution time in nanoseconds
+     */
+    public long getExecutionTimeNanos() {
+        return executionTimeNanos;
+    }
+
+    /**
+     * Gets the wall time in milliseconds, with sub-millisecond precision.
+     *
+     * @return Execution time in milliseconds
+     */
+    public double getExecutionTimeMillis() {
+        return executionTimeNanos / 1_000_000.0;
+    }
+
+    /**
+     * Gets the time spent in each phase, in nanoseconds.
+     * Phases an algorithm does not time are absent. Some algorithms, such as
+     * QuickSort, report the remainder of the wall time as a phase of its own,
+     * so their phases add up to the wall time; for the others the remainder
+     * is not attributed to any phase.
+     *
+     * @return Unmodifiable map from phase name to nanoseconds, in phase order
+     */
+    public Map<String, Long> getPhaseNanos() {
+        return phaseNanos;
+    }
+}
@@ -0,0 +1,79 @@
+package com.bookdepository.io;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+
+/**
+ * Writes the detailed sorting metrics table to output/outputSortingMetrics.txt.
+ * Each line holds one run: algorithm, input size, comparisons, swaps, wall time
+ * in nanoseconds and in milliseconds, and the phase times as name=nanos pairs.
+ * A phase such as QuickSort's "recursion" is the remainder of the run
+ * outside its timed phases, so the phases add up to the wall time.
+ * It complements output.txt, whose columns stay as they are.
+ */
+public class SortingMetricsWriter {
+    private static final String OUTPUT_FILE = "output/outputSortingMetrics.txt";
+    private static final String HEADER = "algorithm,size,comparisons,swaps,time_ns,time_ms,phases_ns";
+
+    /**
+     * Clears the metrics file and writes the column header.
+     *
+     * @throws IOException If the file cannot be written
+     */
+    public static void clearOutput() throws IOException {
+        File file = new File(OUTPUT_FILE);
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(file, false)))) {
+            writer.println(HEADER);
+        }
+    }
+
+    /**
+     * Appends the metrics of one sorting run.
+     *
+     * @param algorithm Algorithm name
+     * @param size      Number of records sorted
+     * @param metrics   Metrics of the run
+     * @throws IOException If the file cannot be written
+     */
+    public static void writeSortingMetrics(String algorithm, int size, SortMetrics metrics) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(OUTPUT_FILE, true)))) {
+            writer.println(formatLine(algorithm, size, metrics));
+        }
+    }
+
+    /**
+     * Formats the metrics of one sorting run as a table line.
+     *
+     * @param algorithm Algorithm name
+     * @param size      Number of records sorted
+     * @param metrics   Metrics of the run
+     * @return Line without the line terminator
+     */
+    static String formatLine(String algorithm, int size, SortMetrics metrics) {
+        StringBuilder line = new StringBuilder();
+        line.append(algorithm).append(',')
+            .append(size).append(',')
+            .append(metrics.getComparisons()).append(',')
+            .append(metrics.getSwaps()).append(',')
+            .append(metrics.getExecutionTimeNanos()).append(',')
+            .append(String.format(java.util.Locale.ROOT, "%.3f", metrics.getExecutionTimeMillis())).append(',');
+
+        boolean first = true;
+        for (Map.Entry<String, Long> phase : metrics.getPhaseNanos().entrySet()) {
+            if (!first) {
+                line.append(';');
+            }
+            line.append(phase.getKey()).append('=').append(phase.getValue());
+            first = false;
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,122 @@
+package com.bookdepository.model;
+
+/**
+ * Book records held column by column and addressed by position.
+ *
+ * Implementations keep ranks and author references in primitive storage and
+ * intern author ids into dense int ordinals. Sorting reorders positions with
+ * {@link #swap(int, int)}; counting authors scans the author references.
+ */
+public interface ColumnarRecords {
+
+    /**
+     * Gets the number of records.
+     *
+     * @return Number of records
+     */
+    int size();
+
+    /**
+     * Gets the bestseller rank of the record at a position.
+     *
+     * @param position Record position
+     * @return Rank
+     */
+    int getRank(int position);
+
+    /**
+     * Gets the price of the record at a position.
+     *
+     * @param position Record position
+     * @return Price, or NaN if unknown
+     */
+    float getPrice(int position);
+
+    /**
+     * Gets the average rating of the record at a position.
+     *
+     * @param position Record position
+     * @return Rating, or NaN if unknown
+     */
+    float getRating(int position);
+
+    /**
+     * Gets the id of the record at a position.
+     *
+     * @param position Record position
+     * @return Record id, or null if not stored
+     */
+    String getId(int position);
+
+    /**
+     * Gets the number of authors of the record at a position.
+     *
+     * @param position Record position
+     * @return Number of authors
+     */
+    int getAuthorCount(int position);
+
+    /**
+     * Gets an author ordinal of the record at a position.
+     *
+     * @param position Record position
+     * @param k        Index of the author within the record
+     * @return Author ordinal
+     */
+    int getAuthorOrdinal(int position, int k);
+
+    /**
+     * Gets the number of record-author pairs.
+     *
+     * @return Number of author references
+     */
+    int getAuthorReferenceCount();
+
+    /**
+     * Gets the author ordinal of a record-author pair. Pairs are numbered in
+     * load order, so scanning them all visits every author occurrence once.
+     *
+     * @param index Pair index, from 0 to {@link #getAuthorReferenceCount()}
+     * @return Author ordinal
+     */
+    int getAuthorReference(int index);
+
+    /**
+     * Gets the number of distinct author ids.
+     *
+     * @return Number of author ordinals
+     */
+    int getDistinctAuthorCount();
+
+    /**
+     * Gets the author id of an ordinal.
+     *
+     * @param ordinal Author ordinal
+     * @return Author id
+     */
+    String getAuthorId(int ordinal);
+
+    /**
+     * Gets the ordinal of an author id.
+     *
+     * @param authorId Author id
+     * @return Author ordinal, or -1 if no record has this author
+     */
+    int ordinalOf(String authorId);
+
+    /**
+     * Builds a Record view of the record at a position, with id, rank and authors.
+     *
+     * @param position Record position
+     * @return New record
+     */
+    Record getRecord(int position);
+
+    /**
+     * Swaps the records at two positions.
+     *
+     * @param i First position
+     * @param j Second position
+     */
+    void swap(int i, int j);
+}
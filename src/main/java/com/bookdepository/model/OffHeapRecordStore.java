@@ -0,0 +1,465 @@
+package com.bookdepository.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar store of book records kept outside the Java heap.
+ *
+ * Every record has a fixed-width slot of {@link #SLOT_BYTES} bytes holding its
+ * rank, price, rating, the arena offset of its id and the range of its author
+ * references. Record ids and author ids are length-prefixed UTF-8 strings in a
+ * separate arena. Slots, arena, author references and the position order all
+ * live in direct buffers, or in buffers mapped onto temporary files when a
+ * spill directory is given, so the garbage collector never scans them and
+ * mapped stores can outgrow both the heap and the direct memory limit.
+ *
+ * Slots never move. Positions are an int permutation over the slots, and
+ * {@link #swap(int, int)} only exchanges two permutation entries; sorting
+ * thus reorders four bytes per swap. Only the author id dictionary, one entry
+ * per distinct author, is kept on the heap.
+ *
+ * Each buffer is addressed with int offsets, so a single column is limited to
+ * 2 GB: about 89 million slots.
+ */
+public final class OffHeapRecordStore implements ColumnarRecords, Closeable {
+    /**
+     * Size of a record slot in bytes.
+     */
+    public static final int SLOT_BYTES = 24;
+
+    private static final int RANK = 0;
+    private static final int PRICE = 4;
+    private static final int RATING = 8;
+    private static final int ID_OFFSET = 12;
+    private static final int AUTHOR_START = 16;
+    private static final int AUTHOR_COUNT = 20;
+    private static final int NO_STRING = -1;
+
+    private final int size;
+    private final int refCount;
+    private final Region slots;
+    private final Region arena;
+    private final Region refs;
+    private final Region authorOffsets;
+    private final Region order;
+    private final Map<String, Integer> authorOrdinals;
+
+    private OffHeapRecordStore(Builder builder, Region order) {
+        this.size = builder.size;
+        this.refCount = builder.refCount;
+        this.slots = builder.slots;
+        this.arena = builder.arena;
+        this.refs = builder.refs;
+        this.authorOffsets = builder.authorOffsets;
+        this.order = order;
+        this.authorOrdinals = builder.authorOrdinals;
+    }
+
+    /**
+     * Copies records into a store kept in direct buffers. Prices and ratings,
+     * which Record does not carry, are stored as NaN.
+     *
+     * @param records Records, in order
+     * @return Record store
+     */
+    public static OffHeapRecordStore fromRecords(List<Record> records) {
+        Builder builder = new Builder(records.size());
+        for (Record record : records) {
+            builder.add(record.getId(), record.getBestsellersRank(), Float.NaN, Float.NaN, record.getAuthors());
+        }
+        return builder.build();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the byte offset of the slot at a position.
+     */
+    private int slot(int position) {
+        return order.buffer.getInt(position << 2) * SLOT_BYTES;
+    }
+
+    @Override
+    public int getRank(int position) {
+        return slots.buffer.getInt(slot(position) + RANK);
+    }
+
+    @Override
+    public float getPrice(int position) {
+        return slots.buffer.getFloat(slot(position) + PRICE);
+    }
+
+    @Override
+    public float getRating(int position) {
+        return slots.buffer.getFloat(slot(position) + RATING);
+    }
+
+    @Override
+    public String getId(int position) {
+        return arena.readString(slots.buffer.getInt(slot(position) + ID_OFFSET));
+    }
+
+    @Override
+    public int getAuthorCount(int position) {
+        return slots.buffer.getInt(slot(position) + AUTHOR_COUNT);
+    }
+
+    @Override
+    public int getAuthorOrdinal(int position, int k) {
+        return getAuthorReference(slots.buffer.getInt(slot(position) + AUTHOR_START) + k);
+    }
+
+    @Override
+    public int getAuthorReferenceCount() {
+        return refCount;
+    }
+
+    @Override
+    public int getAuthorReference(int index) {
+        return refs.buffer.getInt(index << 2);
+    }
+
+    @Override
+    public int getDistinctAuthorCount() {
+        return authorOrdinals.size();
+    }
+
+    @Override
+    public String getAuthorId(int ordinal) {
+        return arena.readString(authorOffsets.buffer.getInt(ordinal << 2));
+    }
+
+    @Override
+    public int ordinalOf(String authorId) {
+        Integer ordinal = authorOrdinals.get(authorId);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    @Override
+    public Record getRecord(int position) {
+        int slot = slot(position);
+        Record record = new Record();
+        record.setId(arena.readString(slots.buffer.getInt(slot + ID_OFFSET)));
+        record.setBestsellersRank(slots.buffer.getInt(slot + RANK));
+        int start = slots.buffer.getInt(slot + AUTHOR_START);
+        int count = slots.buffer.getInt(slot + AUTHOR_COUNT);
+        List<String> authors = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) {
+            authors.add(getAuthorId(getAuthorReference(start + k)));
+        }
+        record.setAuthors(authors);
+        return record;
+    }
+
+    @Override
+    public void swap(int i, int j) {
+        ByteBuffer buffer = order.buffer;
+        int row = buffer.getInt(i << 2);
+        buffer.putInt(i << 2, buffer.getInt(j << 2));
+        buffer.putInt(j << 2, row);
+    }
+
+    /**
+     * Gets the number of bytes held outside the heap, counting the unused
+     * capacity of every buffer.
+     *
+     * @return Off-heap bytes
+     */
+    public long getOffHeapBytes() {
+        return (long) slots.buffer.capacity() + arena.buffer.capacity() + refs.buffer.capacity()
+            + authorOffsets.buffer.capacity() + order.buffer.capacity();
+    }
+
+    /**
+     * Releases the temporary files of a mapped store. Direct buffers are
+     * released by the garbage collector once the store is unreachable. The
+     * store must not be used afterwards.
+     *
+     * @throws IOException If a temporary file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (Region region : new Region[] {slots, arena, refs, authorOffsets, order}) {
+            try {
+                region.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Growable byte buffer, either direct or mapped onto a temporary file.
+     */
+    private static final class Region implements Closeable {
+        private final Path file;
+        private final FileChannel channel;
+        private ByteBuffer buffer;
+        private int used;
+
+        /**
+         * Creates a region in a direct buffer.
+         *
+         * @param capacity Initial capacity in bytes
+         */
+        Region(int capacity) {
+            this.file = null;
+            this.channel = null;
+            this.buffer = ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+            this.used = 0;
+        }
+
+        /**
+         * Creates a region mapped onto a new temporary file.
+         *
+         * @param directory Directory of the temporary file
+         * @param name      Prefix of the temporary file name
+         * @param capacity  Initial capacity in bytes
+         * @throws IOException If the temporary file cannot be created or mapped
+         */
+        Region(Path directory, String name, int capacity) throws IOException {
+            this.file = Files.createTempFile(directory, name, ".bin");
+            this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.buffer = map(capacity);
+            this.used = 0;
+        }
+
+        private ByteBuffer map(int capacity) throws IOException {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity).order(ByteOrder.nativeOrder());
+        }
+
+        /**
+         * Reserves bytes at the end of the region, growing it if needed.
+         *
+         * @param bytes Number of bytes to reserve
+         * @return Offset of the reserved bytes
+         */
+        int reserve(int bytes) {
+            long required = (long) used + bytes;
+            if (required > buffer.capacity()) {
+                if (required > Integer.MAX_VALUE) {
+                    throw new IllegalStateException("Off-heap column exceeds 2 GB");
+                }
+                grow((int) Math.min(Integer.MAX_VALUE, Math.max(required, 2L * buffer.capacity())));
+            }
+            int offset = used;
+            used += bytes;
+            return offset;
+        }
+
+        private void grow(int capacity) {
+            try {
+                if (channel == null) {
+                    ByteBuffer grown = ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+                    ByteBuffer content = buffer.duplicate();
+                    content.position(0).limit(used);
+                    grown.put(content);
+                    buffer = grown;
+                } else {
+                    // The file grows with the mapping and keeps what was written
+                    buffer = map(capacity);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Appends a length-prefixed UTF-8 string.
+         *
+         * @param value String to append, or null
+         * @return Offset of the string, or NO_STRING for null
+         */
+        int writeString(String value) {
+            if (value == null) {
+                return NO_STRING;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            int offset = reserve(4 + bytes.length);
+            buffer.putInt(offset, bytes.length);
+            ByteBuffer target = buffer.duplicate();
+            target.position(offset + 4);
+            target.put(bytes);
+            return offset;
+        }
+
+        /**
+         * Reads a string written by {@link #writeString(String)}.
+         *
+         * @param offset Offset of the string, or NO_STRING
+         * @return String, or null for NO_STRING
+         */
+        String readString(int offset) {
+            if (offset == NO_STRING) {
+                return null;
+            }
+            byte[] bytes = new byte[buffer.getInt(offset)];
+            ByteBuffer source = buffer.duplicate();
+            source.position(offset + 4);
+            source.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (channel != null) {
+                buffer = null;
+                channel.close();
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    // Still mapped on some platforms; removed when the JVM exits
+                    file.toFile().deleteOnExit();
+                }
+            }
+        }
+    }
+
+    /**
+     * Incremental builder of an off-heap record store.
+     */
+    public static final class Builder {
+        private final Path directory;
+        private final Region slots;
+        private final Region arena;
+        private final Region refs;
+        private final Region authorOffsets;
+        private final Map<String, Integer> authorOrdinals;
+        private int size;
+        private int refCount;
+
+        /**
+         * Creates a builder storing records in direct buffers.
+         *
+         * @param expectedSize Expected number of records; the builder grows past it
+         */
+        public Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 16);
+            this.directory = null;
+            this.slots = new Region(capacity * SLOT_BYTES);
+            this.arena = new Region(capacity * 16);
+            this.refs = new Region(capacity * 4);
+            this.authorOffsets = new Region(capacity);
+            this.authorOrdinals = new HashMap<>();
+        }
+
+        /**
+         * Creates a builder storing records in buffers mapped onto temporary
+         * files of a directory. The files are deleted when the store is closed.
+         *
+         * @param expectedSize Expected number of records; the builder grows past it
+         * @param directory    Directory of the temporary files
+         * @throws IOException If the temporary files cannot be created
+         */
+        public Builder(int expectedSize, Path directory) throws IOException {
+            int capacity = Math.max(expectedSize, 16);
+            this.directory = directory;
+            this.slots = new Region(directory, "slots", capacity * SLOT_BYTES);
+            this.arena = new Region(directory, "arena", capacity * 16);
+            this.refs = new Region(directory, "authorRefs", capacity * 4);
+            this.authorOffsets = new Region(directory, "authorIds", capacity);
+            this.authorOrdinals = new HashMap<>();
+        }
+
+        /**
+         * Appends a record.
+         *
+         * @param id      Record id, or null
+         * @param rank    Bestseller rank
+         * @param price   Price, or NaN if unknown
+         * @param rating  Average rating, or NaN if unknown
+         * @param authors Author ids, or null
+         * @return This builder
+         * @throws UncheckedIOException If a mapped column cannot be grown
+         */
+        public Builder add(String id, int rank, float price, float rating, List<String> authors) {
+            int authorStart = refCount;
+            int authorCount = 0;
+            if (authors != null) {
+                for (String authorId : authors) {
+                    int ordinal = intern(authorId);
+                    int offset = refs.reserve(4);
+                    refs.buffer.putInt(offset, ordinal);
+                    authorCount++;
+                }
+            }
+            refCount += authorCount;
+
+            int idOffset = arena.writeString(id);
+            int slot = slots.reserve(SLOT_BYTES);
+            ByteBuffer buffer = slots.buffer;
+            buffer.putInt(slot + RANK, rank);
+            buffer.putFloat(slot + PRICE, price);
+            buffer.putFloat(slot + RATING, rating);
+            buffer.putInt(slot + ID_OFFSET, idOffset);
+            buffer.putInt(slot + AUTHOR_START, authorStart);
+            buffer.putInt(slot + AUTHOR_COUNT, authorCount);
+            size++;
+            return this;
+        }
+
+        /**
+         * Gets the ordinal of an author id, assigning the next one if new.
+         */
+        private int intern(String authorId) {
+            Integer ordinal = authorOrdinals.get(authorId);
+            if (ordinal == null) {
+                ordinal = authorOrdinals.size();
+                int idOffset = arena.writeString(authorId);
+                int offset = authorOffsets.reserve(4);
+                authorOffsets.buffer.putInt(offset, idOffset);
+                authorOrdinals.put(authorId, ordinal);
+            }
+            return ordinal;
+        }
+
+        /**
+         * Builds the store, with positions in load order. The builder must not
+         * be used afterwards.
+         *
+         * @return Record store
+         * @throws UncheckedIOException If the order column cannot be created
+         */
+        public OffHeapRecordStore build() {
+            int capacity = Math.max(size, 1) * 4;
+            Region order;
+            if (directory == null) {
+                order = new Region(capacity);
+            } else {
+                try {
+                    order = new Region(directory, "order", capacity);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                order.buffer.putInt(i << 2, i);
+            }
+            return new OffHeapRecordStore(this, order);
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.bookdepository.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar (structure-of-arrays) store of book records.
+ *
+ * Ranks, prices, ratings and author references live in primitive arrays, and
+ * author ids are interned into dense int ordinals, so a record costs a few
+ * dozen bytes instead of a full object graph. {@link Record} objects are only
+ * built on demand by {@link #getRecord(int)}.
+ *
+ * Records are addressed by position. Sorting reorders positions with
+ * {@link #swap(int, int)}, which moves only the rank and a row number: the
+ * rank column is kept in position order so comparisons scan one int array,
+ * and the other columns are reached through the row number.
+ */
+public final class RecordStore implements ColumnarRecords {
+    private final int size;
+    private final int[] ranks;
+    private final int[] rows;
+    private final float[] prices;
+    private final float[] ratings;
+    private final String[] ids;
+    private final int[] authorStarts;
+    private final int[] authorRefs;
+    private final String[] authorIds;
+    private final Map<String, Integer> authorOrdinals;
+
+    private RecordStore(Builder builder) {
+        this.size = builder.size;
+        this.ranks = Arrays.copyOf(builder.ranks, size);
+        this.rows = new int[size];
+        for (int i = 0; i < size; i++) {
+            rows[i] = i;
+        }
+        this.prices = Arrays.copyOf(builder.prices, size);
+        this.ratings = Arrays.copyOf(builder.ratings, size);
+        this.ids = Arrays.copyOf(builder.ids, size);
+        this.authorStarts = Arrays.copyOf(builder.authorStarts, size + 1);
+        this.authorRefs = Arrays.copyOf(builder.authorRefs, builder.refCount);
+        this.authorIds = builder.authorIds.toArray(new String[0]);
+        this.authorOrdinals = builder.authorOrdinals;
+    }
+
+    /**
+     * Builds a store from record objects. Prices and ratings, which Record
+     * does not carry, are stored as NaN.
+     *
+     * @param records Records, in order
+     * @return Record store
+     */
+    public static RecordStore fromRecords(List<Record> records) {
+        Builder builder = new Builder(records.size());
+        for (Record record : records) {
+            builder.add(record.getId(), record.getBestsellersRank(), Float.NaN, Float.NaN, record.getAuthors());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Gets the number of records.
+     *
+     * @return Number of records
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the bestseller rank of the record at a position.
+     *
+     * @param position Record position
+     * @return Rank
+     */
+    @Override
+    public int getRank(int position) {
+        return ranks[position];
+    }
+
+    /**
+     * Gets the price of the record at a position.
+     *
+     * @param position Record position
+     * @return Price, or NaN if unknown
+     */
+    @Override
+    public float getPrice(int position) {
+        return prices[rows[position]];
+    }
+
+    /**
+     * Gets the average rating of the record at a position.
+     *
+     * @param position Record position
+     * @return Rating, or NaN if unknown
+     */
+    @Override
+    public float getRating(int position) {
+        return ratings[rows[position]];
+    }
+
+    /**
+     * Gets the id of the record at a position.
+     *
+     * @param position Record position
+     * @return Record id, or null if not stored
+     */
+    @Override
+    public String getId(int position) {
+        return ids[rows[position]];
+    }
+
+    /**
+     * Gets the number of authors of the record at a position.
+     *
+     * @param position Record position
+     * @return Number of authors
+     */
+    @Override
+    public int getAuthorCount(int position) {
+        int row = rows[position];
+        return authorStarts[row + 1] - authorStarts[row];
+    }
+
+    /**
+     * Gets an author ordinal of the record at a position.
+     *
+     * @param position Record position
+     * @param k        Index of the author within the record
+     * @return Author ordinal
+     */
+    @Override
+    public int getAuthorOrdinal(int position, int k) {
+        return authorRefs[authorStarts[rows[position]] + k];
+    }
+
+    /**
+     * Gets the author ordinals of every record, in load order and with
+     * repetitions: one entry per record-author pair. Counting authors is a
+     * single scan over this array. The array is shared, not copied.
+     *
+     * @return Author ordinal of every record-author pair
+     */
+    public int[] getAuthorReferences() {
+        return authorRefs;
+    }
+
+    @Override
+    public int getAuthorReferenceCount() {
+        return authorRefs.length;
+    }
+
+    @Override
+    public int getAuthorReference(int index) {
+        return authorRefs[index];
+    }
+
+    /**
+     * Gets the number of distinct author ids.
+     *
+     * @return Number of author ordinals
+     */
+    @Override
+    public int getDistinctAuthorCount() {
+        return authorIds.length;
+    }
+
+    /**
+     * Gets the author id of an ordinal.
+     *
+     * @param ordinal Author ordinal
+     * @return Author id
+     */
+    @Override
+    public String getAuthorId(int ordinal) {
+        return authorIds[ordinal];
+    }
+
+    /**
+     * Gets the ordinal of an author id.
+     *
+     * @param authorId Author id
+     * @return Author ordinal, or -1 if no record has this author
+     */
+    @Override
+    public int ordinalOf(String authorId) {
+        Integer ordinal = authorOrdinals.get(authorId);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /**
+     * Builds a Record view of the record at a position, with id, rank and authors.
+     *
+     * @param position Record position
+     * @return New record
+     */
+    @Override
+    public Record getRecord(int position) {
+        int row = rows[position];
+        Record record = new Record();
+        record.setId(ids[row]);
+        record.setBestsellersRank(ranks[position]);
+        List<String> authors = new ArrayList<>(authorStarts[row + 1] - authorStarts[row]);
+        for (int i = authorStarts[row]; i < authorStarts[row + 1]; i++) {
+            authors.add(authorIds[authorRefs[i]]);
+        }
+        record.setAuthors(authors);
+        return record;
+    }
+
+    /**
+     * Swaps the records at two positions.
+     *
+     * @param i First position
+     * @param j Second position
+     */
+    @Override
+    public void swap(int i, int j) {
+        int rank = ranks[i];
+        ranks[i] = ranks[j];
+        ranks[j] = rank;
+        int row = rows[i];
+        rows[i] = rows[j];
+        rows[j] = row;
+    }
+
+    /**
+     * Incremental builder of a record store.
+     */
+    public static final class Builder {
+        private int size;
+        private int[] ranks;
+        private float[] prices;
+        private float[] ratings;
+        private String[] ids;
+        private int[] authorStarts;
+        private int[] authorRefs;
+        private int refCount;
+        private final List<String> authorIds;
+        private final Map<String, Integer> authorOrdinals;
+
+        /**
+         * Creates a builder.
+         *
+         * @param expectedSize Expected number of records; the builder grows past it
+         */
+        public Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 16);
+            this.size = 0;
+            this.ranks = new int[capacity];
+            this.prices = new float[capacity];
+            this.ratings = new float[capacity];
+            this.ids = new String[capacity];
+            this.authorStarts = new int[capacity + 1];
+            this.authorRefs = new int[capacity];
+            this.refCount = 0;
+            this.authorIds = new ArrayList<>();
+            this.authorOrdinals = new HashMap<>();
+        }
+
+        /**
+         * Appends a record.
+         *
+         * @param id      Record id, or null
+         * @param rank    Bestseller rank
+         * @param price   Price, or NaN if unknown
+         * @param rating  Average rating, or NaN if unknown
+         * @param authors Author ids, or null
+         * @return This builder
+         */
+        public Builder add(String id, int rank, float price, float rating, List<String> authors) {
+            if (size == ranks.length) {
+                int capacity = 2 * size;
+                ranks = Arrays.copyOf(ranks, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+                ratings = Arrays.copyOf(ratings, capacity);
+                ids = Arrays.copyOf(ids, capacity);
+                authorStarts = Arrays.copyOf(authorStarts, capacity + 1);
+            }
+            ranks[size] = rank;
+            prices[size] = price;
+            ratings[size] = rating;
+            ids[size] = id;
+            authorStarts[size] = refCount;
+
+            for (String authorId : authors == null ? Collections.<String>emptyList() : authors) {
+                if (refCount == authorRefs.length) {
+                    authorRefs = Arrays.copyOf(authorRefs, 2 * refCount);
+                }
+                authorRefs[refCount++] = intern(authorId);
+            }
+
+            size++;
+            authorStarts[size] = refCount;
+            return this;
+        }
+
+        /**
+         * Gets the ordinal of an author id, assigning the next one if new.
+         */
+        private int intern(String authorId) {
+            Integer ordinal = authorOrdinals.get(authorId);
+            if (ordinal == null) {
+                ordinal = authorIds.size();
+                authorIds.add(authorId);
+                authorOrdinals.put(authorId, ordinal);
+            }
+            return ordinal;
+        }
+
+        /**
+         * Builds the store. The builder must not be used afterwards.
+         *
+         * @return Record store
+         */
+        public RecordStore build() {
+            return new RecordStore(this);
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package com.bookdepository.structures.hashtable;
+
+import com.bookdepository.model.Author;
+import com.bookdepository.model.ColumnarRecords;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Author frequency table keyed by author ordinal.
+ *
+ * Author ids are interned into dense int ordinals when the records are loaded
+ * (see {@link ColumnarRecords}), so counting an occurrence hashes one int
+ * instead of a String and compares ints instead of ids. Ordinals and counts
+ * live in two parallel int arrays with linear probing; nothing is allocated
+ * or boxed per occurrence. Author objects are only built once, when the
+ * counted authors are read back with {@link #getAllAuthors(ColumnarRecords, Map)}.
+ *
+ * When the table outgrows its capacity it moves every entry into arrays twice
+ * as large in one go. With incremental resizing it instead allocates the new
+ * arrays and moves {@link #MIGRATION_STEP} old slots on each later update,
+ * looking ordinals up in the new arrays and then in the old ones until the
+ * move is done, so no single update pays for the whole table.
+ */
+public class AuthorFrequencyTable implements MeteredTable {
+    /**
+     * Number of old slots moved by each update during an incremental resize.
+     * Moving more than 2 slots per update finishes the move before the new
+     * arrays fill up.
+     */
+    public static final int MIGRATION_STEP = 8;
+
+    private static final int EMPTY = -1;
+    private static final double MAX_LOAD_FACTOR = 0.5;
+
+    private final boolean incrementalResize;
+    private int[] keys;
+    private int[] counts;
+    private int mask;
+    private int size;
+    private int used;
+    private int[] oldKeys;
+    private int[] oldCounts;
+    private int oldMask;
+    private int migrated;
+    private HashTableMetrics metrics;
+
+    /**
+     * Creates a table that resizes in one go.
+     *
+     * @param expectedAuthors Expected number of distinct authors; the table grows past it
+     */
+    public AuthorFrequencyTable(int expectedAuthors) {
+        this(expectedAuthors, false);
+    }
+
+    /**
+     * Creates a table.
+     *
+     * @param expectedAuthors   Expected number of distinct authors; the table grows past it
+     * @param incrementalResize Whether to spread resizes over the following updates
+     */
+    public AuthorFrequencyTable(int expectedAuthors, boolean incrementalResize) {
+        this.incrementalResize = incrementalResize;
+        long needed = (long) Math.ceil(Math.max(expectedAuthors, 1) / MAX_LOAD_FACTOR);
+        int capacity = 16;
+        while (capacity < needed && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        counts = new int[capacity];
+        mask = capacity - 1;
+        used = 0;
+    }
+
+    /**
+     * Spreads the bits of an ordinal so that consecutive ordinals do not
+     * fill consecutive slots.
+     */
+    private static int slot(int ordinal, int mask) {
+        int h = ordinal * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Counts one occurrence of an author.
+     *
+     * @param ordinal Author ordinal
+     */
+    public void increment(int ordinal) {
+        add(ordinal, 1);
+    }
+
+    /**
+     * Adds occurrences of an author.
+     *
+     * @param ordinal Author ordinal
+     * @param delta   Number of occurrences to add
+     */
+    public void add(int ordinal, int delta) {
+        if (ordinal < 0) {
+            throw new IllegalArgumentException("Author ordinal must not be negative: " + ordinal);
+        }
+        if (oldKeys != null) {
+            migrate(MIGRATION_STEP);
+        }
+        int i = slot(ordinal, mask);
+        int probed = 1;
+        while (keys[i] != EMPTY && keys[i] != ordinal) {
+            i = (i + 1) & mask;
+            probed++;
+        }
+        if (metrics != null) {
+            metrics.recordProbe(probed);
+        }
+        if (keys[i] == ordinal) {
+            counts[i] += delta;
+            return;
+        }
+        if (oldKeys != null) {
+            // Not moved yet: count it where it is, it is moved with its count
+            int j = findOld(ordinal);
+            if (j >= 0) {
+                oldCounts[j] += delta;
+                return;
+            }
+        }
+        keys[i] = ordinal;
+        counts[i] = delta;
+        size++;
+        used++;
+        if (used > keys.length * MAX_LOAD_FACTOR) {
+            resize();
+        }
+    }
+
+    /**
+     * Finds the slot of an ordinal in the arrays being moved.
+     *
+     * @return Slot index, or -1 if the ordinal is not there
+     */
+    private int findOld(int ordinal) {
+        int j = slot(ordinal, oldMask);
+        while (oldKeys[j] != EMPTY) {
+            if (oldKeys[j] == ordinal) {
+                return j;
+            }
+            j = (j + 1) & oldMask;
+        }
+        return -1;
+    }
+
+    /**
+     * Doubles the capacity. Every entry is moved right away, or over the
+     * following updates with incremental resizing.
+     */
+    private void resize() {
+        long start = System.nanoTime();
+        completeResize();
+        oldKeys = keys;
+        oldCounts = counts;
+        oldMask = mask;
+        migrated = 0;
+        allocate(oldKeys.length << 1);
+        if (!incrementalResize) {
+            completeResize();
+        }
+        if (metrics != null) {
+            metrics.recordResize(start, oldMask + 1, keys.length, size);
+        }
+    }
+
+    /**
+     * Moves old slots into the current arrays.
+     *
+     * @param slots Maximum number of old slots to move
+     */
+    private void migrate(int slots) {
+        int end = Math.min(oldKeys.length, migrated + slots);
+        for (; migrated < end; migrated++) {
+            int key = oldKeys[migrated];
+            if (key != EMPTY) {
+                // Absent from the current arrays: updates go to the old slot until it moves
+                int j = slot(key, mask);
+                while (keys[j] != EMPTY) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = key;
+                counts[j] = oldCounts[migrated];
+                used++;
+            }
+        }
+        if (migrated == oldKeys.length) {
+            oldKeys = null;
+            oldCounts = null;
+        }
+    }
+
+    /**
+     * Finishes a pending incremental resize.
+     */
+    private void completeResize() {
+        if (oldKeys != null) {
+            migrate(oldKeys.length);
+        }
+    }
+
+    /**
+     * Checks whether an incremental resize is still moving entries.
+     *
+     * @return True while entries remain in the old arrays
+     */
+    public boolean isResizing() {
+        return oldKeys != null;
+    }
+
+    /**
+     * Gets the number of slots of the current arrays.
+     *
+     * @return Capacity
+     */
+    @Override
+    public int capacity() {
+        return keys.length;
+    }
+
+    @Override
+    public void setMetrics(HashTableMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public HashTableMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * {@inheritDoc} A pending incremental resize is finished first.
+     */
+    @Override
+    public double getLoadFactor() {
+        completeResize();
+        return (double) size / keys.length;
+    }
+
+    /**
+     * {@inheritDoc} A pending incremental resize is finished first.
+     */
+    @Override
+    public ProbeHistogram getClusterHistogram() {
+        completeResize();
+        return ProbeHistogram.ofClusters(keys.length, i -> keys[i] != EMPTY);
+    }
+
+    /**
+     * {@inheritDoc} Arrays of a pending incremental resize are included.
+     */
+    @Override
+    public long getMemoryBytes() {
+        return 8L * keys.length + (oldKeys == null ? 0 : 8L * oldKeys.length);
+    }
+
+    /**
+     * Counts every author occurrence of a columnar store.
+     *
+     * @param store Record store
+     */
+    public void countAll(ColumnarRecords store) {
+        countRange(store, 0, store.getAuthorReferenceCount());
+    }
+
+    /**
+     * Counts the author occurrences of a range of a columnar store's author
+     * references.
+     *
+     * @param store Record store
+     * @param from  First reference index, inclusive
+     * @param to    Last reference index, exclusive
+     */
+    public void countRange(ColumnarRecords store, int from, int to) {
+        for (int i = from; i < to; i++) {
+            increment(store.getAuthorReference(i));
+        }
+    }
+
+    /**
+     * Adds every frequency of another table to this one.
+     *
+     * @param other Table to merge in; its counts are left unchanged
+     */
+    public void addAll(AuthorFrequencyTable other) {
+        other.completeResize();
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.keys[i] != EMPTY) {
+                add(other.keys[i], other.counts[i]);
+            }
+        }
+    }
+
+    /**
+     * Gets the frequency of an author.
+     *
+     * @param ordinal Author ordinal
+     * @return Number of occurrences counted, or 0 if the author was never counted
+     */
+    public int getFrequency(int ordinal) {
+        if (ordinal < 0) {
+            return 0;
+        }
+        int i = slot(ordinal, mask);
+        int probed = 1;
+        while (keys[i] != EMPTY && keys[i] != ordinal) {
+            i = (i + 1) & mask;
+            probed++;
+        }
+        if (metrics != null) {
+            metrics.recordProbe(probed);
+        }
+        if (keys[i] == ordinal) {
+            return counts[i];
+        }
+        if (oldKeys != null) {
+            int j = findOld(ordinal);
+            if (j >= 0) {
+                return oldCounts[j];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the number of distinct authors counted.
+     *
+     * @return Number of authors
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the ordinals of every counted author, in ascending order.
+     *
+     * @return Author ordinals
+     */
+    public int[] getOrdinals() {
+        completeResize();
+        int[] ordinals = new int[size];
+        int n = 0;
+        for (int key : keys) {
+            if (key != EMPTY) {
+                ordinals[n++] = key;
+            }
+        }
+        Arrays.sort(ordinals);
+        return ordinals;
+    }
+
+    /**
+     * Builds an Author for every counted author known to the author map,
+     * with its counted frequency. The authors of the map are not modified.
+     *
+     * Authors come in ordinal order, which is the order of their first
+     * occurrence in the store. That is the tie order every counting path of
+     * HashTableExperiment hands to {@link TopAuthors}, so authors with equal
+     * frequencies are cut at the top N the same way on every path.
+     *
+     * @param store     Record store whose ordinals were counted
+     * @param authorMap Authors by id; ids missing from it are skipped
+     * @return Counted authors with their frequencies, in first-occurrence order
+     */
+    public List<Author> getAllAuthors(ColumnarRecords store, Map<String, Author> authorMap) {
+        List<Author> authors = new ArrayList<>(size);
+        for (int ordinal : getOrdinals()) {
+            String authorId = store.getAuthorId(ordinal);
+            if (authorId == null || authorId.isEmpty()) {
+                continue;
+            }
+            Author known = authorMap.get(authorId);
+            if (known != null) {
+                Author author = new Author(known.getId(), known.getName());
+                author.setFrequency(getFrequency(ordinal));
+                authors.add(author);
+            }
+        }
+        return authors;
+    }
+}
@@ -0,0 +1,383 @@
+package com.bookdepository.structures.hashtable;
+
+import com.bookdepository.model.Record;
+
+/**
+ * Record table using open addressing with double hashing.
+ *
+ * A key's probe sequence starts at its home slot and advances by a second,
+ * key-dependent odd step, so colliding keys follow different paths. Removed
+ * records leave a tombstone that lookups skip and inserts reuse. This is the
+ * probing scheme of RecordHashTable, kept as the baseline that
+ * {@link RobinHoodRecordTable} is measured against.
+ *
+ * With incremental resizing, a growing table allocates its new arrays and
+ * moves {@link #MIGRATION_STEP} old slots on each later put or remove. Until
+ * the move is done, ids are looked up in the new arrays and then in the old
+ * ones; a moved slot is left as a tombstone, so a record removed after its
+ * move is not found again in the old arrays.
+ */
+public class DoubleHashingRecordTable implements RecordTable {
+    /**
+     * Default maximum share of slots holding records or tombstones.
+     */
+    public static final double DEFAULT_MAX_LOAD_FACTOR = 0.75;
+
+    /**
+     * Number of old slots moved by each put or remove during an incremental resize.
+     */
+    public static final int MIGRATION_STEP = 8;
+
+    private static final String DELETED = new String("<deleted>");
+
+    private final double maxLoadFactor;
+    private final boolean incrementalResize;
+    private final HashFunction hashFunction;
+    private String[] keys;
+    private Record[] values;
+    private int mask;
+    private int size;
+    private int deleted;
+    private String[] oldKeys;
+    private Record[] oldValues;
+    private int oldMask;
+    private int migrated;
+    private int probed;
+    private HashTableMetrics metrics;
+
+    /**
+     * Creates a table with the default maximum load factor.
+     *
+     * @param expectedSize Expected number of records; the table grows past it
+     */
+    public DoubleHashingRecordTable(int expectedSize) {
+        this(expectedSize, DEFAULT_MAX_LOAD_FACTOR);
+    }
+
+    /**
+     * Creates a table that resizes in one go.
+     *
+     * @param expectedSize  Expected number of records; the table grows past it
+     * @param maxLoadFactor Share of slots in use above which the table grows
+     */
+    public DoubleHashingRecordTable(int expectedSize, double maxLoadFactor) {
+        this(expectedSize, maxLoadFactor, false);
+    }
+
+    /**
+     * Creates a table.
+     *
+     * @param expectedSize      Expected number of records; the table grows past it
+     * @param maxLoadFactor     Share of slots in use above which the table grows
+     * @param incrementalResize Whether to spread resizes over the following updates
+     */
+    public DoubleHashingRecordTable(int expectedSize, double maxLoadFactor, boolean incrementalResize) {
+        this(expectedSize, maxLoadFactor, incrementalResize, StandardHashFunction.STRING_HASH_CODE);
+    }
+
+    /**
+     * Creates a table with a given hash function.
+     *
+     * @param expectedSize      Expected number of records; the table grows past it
+     * @param maxLoadFactor     Share of slots in use above which the table grows
+     * @param incrementalResize Whether to spread resizes over the following updates
+     * @param hashFunction      Hash function of record ids
+     */
+    public DoubleHashingRecordTable(int expectedSize, double maxLoadFactor, boolean incrementalResize,
+                                    HashFunction hashFunction) {
+        if (!(maxLoadFactor > 0 && maxLoadFactor < 1)) {
+            throw new IllegalArgumentException("Load factor must be between 0 and 1: " + maxLoadFactor);
+        }
+        this.maxLoadFactor = maxLoadFactor;
+        this.incrementalResize = incrementalResize;
+        this.hashFunction = hashFunction;
+        allocate(capacityFor(expectedSize, maxLoadFactor));
+    }
+
+    /**
+     * Gets the smallest power of two holding a number of records under a load factor.
+     */
+    static int capacityFor(int expectedSize, double maxLoadFactor) {
+        long needed = (long) Math.ceil(Math.max(expectedSize, 1) / maxLoadFactor);
+        int capacity = 16;
+        while (capacity < needed && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Spreads the high bits of a hash code into the low ones, which select the slot.
+     */
+    static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private int hash(String key) {
+        return spread(hashFunction.hash(key));
+    }
+
+    private void allocate(int capacity) {
+        keys = new String[capacity];
+        values = new Record[capacity];
+        mask = capacity - 1;
+        deleted = 0;
+    }
+
+    /**
+     * Gets the probe step of a hash: odd, so the sequence visits every slot.
+     */
+    private static int step(int h, int mask) {
+        return ((h >>> 7) * 2 + 1) & mask;
+    }
+
+    /**
+     * Finds the slot of a key.
+     *
+     * @return Slot index, or -1 if the key is not stored; the slots probed are left in probed
+     */
+    private int find(String[] keys, int mask, String id) {
+        int h = hash(id);
+        int i = h & mask;
+        int step = step(h, mask);
+        probed = 1;
+        while (keys[i] != null) {
+            if (keys[i] != DELETED && keys[i].equals(id)) {
+                return i;
+            }
+            i = (i + step) & mask;
+            probed++;
+        }
+        return -1;
+    }
+
+    /**
+     * Places a key known to be absent in the first free slot of its probe
+     * sequence in the current arrays.
+     */
+    private void place(String id, Record record) {
+        int h = hash(id);
+        int i = h & mask;
+        int step = step(h, mask);
+        while (keys[i] != null && keys[i] != DELETED) {
+            i = (i + step) & mask;
+        }
+        if (keys[i] == DELETED) {
+            deleted--;
+        }
+        keys[i] = id;
+        values[i] = record;
+    }
+
+    @Override
+    public Record put(Record record) {
+        String id = record.getId();
+        if (id == null) {
+            throw new IllegalArgumentException("Record id must not be null");
+        }
+        if (oldKeys != null) {
+            migrate(MIGRATION_STEP);
+        }
+        int found = find(keys, mask, id);
+        if (metrics != null) {
+            metrics.recordProbe(probed);
+        }
+        if (found >= 0) {
+            Record previous = values[found];
+            values[found] = record;
+            return previous;
+        }
+        if (oldKeys != null) {
+            // Not moved yet: replace it where it is, it is moved with its record
+            int old = find(oldKeys, oldMask, id);
+            if (old >= 0) {
+                Record previous = oldValues[old];
+                oldValues[old] = record;
+                return previous;
+            }
+        }
+        if (size + deleted + 1 > (keys.length * maxLoadFactor)) {
+            completeResize();
+            if (size + deleted + 1 > (keys.length * maxLoadFactor)) {
+                // Grow, or only clear the tombstones if they take most of the space
+                resize(size + 1 > keys.length * maxLoadFactor / 2 ? keys.length << 1 : keys.length);
+            }
+        }
+        place(id, record);
+        size++;
+        return null;
+    }
+
+    @Override
+    public Record get(String id) {
+        int i = find(keys, mask, id);
+        if (metrics != null) {
+            metrics.recordProbe(probed);
+        }
+        if (i >= 0) {
+            return values[i];
+        }
+        if (oldKeys != null) {
+            int old = find(oldKeys, oldMask, id);
+            if (old >= 0) {
+                return oldValues[old];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Record remove(String id) {
+        if (oldKeys != null) {
+            migrate(MIGRATION_STEP);
+        }
+        int i = find(keys, mask, id);
+        if (metrics != null) {
+            metrics.recordProbe(probed);
+        }
+        if (i >= 0) {
+            Record previous = values[i];
+            keys[i] = DELETED;
+            values[i] = null;
+            size--;
+            deleted++;
+            return previous;
+        }
+        if (oldKeys != null) {
+            int old = find(oldKeys, oldMask, id);
+            if (old >= 0) {
+                Record previous = oldValues[old];
+                oldKeys[old] = DELETED;
+                oldValues[old] = null;
+                size--;
+                return previous;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Moves every record into new arrays, right away, or over the following
+     * updates with incremental resizing.
+     */
+    private void resize(int capacity) {
+        long start = System.nanoTime();
+        int fromCapacity = keys.length;
+        oldKeys = keys;
+        oldValues = values;
+        oldMask = mask;
+        migrated = 0;
+        allocate(capacity);
+        if (!incrementalResize) {
+            completeResize();
+        }
+        if (metrics != null) {
+            metrics.recordResize(start, fromCapacity, capacity, size);
+        }
+    }
+
+    /**
+     * Moves old slots into the current arrays.
+     *
+     * @param slots Maximum number of old slots to move
+     */
+    private void migrate(int slots) {
+        int end = Math.min(oldKeys.length, migrated + slots);
+        for (; migrated < end; migrated++) {
+            String key = oldKeys[migrated];
+            if (key != null && key != DELETED) {
+                place(key, oldValues[migrated]);
+                oldKeys[migrated] = DELETED;
+                oldValues[migrated] = null;
+            }
+        }
+        if (migrated == oldKeys.length) {
+            oldKeys = null;
+            oldValues = null;
+        }
+    }
+
+    /**
+     * Finishes a pending incremental resize.
+     */
+    private void completeResize() {
+        if (oldKeys != null) {
+            migrate(oldKeys.length);
+        }
+    }
+
+    /**
+     * Checks whether an incremental resize is still moving records.
+     *
+     * @return True while records remain in the old arrays
+     */
+    public boolean isResizing() {
+        return oldKeys != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int capacity() {
+        return keys.length;
+    }
+
+    @Override
+    public double getLoadFactor() {
+        return (double) size / keys.length;
+    }
+
+    /**
+     * {@inheritDoc} A pending incremental resize is finished first.
+     */
+    @Override
+    public ProbeHistogram getProbeHistogram() {
+        completeResize();
+        ProbeHistogram histogram = new ProbeHistogram();
+        for (String key : keys) {
+            if (key != null && key != DELETED) {
+                int h = hash(key);
+                int i = h & mask;
+                int step = step(h, mask);
+                int length = 1;
+                while (!key.equals(keys[i])) {
+                    i = (i + step) & mask;
+                    length++;
+                }
+                histogram.add(length);
+            }
+        }
+        return histogram;
+    }
+
+    @Override
+    public void setMetrics(HashTableMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public HashTableMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * {@inheritDoc} Tombstones count as used. A pending incremental resize
+     * is finished first.
+     */
+    @Override
+    public ProbeHistogram getClusterHistogram() {
+        completeResize();
+        return ProbeHistogram.ofClusters(keys.length, i -> keys[i] != null);
+    }
+
+    /**
+     * {@inheritDoc} Arrays of a pending incremental resize are included.
+     */
+    @Override
+    public long getMemoryBytes() {
+        return 8L * keys.length + (oldKeys == null ? 0 : 8L * oldKeys.length);
+    }
+}
@@ -0,0 +1,19 @@
+package com.bookdepository.structures.hashtable;
+
+/**
+ * Hash function for the String keys of a hash table: author ids and record
+ * ids. Tables spread the high bits of the result into the low ones before
+ * using it, so a function only needs to differ across keys, not to be
+ * uniform in its low bits. {@link StandardHashFunction} has the functions
+ * benchmarked against each other.
+ */
+public interface HashFunction {
+
+    /**
+     * Hashes a key.
+     *
+     * @param key Key, not null
+     * @return Hash
+     */
+    int hash(String key);
+}
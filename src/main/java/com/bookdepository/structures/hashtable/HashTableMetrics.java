@@ -0,0 +1,199 @@
+package com.bookdepository.structures.hashtable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Probe and resize counters of a hash table.
+ *
+ * A table given a metrics object records the probe length of every
+ * operation and every resize it makes. Counters are striped LongAdders, so
+ * tables updated from several threads, such as the per-task tables of a
+ * {@link ParallelAuthorCounter}, can share one metrics object without
+ * contending. Figures that depend on what the table holds, such as its
+ * load factor and clusters, come from the table itself (see {@link MeteredTable}).
+ */
+public final class HashTableMetrics {
+    private final long createdNanos;
+    private final LongAdder operations;
+    private final LongAdder probes;
+    private final LongAdder collisions;
+    private final LongAccumulator maxProbe;
+    private final List<ResizeEvent> resizes;
+
+    /**
+     * Creates metrics with every counter at 0.
+     */
+    public HashTableMetrics() {
+        this.createdNanos = System.nanoTime();
+        this.operations = new LongAdder();
+        this.probes = new LongAdder();
+        this.collisions = new LongAdder();
+        this.maxProbe = new LongAccumulator(Math::max, 0);
+        this.resizes = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Records one operation.
+     *
+     * @param length Number of slots probed, at least 1; more than 1 counts as a collision
+     */
+    public void recordProbe(int length) {
+        operations.increment();
+        probes.add(length);
+        if (length > 1) {
+            collisions.increment();
+        }
+        maxProbe.accumulate(length);
+    }
+
+    /**
+     * Records a resize.
+     *
+     * @param startNanos   System.nanoTime() when the resize started
+     * @param fromCapacity Slots before the resize
+     * @param toCapacity   Slots after the resize
+     * @param size         Entries held when the resize started
+     */
+    public void recordResize(long startNanos, int fromCapacity, int toCapacity, int size) {
+        long now = System.nanoTime();
+        resizes.add(new ResizeEvent(startNanos - createdNanos, now - startNanos, fromCapacity, toCapacity, size));
+    }
+
+    /**
+     * Gets the number of operations recorded.
+     *
+     * @return Number of operations
+     */
+    public long getOperations() {
+        return operations.sum();
+    }
+
+    /**
+     * Gets the total number of slots probed.
+     *
+     * @return Number of probes
+     */
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    /**
+     * Gets the mean probe length.
+     *
+     * @return Mean, or 0 if no operation was recorded
+     */
+    public double getMeanProbe() {
+        long count = operations.sum();
+        return count == 0 ? 0.0 : (double) probes.sum() / count;
+    }
+
+    /**
+     * Gets the longest probe length recorded.
+     *
+     * @return Maximum, or 0 if no operation was recorded
+     */
+    public long getMaxProbe() {
+        return maxProbe.get();
+    }
+
+    /**
+     * Gets the number of operations whose home slot held another key.
+     *
+     * @return Number of collisions
+     */
+    public long getCollisions() {
+        return collisions.sum();
+    }
+
+    /**
+     * Gets the resizes recorded, oldest first.
+     *
+     * @return Resize events
+     */
+    public List<ResizeEvent> getResizes() {
+        return new ArrayList<>(resizes);
+    }
+
+    /**
+     * Gets the time spent in resizes.
+     *
+     * @return Total duration in nanoseconds
+     */
+    public long getResizeNanos() {
+        long total = 0;
+        for (ResizeEvent resize : resizes) {
+            total += resize.getDurationNanos();
+        }
+        return total;
+    }
+
+    /**
+     * One resize of a table.
+     */
+    public static final class ResizeEvent {
+        private final long offsetNanos;
+        private final long durationNanos;
+        private final int fromCapacity;
+        private final int toCapacity;
+        private final int size;
+
+        ResizeEvent(long offsetNanos, long durationNanos, int fromCapacity, int toCapacity, int size) {
+            this.offsetNanos = offsetNanos;
+            this.durationNanos = durationNanos;
+            this.fromCapacity = fromCapacity;
+            this.toCapacity = toCapacity;
+            this.size = size;
+        }
+
+        /**
+         * Gets when the resize started, counted from the creation of the metrics.
+         *
+         * @return Offset in nanoseconds
+         */
+        public long getOffsetNanos() {
+            return offsetNanos;
+        }
+
+        /**
+         * Gets how long the operation that started the resize spent in it.
+         * With incremental resizing this is the allocation of the new arrays;
+         * the moves spread over later operations are not included.
+         *
+         * @return Duration in nanoseconds
+         */
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        /**
+         * Gets the number of slots before the resize.
+         *
+         * @return Capacity
+         */
+        public int getFromCapacity() {
+            return fromCapacity;
+        }
+
+        /**
+         * Gets the number of slots after the resize.
+         *
+         * @return Capacity
+         */
+        public int getToCapacity() {
+            return toCapacity;
+        }
+
+        /**
+         * Gets the number of entries held when the resize started.
+         *
+         * @return Size
+         */
+        public int getSize() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,449 @@
+package com.bookdepository.structures.hashtable;
+
+import com.bookdepository.model.Author;
+import com.bookdepository.model.Record;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Author frequencies maintained across dataset deltas.
+ *
+ * Records are added with {@link #insert(Record)} and removed with
+ * {@link #delete(Record)}, so a batch of new or withdrawn records updates the
+ * counts without reading the rest of the corpus again. The counts can be
+ * saved to a file and loaded by a later run.
+ *
+ * Author ids get an ordinal the first time they are counted, kept across
+ * saves; frequencies live in an {@link AuthorFrequencyTable}. Only authors of
+ * the author map are counted, as in HashTableExperiment.
+ *
+ * The top N is kept up to date as counts change: an increment can only move
+ * its author into or up the top N, so it is applied in place. A decrement of
+ * an author in the top N may let an unknown author in, so it marks the top N
+ * stale, and the next {@link #getTopAuthors()} selects it again from the
+ * frequency table. Authors with equal frequencies rank by ordinal, that is
+ * by the order they were first counted. On a first full count that is
+ * first-occurrence order, the tie order of every HashTableExperiment path
+ * (see {@link TopAuthors}), so a --state run keeps the same authors at the
+ * cut as a full recount. Records inserted later come after the counted
+ * ones, as they would in a recount. An author whose first occurrence is
+ * deleted keeps its place in the tie order. The slot of each author in the top N
+ * is indexed by ordinal, so an update finds its author without scanning the
+ * top N.
+ */
+public class IncrementalAuthorCounts {
+    /**
+     * Version of the state file layout.
+     */
+    public static final int VERSION = 1;
+
+    private static final int MAGIC = 0x42444146; // "BDAF"
+
+    private final Map<String, Author> authorMap;
+    private final int topN;
+    private final Map<String, Integer> ordinals;
+    private final List<String> authorIds;
+    private final AuthorFrequencyTable frequencies;
+    private final int[] top;
+    private int[] topPositions;
+    private int topSize;
+    private boolean topValid;
+    private int size;
+    private final Map<Integer, Integer> setAside;
+
+    /**
+     * Creates empty counts.
+     *
+     * @param authorMap Authors by id; ids missing from it are not counted
+     * @param topN      Number of top authors kept up to date
+     */
+    public IncrementalAuthorCounts(Map<String, Author> authorMap, int topN) {
+        if (topN < 0) {
+            throw new IllegalArgumentException("Top N must not be negative: " + topN);
+        }
+        this.authorMap = authorMap;
+        this.topN = topN;
+        this.ordinals = new HashMap<>();
+        this.authorIds = new ArrayList<>();
+        this.frequencies = new AuthorFrequencyTable(authorMap.size());
+        this.top = new int[topN];
+        this.topPositions = new int[16];
+        Arrays.fill(topPositions, -1);
+        this.topSize = 0;
+        this.topValid = true;
+        this.size = 0;
+        this.setAside = new HashMap<>();
+    }
+
+    /**
+     * Counts the authors of a new record.
+     *
+     * @param record Inserted record
+     */
+    public void insert(Record record) {
+        if (record.getAuthors() != null) {
+            for (String authorId : record.getAuthors()) {
+                add(authorId, 1);
+            }
+        }
+    }
+
+    /**
+     * Removes the authors of a withdrawn record from the counts.
+     *
+     * @param record Deleted record, counted before
+     * @throws IllegalArgumentException If an author of the record has no occurrence left to remove
+     */
+    public void delete(Record record) {
+        if (record.getAuthors() != null) {
+            for (String authorId : record.getAuthors()) {
+                add(authorId, -1);
+            }
+        }
+    }
+
+    /**
+     * Inserts every remaining record of an iterator.
+     *
+     * @param records Inserted records
+     * @return Number of records inserted
+     */
+    public int insertAll(Iterator<Record> records) {
+        int count = 0;
+        while (records.hasNext()) {
+            insert(records.next());
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Deletes every remaining record of an iterator.
+     *
+     * @param records Deleted records
+     * @return Number of records deleted
+     */
+    public int deleteAll(Iterator<Record> records) {
+        int count = 0;
+        while (records.hasNext()) {
+            delete(records.next());
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Adds occurrences of an author, ignoring ids unknown to the author map.
+     *
+     * @param authorId Author id
+     * @param delta    Occurrences to add, or to remove if negative
+     */
+    private void add(String authorId, int delta) {
+        if (authorId == null || authorId.isEmpty() || !authorMap.containsKey(authorId)) {
+            return;
+        }
+        Integer ordinal = ordinals.get(authorId);
+        if (ordinal == null) {
+            if (delta < 0) {
+                throw new IllegalArgumentException("Author " + authorId + " has no occurrence to delete");
+            }
+            ordinal = register(authorId);
+        }
+        int frequency = frequencies.getFrequency(ordinal);
+        if (frequency + delta < 0) {
+            throw new IllegalArgumentException("Author " + authorId + " has no occurrence to delete");
+        }
+        frequencies.add(ordinal, delta);
+        if (frequency == 0 && delta > 0) {
+            size++;
+        } else if (frequency > 0 && frequency + delta == 0) {
+            size--;
+        }
+        if (delta > 0) {
+            promote(ordinal);
+        } else if (delta < 0) {
+            demote(ordinal);
+        }
+    }
+
+    /**
+     * Gives an author id the next ordinal.
+     */
+    private int register(String authorId) {
+        int ordinal = authorIds.size();
+        authorIds.add(authorId);
+        ordinals.put(authorId, ordinal);
+        if (ordinal == topPositions.length) {
+            topPositions = Arrays.copyOf(topPositions, ordinal * 2);
+            Arrays.fill(topPositions, ordinal, topPositions.length, -1);
+        }
+        return ordinal;
+    }
+
+    /**
+     * Checks whether an author ranks before another one.
+     */
+    private boolean ranksBefore(int a, int b) {
+        int frequencyA = frequencies.getFrequency(a);
+        int frequencyB = frequencies.getFrequency(b);
+        return frequencyA != frequencyB ? frequencyA > frequencyB : a < b;
+    }
+
+    /**
+     * Puts an author in the top N: in a new slot while it has fewer than N
+     * authors, otherwise in place of the last one if it ranks before it.
+     *
+     * @return Slot of the author, or -1 if it stays out of the top N
+     */
+    private int enter(int ordinal) {
+        int i;
+        if (topSize < topN) {
+            i = topSize++;
+        } else if (ranksBefore(ordinal, top[topSize - 1])) {
+            i = topSize - 1;
+            topPositions[top[i]] = -1;
+        } else {
+            return -1;
+        }
+        top[i] = ordinal;
+        topPositions[ordinal] = i;
+        return i;
+    }
+
+    /**
+     * Swaps the authors of two slots of the top N.
+     */
+    private void swap(int i, int j) {
+        int ordinal = top[i];
+        top[i] = top[j];
+        top[j] = ordinal;
+        topPositions[top[i]] = i;
+        topPositions[top[j]] = j;
+    }
+
+    /**
+     * Updates the top N after an author's frequency grew.
+     */
+    private void promote(int ordinal) {
+        if (!topValid || topN == 0) {
+            return;
+        }
+        int i = topPositions[ordinal];
+        if (i < 0) {
+            // With fewer than N counted authors, every one of them is in the top
+            i = enter(ordinal);
+            if (i < 0) {
+                return;
+            }
+        }
+        while (i > 0 && ranksBefore(top[i], top[i - 1])) {
+            swap(i, i - 1);
+            i--;
+        }
+    }
+
+    /**
+     * Updates the top N after an author's frequency dropped.
+     */
+    private void demote(int ordinal) {
+        if (!topValid) {
+            return;
+        }
+        int i = topPositions[ordinal];
+        if (i < 0) {
+            return;
+        }
+        if (topSize == topN) {
+            // An author outside the top N may now rank higher
+            topValid = false;
+            return;
+        }
+        while (i + 1 < topSize && ranksBefore(top[i + 1], top[i])) {
+            swap(i, i + 1);
+            i++;
+        }
+        if (frequencies.getFrequency(top[topSize - 1]) == 0) {
+            topPositions[top[--topSize]] = -1;
+        }
+    }
+
+    /**
+     * Selects the top N again from the frequency table.
+     */
+    private void rebuildTop() {
+        for (int i = 0; i < topSize; i++) {
+            topPositions[top[i]] = -1;
+        }
+        topSize = 0;
+        for (int ordinal = 0; ordinal < authorIds.size() && topN > 0; ordinal++) {
+            if (frequencies.getFrequency(ordinal) == 0) {
+                continue;
+            }
+            int i = enter(ordinal);
+            if (i < 0) {
+                continue;
+            }
+            while (i > 0 && ranksBefore(top[i], top[i - 1])) {
+                swap(i, i - 1);
+                i--;
+            }
+        }
+        topValid = true;
+    }
+
+    /**
+     * Gets the top N authors with their frequencies.
+     *
+     * @return Up to N authors, most frequent first
+     */
+    public List<Author> getTopAuthors() {
+        if (!topValid) {
+            rebuildTop();
+        }
+        List<Author> authors = new ArrayList<>(topSize);
+        for (int i = 0; i < topSize; i++) {
+            Author known = authorMap.get(authorIds.get(top[i]));
+            Author author = new Author(known.getId(), known.getName());
+            author.setFrequency(frequencies.getFrequency(top[i]));
+            authors.add(author);
+        }
+        return authors;
+    }
+
+    /**
+     * Gets the frequency of an author.
+     *
+     * @param authorId Author id
+     * @return Number of occurrences counted
+     */
+    public int getFrequency(String authorId) {
+        Integer ordinal = ordinals.get(authorId);
+        return ordinal == null ? 0 : frequencies.getFrequency(ordinal);
+    }
+
+    /**
+     * Gets the number of authors with at least one occurrence.
+     *
+     * @return Number of authors
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of top authors kept up to date.
+     *
+     * @return N
+     */
+    public int getTopN() {
+        return topN;
+    }
+
+    /**
+     * Saves the counts. The file is written next to the target and moved
+     * over it, so an interrupted save leaves the previous state intact.
+     *
+     * @param file State file
+     * @throws IOException If the file cannot be written
+     */
+    public void save(Path file) throws IOException {
+        Path target = file.toAbsolutePath();
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            CRC32 crc = new CRC32();
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                DataOutputStream body = new DataOutputStream(new CheckedOutputStream(out, crc));
+                body.writeInt(authorIds.size());
+                for (int ordinal = 0; ordinal < authorIds.size(); ordinal++) {
+                    Integer saved = setAside.get(ordinal);
+                    body.writeUTF(authorIds.get(ordinal));
+                    body.writeInt(saved != null ? saved : frequencies.getFrequency(ordinal));
+                }
+                body.flush();
+                out.writeLong(crc.getValue());
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Loads counts saved by {@link #save(Path)}. Every saved author keeps its
+     * ordinal, and with it its place in the tie order. Saved authors missing
+     * from the author map are not counted, and their saved counts are kept
+     * aside and saved again unchanged, so a later run with an author map that
+     * lists them again finds them as they were.
+     *
+     * @param file      State file
+     * @param authorMap Authors by id; ids missing from it are not counted
+     * @param topN      Number of top authors kept up to date
+     * @return Counts
+     * @throws IOException If the file cannot be read, or is not a state file of this version, or is damaged
+     */
+    public static IncrementalAuthorCounts load(Path file, Map<String, Author> authorMap, int topN)
+            throws IOException {
+        IncrementalAuthorCounts counts = new IncrementalAuthorCounts(authorMap, topN);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not an author frequency state file: " + file);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported author frequency state version " + version + ": " + file);
+            }
+            CRC32 crc = new CRC32();
+            DataInputStream body = new DataInputStream(new CheckedInputStream(in, crc));
+            int authors = body.readInt();
+            if (authors < 0) {
+                throw new IOException("Damaged author frequency state: " + file);
+            }
+            List<String> ids = new ArrayList<>();
+            List<Integer> saved = new ArrayList<>();
+            for (int i = 0; i < authors; i++) {
+                ids.add(body.readUTF());
+                saved.add(body.readInt());
+            }
+            if (in.readLong() != crc.getValue()) {
+                throw new IOException("Damaged author frequency state: " + file);
+            }
+            for (int i = 0; i < authors; i++) {
+                if (saved.get(i) < 0) {
+                    throw new IOException("Damaged author frequency state: " + file);
+                }
+                // Keep the ordinals, and with them the order of ties
+                if (authorMap.containsKey(ids.get(i))) {
+                    counts.add(ids.get(i), saved.get(i));
+                } else {
+                    counts.setAside.put(counts.register(ids.get(i)), saved.get(i));
+                }
+            }
+        } catch (EOFException e) {
+            throw new IOException("Truncated author frequency state: " + file, e);
+        }
+        return counts;
+    }
+}
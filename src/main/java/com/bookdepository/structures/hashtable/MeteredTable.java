@@ -0,0 +1,58 @@
+package com.bookdepository.structures.hashtable;
+
+/**
+ * Hash table that can report its probe, collision and resize figures.
+ */
+public interface MeteredTable {
+
+    /**
+     * Starts recording probes and resizes into a metrics object, which
+     * several tables may share.
+     *
+     * @param metrics Metrics to record into, or null to stop recording
+     */
+    void setMetrics(HashTableMetrics metrics);
+
+    /**
+     * Gets the metrics recorded into.
+     *
+     * @return Metrics, or null if none are recorded
+     */
+    HashTableMetrics getMetrics();
+
+    /**
+     * Gets the number of entries stored.
+     *
+     * @return Number of entries
+     */
+    int size();
+
+    /**
+     * Gets the number of slots.
+     *
+     * @return Capacity
+     */
+    int capacity();
+
+    /**
+     * Gets the share of slots holding an entry.
+     *
+     * @return Load factor between 0 and 1
+     */
+    double getLoadFactor();
+
+    /**
+     * Gets the lengths of the runs of consecutive used slots.
+     *
+     * @return Cluster-length histogram
+     */
+    ProbeHistogram getClusterHistogram();
+
+    /**
+     * Gets the memory held by the slot arrays, counting references as 4
+     * bytes (compressed references) and excluding the objects they point to.
+     *
+     * @return Bytes
+     */
+    long getMemoryBytes();
+}
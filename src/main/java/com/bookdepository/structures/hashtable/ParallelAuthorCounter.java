@@ -0,0 +1,129 @@
+package com.bookdepository.structures.hashtable;
+
+import com.bookdepository.model.ColumnarRecords;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Multi-threaded author frequency counting.
+ *
+ * The author references of a columnar store are split into fork/join tasks;
+ * each task counts its slice into a private {@link AuthorFrequencyTable}, and
+ * tables are merged pairwise as the tasks join, the smaller into the larger.
+ * Counting itself shares no state between threads, so there are no locks or
+ * contended increments, and the result is the same as a sequential count.
+ */
+public class ParallelAuthorCounter {
+    /**
+     * Default number of author references below which a task counts sequentially.
+     */
+    public static final int DEFAULT_THRESHOLD = 1 << 16;
+
+    private final int threshold;
+    private final ForkJoinPool pool;
+
+    /**
+     * Default constructor. Uses the default threshold and the common pool.
+     */
+    public ParallelAuthorCounter() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Creates a counter running on the common pool.
+     *
+     * @param threshold Number of references below which a task counts sequentially
+     */
+    public ParallelAuthorCounter(int threshold) {
+        this(threshold, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a counter running on the given pool.
+     *
+     * @param threshold Number of references below which a task counts sequentially
+     * @param pool      Pool the counting tasks are submitted to
+     */
+    public ParallelAuthorCounter(int threshold, ForkJoinPool pool) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Threshold must be positive: " + threshold);
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool must not be null");
+        }
+        this.threshold = threshold;
+        this.pool = pool;
+    }
+
+    /**
+     * Counts every author occurrence of a columnar store.
+     *
+     * @param store Record store; only read
+     * @return Frequencies by author ordinal
+     */
+    public AuthorFrequencyTable count(ColumnarRecords store) {
+        return count(store, null);
+    }
+
+    /**
+     * Counts every author occurrence of a store, recording the probes and
+     * resizes of every task's table into shared metrics.
+     *
+     * @param store   Record store; only read
+     * @param metrics Metrics shared by the task tables, or null
+     * @return Frequencies by author ordinal
+     */
+    public AuthorFrequencyTable count(ColumnarRecords store, HashTableMetrics metrics) {
+        return pool.invoke(new CountTask(store, 0, store.getAuthorReferenceCount(), metrics));
+    }
+
+    /**
+     * Gets the number of references below which a task counts sequentially.
+     *
+     * @return Threshold
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Fork/join task counting a range of author references.
+     */
+    private final class CountTask extends RecursiveTask<AuthorFrequencyTable> {
+        private final ColumnarRecords store;
+        private final int from;
+        private final int to;
+        private final HashTableMetrics metrics;
+
+        CountTask(ColumnarRecords store, int from, int to, HashTableMetrics metrics) {
+            this.store = store;
+            this.from = from;
+            this.to = to;
+            this.metrics = metrics;
+        }
+
+        @Override
+        protected AuthorFrequencyTable compute() {
+            if (to - from <= threshold) {
+                AuthorFrequencyTable table = new AuthorFrequencyTable(
+                    Math.min(to - from, store.getDistinctAuthorCount()));
+                table.setMetrics(metrics);
+                table.countRange(store, from, to);
+                return table;
+            }
+
+            int mid = (from + to) >>> 1;
+            CountTask left = new CountTask(store, from, mid, metrics);
+            left.fork();
+            AuthorFrequencyTable right = new CountTask(store, mid, to, metrics).compute();
+            AuthorFrequencyTable merged = left.join();
+            if (merged.size() < right.size()) {
+                AuthorFrequencyTable smaller = merged;
+                merged = right;
+                right = smaller;
+            }
+            merged.addAll(right);
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.bookdepository.structures.hashtable;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Distribution of probe lengths: how many lookups probed 1 slot, 2 slots,
+ * and so on. Also used for the lengths of clusters of used slots, one
+ * "lookup" per cluster.
+ */
+public final class ProbeHistogram {
+    private long[] counts;
+    private long lookups;
+    private long probes;
+
+    /**
+     * Creates an empty histogram.
+     */
+    public ProbeHistogram() {
+        this.counts = new long[16];
+    }
+
+    /**
+     * Measures the runs of consecutive used slots of a table, wrapping
+     * around its end.
+     *
+     * @param capacity Number of slots
+     * @param used     Whether a slot is used
+     * @return Cluster-length histogram
+     */
+    static ProbeHistogram ofClusters(int capacity, IntPredicate used) {
+        ProbeHistogram histogram = new ProbeHistogram();
+        int start = 0;
+        while (start < capacity && used.test(start)) {
+            start++;
+        }
+        if (start == capacity) {
+            if (capacity > 0) {
+                histogram.add(capacity);
+            }
+            return histogram;
+        }
+        // Start after an unused slot, so a cluster wrapping around the end is counted once
+        int run = 0;
+        for (int k = 1; k <= capacity; k++) {
+            if (used.test((start + k) % capacity)) {
+                run++;
+            } else if (run > 0) {
+                histogram.add(run);
+                run = 0;
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * Records one lookup.
+     *
+     * @param length Number of slots probed, at least 1
+     */
+    public void add(int length) {
+        if (length < 1) {
+            throw new IllegalArgumentException("Probe length must be positive: " + length);
+        }
+        if (length >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(length + 1, 2 * counts.length));
+        }
+        counts[length]++;
+        lookups++;
+        probes += length;
+    }
+
+    /**
+     * Gets the number of lookups that probed a given number of slots.
+     *
+     * @param length Number of slots probed
+     * @return Number of lookups
+     */
+    public long getCount(int length) {
+        return length > 0 && length < counts.length ? counts[length] : 0;
+    }
+
+    /**
+     * Gets the number of lookups recorded.
+     *
+     * @return Number of lookups
+     */
+    public long getLookups() {
+        return lookups;
+    }
+
+    /**
+     * Gets the total number of slots probed.
+     *
+     * @return Number of probes
+     */
+    public long getProbes() {
+        return probes;
+    }
+
+    /**
+     * Gets the mean probe length.
+     *
+     * @return Mean, or 0 if no lookup was recorded
+     */
+    public double getMean() {
+        return lookups == 0 ? 0.0 : (double) probes / lookups;
+    }
+
+    /**
+     * Gets the longest probe length recorded.
+     *
+     * @return Maximum, or 0 if no lookup was recorded
+     */
+    public int getMax() {
+        for (int length = counts.length - 1; length > 0; length--) {
+            if (counts[length] > 0) {
+                return length;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the probe length that a share of the lookups do not exceed.
+     *
+     * @param fraction Share of lookups, between 0 and 1
+     * @return Percentile, or 0 if no lookup was recorded
+     */
+    public int getPercentile(double fraction) {
+        long rank = (long) Math.ceil(fraction * lookups);
+        long seen = 0;
+        for (int length = 1; length < counts.length; length++) {
+            seen += counts[length];
+            if (seen >= rank && seen > 0) {
+                return length;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Formats the histogram as length=count pairs, shortest first.
+     *
+     * @return Histogram such as "1=900;2=80;3=20"
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int length = 1; length < counts.length; length++) {
+            if (counts[length] > 0) {
+                if (text.length() > 0) {
+                    text.append(';');
+                }
+                text.append(length).append('=').append(counts[length]);
+            }
+        }
+        return text.toString();
+    }
+}
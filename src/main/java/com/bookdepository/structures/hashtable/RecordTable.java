@@ -0,0 +1,44 @@
+package com.bookdepository.structures.hashtable;
+
+import com.bookdepository.model.Record;
+
+/**
+ * Hash table of records keyed by record id.
+ *
+ * Implementations differ in their probing scheme; {@link #getProbeHistogram()}
+ * shows what a successful lookup of every stored record costs, so schemes can
+ * be compared at the same load factor.
+ */
+public interface RecordTable extends MeteredTable {
+
+    /**
+     * Stores a record under its id, replacing any record with the same id.
+     *
+     * @param record Record with a non-null id
+     * @return The replaced record, or null if the id was not stored
+     */
+    Record put(Record record);
+
+    /**
+     * Finds the record stored under an id.
+     *
+     * @param id Record id
+     * @return Record, or null if the id is not stored
+     */
+    Record get(String id);
+
+    /**
+     * Removes the record stored under an id.
+     *
+     * @param id Record id
+     * @return The removed record, or null if the id was not stored
+     */
+    Record remove(String id);
+
+    /**
+     * Counts, for every stored record, the slots a lookup of its id probes.
+     *
+     * @return Probe-length histogram
+     */
+    ProbeHistogram getProbeHistogram();
+}
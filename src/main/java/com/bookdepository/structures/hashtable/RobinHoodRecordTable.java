@@ -0,0 +1,262 @@
+package com.bookdepository.structures.hashtable;
+
+import com.bookdepository.model.Record;
+
+/**
+ * Record table using open addressing with linear probing and Robin Hood
+ * displacement.
+ *
+ * A record's displacement is how far its slot lies past its home slot. An
+ * insert walking past a record that is less displaced than itself takes that
+ * slot and carries the evicted record on, so displacements stay even and the
+ * longest probe stays short. A lookup stops as soon as it meets a record less
+ * displaced than the key would be, since the key would have evicted it.
+ * Removal shifts the following records back one slot instead of leaving a
+ * tombstone.
+ *
+ * Stored hashes, keys and records sit in parallel arrays, and probes walk
+ * consecutive slots, so most of a lookup compares ints within a cache line of
+ * the hash array before touching a key.
+ */
+public class RobinHoodRecordTable implements RecordTable {
+    /**
+     * Default maximum share of slots holding records.
+     */
+    public static final double DEFAULT_MAX_LOAD_FACTOR = 0.9;
+
+    private final double maxLoadFactor;
+    private final HashFunction hashFunction;
+    private int[] hashes;
+    private String[] keys;
+    private Record[] values;
+    private int mask;
+    private int size;
+    private int probed;
+    private HashTableMetrics metrics;
+
+    /**
+     * Creates a table with the default maximum load factor.
+     *
+     * @param expectedSize Expected number of records; the table grows past it
+     */
+    public RobinHoodRecordTable(int expectedSize) {
+        this(expectedSize, DEFAULT_MAX_LOAD_FACTOR);
+    }
+
+    /**
+     * Creates a table.
+     *
+     * @param expectedSize  Expected number of records; the table grows past it
+     * @param maxLoadFactor Share of slots in use above which the table grows
+     */
+    public RobinHoodRecordTable(int expectedSize, double maxLoadFactor) {
+        this(expectedSize, maxLoadFactor, StandardHashFunction.STRING_HASH_CODE);
+    }
+
+    /**
+     * Creates a table with a given hash function.
+     *
+     * @param expectedSize  Expected number of records; the table grows past it
+     * @param maxLoadFactor Share of slots in use above which the table grows
+     * @param hashFunction  Hash function of record ids
+     */
+    public RobinHoodRecordTable(int expectedSize, double maxLoadFactor, HashFunction hashFunction) {
+        if (!(maxLoadFactor > 0 && maxLoadFactor < 1)) {
+            throw new IllegalArgumentException("Load factor must be between 0 and 1: " + maxLoadFactor);
+        }
+        this.maxLoadFactor = maxLoadFactor;
+        this.hashFunction = hashFunction;
+        allocate(DoubleHashingRecordTable.capacityFor(expectedSize, maxLoadFactor));
+    }
+
+    private void allocate(int capacity) {
+        hashes = new int[capacity];
+        keys = new String[capacity];
+        values = new Record[capacity];
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    /**
+     * Gets the stored hash of a key; 0 marks an empty slot, so it is never returned.
+     */
+    private int hash(String key) {
+        int h = DoubleHashingRecordTable.spread(hashFunction.hash(key));
+        return h == 0 ? 1 : h;
+    }
+
+    /**
+     * Gets how far the record in a slot lies past its home slot.
+     */
+    private int displacement(int slot) {
+        return (slot - (hashes[slot] & mask)) & mask;
+    }
+
+    /**
+     * Finds the slot of a key.
+     *
+     * @return Slot index, or -1 if the key is not stored; the slots probed are left in probed
+     */
+    private int find(String id) {
+        int h = hash(id);
+        int i = h & mask;
+        probed = 1;
+        for (int d = 0; hashes[i] != 0 && displacement(i) >= d; d++) {
+            if (hashes[i] == h && keys[i].equals(id)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+            probed++;
+        }
+        return -1;
+    }
+
+    @Override
+    public Record put(Record record) {
+        String id = record.getId();
+        if (id == null) {
+            throw new IllegalArgumentException("Record id must not be null");
+        }
+        int found = find(id);
+        if (metrics != null) {
+            metrics.recordProbe(probed);
+        }
+        if (found >= 0) {
+            Record previous = values[found];
+            values[found] = record;
+            return previous;
+        }
+        if (size + 1 > keys.length * maxLoadFactor) {
+            long start = System.nanoTime();
+            rehash(keys.length << 1);
+            if (metrics != null) {
+                metrics.recordResize(start, keys.length >> 1, keys.length, size);
+            }
+        }
+        insert(hash(id), id, record);
+        return null;
+    }
+
+    /**
+     * Inserts a key known to be absent.
+     */
+    private void insert(int h, String key, Record value) {
+        int i = h & mask;
+        int d = 0;
+        while (hashes[i] != 0) {
+            int existing = displacement(i);
+            if (existing < d) {
+                // Take the slot of the less displaced record and carry it on
+                int swapHash = hashes[i];
+                String swapKey = keys[i];
+                Record swapValue = values[i];
+                hashes[i] = h;
+                keys[i] = key;
+                values[i] = value;
+                h = swapHash;
+                key = swapKey;
+                value = swapValue;
+                d = existing;
+            }
+            i = (i + 1) & mask;
+            d++;
+        }
+        hashes[i] = h;
+        keys[i] = key;
+        values[i] = value;
+        size++;
+    }
+
+    @Override
+    public Record get(String id) {
+        int i = find(id);
+        if (metrics != null) {
+            metrics.recordProbe(probed);
+        }
+        return i < 0 ? null : values[i];
+    }
+
+    @Override
+    public Record remove(String id) {
+        int i = find(id);
+        if (metrics != null) {
+            metrics.recordProbe(probed);
+        }
+        if (i < 0) {
+            return null;
+        }
+        Record previous = values[i];
+        // Shift the following displaced records back one slot
+        int next = (i + 1) & mask;
+        while (hashes[next] != 0 && displacement(next) > 0) {
+            hashes[i] = hashes[next];
+            keys[i] = keys[next];
+            values[i] = values[next];
+            i = next;
+            next = (next + 1) & mask;
+        }
+        hashes[i] = 0;
+        keys[i] = null;
+        values[i] = null;
+        size--;
+        return previous;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldHashes = hashes;
+        String[] oldKeys = keys;
+        Record[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldHashes.length; i++) {
+            if (oldHashes[i] != 0) {
+                insert(oldHashes[i], oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int capacity() {
+        return keys.length;
+    }
+
+    @Override
+    public double getLoadFactor() {
+        return (double) size / keys.length;
+    }
+
+    @Override
+    public ProbeHistogram getProbeHistogram() {
+        ProbeHistogram histogram = new ProbeHistogram();
+        for (int i = 0; i < hashes.length; i++) {
+            if (hashes[i] != 0) {
+                histogram.add(displacement(i) + 1);
+            }
+        }
+        return histogram;
+    }
+
+    @Override
+    public void setMetrics(HashTableMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public HashTableMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public ProbeHistogram getClusterHistogram() {
+        return ProbeHistogram.ofClusters(hashes.length, i -> hashes[i] != 0);
+    }
+
+    @Override
+    public long getMemoryBytes() {
+        return 12L * keys.length;
+    }
+}
@@ -0,0 +1,115 @@
+package com.bookdepository.structures.hashtable;
+
+/**
+ * Hash functions for String keys.
+ *
+ * String.hashCode() is a polynomial of the characters, so ids that differ in
+ * their last digit, such as sequential numeric ids, get consecutive hashes
+ * and share their high bits. The murmur3 finalizer scrambles those hashes
+ * so every input bit affects every output bit, at a few multiplies per key;
+ * keys with equal String hash codes still collide. The xxHash32 function
+ * hashes the characters themselves.
+ */
+public enum StandardHashFunction implements HashFunction {
+    /**
+     * String.hashCode(), the hash of the tables so far.
+     */
+    STRING_HASH_CODE {
+        @Override
+        public int hash(String key) {
+            return key.hashCode();
+        }
+    },
+
+    /**
+     * String.hashCode() through the finalization step of MurmurHash3.
+     */
+    MURMUR3_FINALIZER {
+        @Override
+        public int hash(String key) {
+            return murmur3Finalize(key.hashCode());
+        }
+    },
+
+    /**
+     * xxHash32 of the UTF-16LE bytes of the key, with seed 0.
+     */
+    XXHASH32 {
+        @Override
+        public int hash(String key) {
+            return xxHash32(key);
+        }
+    };
+
+    private static final int PRIME1 = 0x9E3779B1;
+    private static final int PRIME2 = 0x85EBCA77;
+    private static final int PRIME3 = 0xC2B2AE3D;
+    private static final int PRIME4 = 0x27D4EB2F;
+    private static final int PRIME5 = 0x165667B1;
+
+    /**
+     * Finalization step of MurmurHash3: spreads every input bit over the result.
+     */
+    static int murmur3Finalize(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Reads two characters as one little-endian 32-bit lane.
+     */
+    private static int lane(String key, int i) {
+        return key.charAt(i) | (key.charAt(i + 1) << 16);
+    }
+
+    private static int round(int acc, int input) {
+        acc += input * PRIME2;
+        acc = Integer.rotateLeft(acc, 13);
+        return acc * PRIME1;
+    }
+
+    static int xxHash32(String key) {
+        int n = key.length();
+        int i = 0;
+        int h;
+        if (n >= 8) {
+            // Four accumulators over 16-byte stripes
+            int v1 = PRIME1 + PRIME2;
+            int v2 = PRIME2;
+            int v3 = 0;
+            int v4 = -PRIME1;
+            for (; i + 8 <= n; i += 8) {
+                v1 = round(v1, lane(key, i));
+                v2 = round(v2, lane(key, i + 2));
+                v3 = round(v3, lane(key, i + 4));
+                v4 = round(v4, lane(key, i + 6));
+            }
+            h = Integer.rotateLeft(v1, 1) + Integer.rotateLeft(v2, 7)
+                + Integer.rotateLeft(v3, 12) + Integer.rotateLeft(v4, 18);
+        } else {
+            h = PRIME5;
+        }
+        h += 2 * n;
+        for (; i + 2 <= n; i += 2) {
+            h += lane(key, i) * PRIME3;
+            h = Integer.rotateLeft(h, 17) * PRIME4;
+        }
+        if (i < n) {
+            char c = key.charAt(i);
+            h += (c & 0xff) * PRIME5;
+            h = Integer.rotateLeft(h, 11) * PRIME1;
+            h += (c >>> 8) * PRIME5;
+            h = Integer.rotateLeft(h, 11) * PRIME1;
+        }
+        h ^= h >>> 15;
+        h *= PRIME2;
+        h ^= h >>> 13;
+        h *= PRIME3;
+        h ^= h >>> 16;
+        return h;
+    }
+}
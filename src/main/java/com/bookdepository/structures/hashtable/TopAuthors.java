@@ -0,0 +1,126 @@
+package com.bookdepository.structures.hashtable;
+
+import com.bookdepository.model.Author;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bounded selection of the most frequent authors.
+ *
+ * Keeps the best n authors seen so far in a min-heap whose root is the worst
+ * of them, so each author costs one comparison with the root and at most
+ * log n more; selecting from U authors takes O(U log n) instead of sorting
+ * all U. The result is ordered exactly like the first n authors of a stable
+ * sort by {@code (a, b) -> b.compareByFrequency(a)}: more frequent first, and
+ * authors that compareByFrequency considers equal in their input order.
+ *
+ * The input order is therefore the tie order. The counting paths of
+ * HashTableExperiment all list their authors in first-occurrence order, the
+ * order in which each author is first counted while the records are read in
+ * file order, so every path keeps the same authors at the cut.
+ */
+public final class TopAuthors {
+
+    private TopAuthors() {
+    }
+
+    /**
+     * Selects the n most frequent authors.
+     *
+     * @param authors Authors with their frequencies
+     * @param n       Number of authors to select
+     * @return The min(n, authors.size()) most frequent authors, most frequent first
+     */
+    public static List<Author> select(List<Author> authors, int n) {
+        int capacity = Math.min(Math.max(n, 0), authors.size());
+        if (capacity == 0) {
+            return new ArrayList<>();
+        }
+
+        Author[] heap = new Author[capacity];
+        int[] order = new int[capacity];
+        int size = 0;
+        int index = 0;
+        for (Author author : authors) {
+            if (size < capacity) {
+                heap[size] = author;
+                order[size] = index;
+                siftUp(heap, order, size);
+                size++;
+            } else if (worse(heap[0], order[0], author, index)) {
+                heap[0] = author;
+                order[0] = index;
+                siftDown(heap, order, 0, size);
+            }
+            index++;
+        }
+
+        // Remove the worst author until the heap is empty, filling from the back
+        Author[] selected = new Author[size];
+        for (int last = size - 1; last >= 0; last--) {
+            selected[last] = heap[0];
+            heap[0] = heap[last];
+            order[0] = order[last];
+            siftDown(heap, order, 0, last);
+        }
+        return new ArrayList<>(Arrays.asList(selected));
+    }
+
+    /**
+     * Checks whether an author ranks below another one: less frequent, or
+     * equally frequent and later in the input.
+     *
+     * @param a      First author
+     * @param orderA Input position of the first author
+     * @param b      Second author
+     * @param orderB Input position of the second author
+     * @return true if a ranks below b
+     */
+    private static boolean worse(Author a, int orderA, Author b, int orderB) {
+        int cmp = a.compareByFrequency(b);
+        if (cmp != 0) {
+            return cmp < 0;
+        }
+        return orderA > orderB;
+    }
+
+    private static void siftUp(Author[] heap, int[] order, int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!worse(heap[i], order[i], heap[parent], order[parent])) {
+                return;
+            }
+            swap(heap, order, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(Author[] heap, int[] order, int i, int size) {
+        while (true) {
+            int worst = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && worse(heap[left], order[left], heap[worst], order[worst])) {
+                worst = left;
+            }
+            if (right < size && worse(heap[right], order[right], heap[worst], order[worst])) {
+                worst = right;
+            }
+            if (worst == i) {
+                return;
+            }
+            swap(heap, order, i, worst);
+            i = worst;
+        }
+    }
+
+    private static void swap(Author[] heap, int[] order, int i, int j) {
+        Author author = heap[i];
+        heap[i] = heap[j];
+        heap[j] = author;
+        int position = order[i];
+        order[i] = order[j];
+        order[j] = position;
+    }
+}
@@ -0,0 +1,246 @@
+package com.bookdepository.structures.sketch;
+
+import com.bookdepository.model.Author;
+import com.bookdepository.structures.hashtable.TopAuthors;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Accuracy and memory of approximate author counts, measured against the
+ * exact frequencies.
+ *
+ * Errors are taken over the exact top N authors, the ones a dashboard shows,
+ * and the Count-Min errors also over every author. Recall is the share of the
+ * exact top N that Space-Saving also ranks in its top N; authors tied at the
+ * cut can lower it even when every count is exact.
+ */
+public final class ApproximationReport {
+    private final int topN;
+    private final long total;
+    private final int spaceSavingCapacity;
+    private final double spaceSavingBound;
+    private final double topRecall;
+    private final long spaceSavingMaxError;
+    private final double spaceSavingMeanError;
+    private final int sketchWidth;
+    private final int sketchDepth;
+    private final long sketchBytes;
+    private final double sketchBound;
+    private final long sketchMaxError;
+    private final double sketchMeanError;
+    private final double sketchAllMeanError;
+    private final double sketchWithinBound;
+
+    private ApproximationReport(int topN, long total, SpaceSaving spaceSaving, CountMinSketch sketch,
+                                double topRecall, long spaceSavingMaxError, double spaceSavingMeanError,
+                                long sketchMaxError, double sketchMeanError, double sketchAllMeanError,
+                                double sketchWithinBound) {
+        this.topN = topN;
+        this.total = total;
+        this.spaceSavingCapacity = spaceSaving.getCapacity();
+        this.spaceSavingBound = spaceSaving.getErrorBound();
+        this.topRecall = topRecall;
+        this.spaceSavingMaxError = spaceSavingMaxError;
+        this.spaceSavingMeanError = spaceSavingMeanError;
+        this.sketchWidth = sketch.getWidth();
+        this.sketchDepth = sketch.getDepth();
+        this.sketchBytes = sketch.getMemoryBytes();
+        this.sketchBound = sketch.getErrorBound();
+        this.sketchMaxError = sketchMaxError;
+        this.sketchMeanError = sketchMeanError;
+        this.sketchAllMeanError = sketchAllMeanError;
+        this.sketchWithinBound = sketchWithinBound;
+    }
+
+    /**
+     * Compares approximate counts with exact ones.
+     *
+     * @param exact       Every counted author with its exact frequency
+     * @param topN        Number of top authors compared
+     * @param spaceSaving Space-Saving counter fed with the same author ids
+     * @param sketch      Count-Min Sketch fed with the same author ids
+     * @return Report
+     */
+    public static ApproximationReport compare(List<Author> exact, int topN, SpaceSaving spaceSaving,
+                                              CountMinSketch sketch) {
+        List<Author> exactTop = TopAuthors.select(exact, topN);
+
+        Set<String> approximateTop = new HashSet<>();
+        for (SpaceSaving.Entry entry : spaceSaving.top(topN)) {
+            approximateTop.add(entry.getKey());
+        }
+
+        int found = 0;
+        long spaceSavingMax = 0;
+        long spaceSavingSum = 0;
+        long sketchMax = 0;
+        long sketchSum = 0;
+        for (Author author : exactTop) {
+            if (approximateTop.contains(author.getId())) {
+                found++;
+            }
+            // An unmonitored author counts as 0 in Space-Saving
+            long spaceSavingError = Math.abs(spaceSaving.estimate(author.getId()) - author.getFrequency());
+            spaceSavingMax = Math.max(spaceSavingMax, spaceSavingError);
+            spaceSavingSum += spaceSavingError;
+            long sketchError = sketch.estimate(author.getId()) - author.getFrequency();
+            sketchMax = Math.max(sketchMax, sketchError);
+            sketchSum += sketchError;
+        }
+
+        long sketchAllSum = 0;
+        int withinBound = 0;
+        double bound = sketch.getErrorBound();
+        for (Author author : exact) {
+            long sketchError = sketch.estimate(author.getId()) - author.getFrequency();
+            sketchAllSum += sketchError;
+            if (sketchError <= bound) {
+                withinBound++;
+            }
+        }
+
+        int compared = exactTop.size();
+        return new ApproximationReport(topN, spaceSaving.getTotal(), spaceSaving, sketch,
+            compared == 0 ? 1.0 : (double) found / compared,
+            spaceSavingMax, compared == 0 ? 0.0 : (double) spaceSavingSum / compared,
+            sketchMax, compared == 0 ? 0.0 : (double) sketchSum / compared,
+            exact.isEmpty() ? 0.0 : (double) sketchAllSum / exact.size(),
+            exact.isEmpty() ? 1.0 : (double) withinBound / exact.size());
+    }
+
+    /**
+     * Gets the number of top authors compared.
+     *
+     * @return N
+     */
+    public int getTopN() {
+        return topN;
+    }
+
+    /**
+     * Gets the number of author occurrences counted.
+     *
+     * @return Total count
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Gets the number of Space-Saving counters.
+     *
+     * @return Capacity
+     */
+    public int getSpaceSavingCapacity() {
+        return spaceSavingCapacity;
+    }
+
+    /**
+     * Gets the guaranteed Space-Saving error bound.
+     *
+     * @return Maximum overestimate of a count
+     */
+    public double getSpaceSavingBound() {
+        return spaceSavingBound;
+    }
+
+    /**
+     * Gets the share of the exact top N also in the Space-Saving top N.
+     *
+     * @return Recall between 0 and 1
+     */
+    public double getTopRecall() {
+        return topRecall;
+    }
+
+    /**
+     * Gets the largest Space-Saving count error over the exact top N.
+     *
+     * @return Maximum absolute error
+     */
+    public long getSpaceSavingMaxError() {
+        return spaceSavingMaxError;
+    }
+
+    /**
+     * Gets the mean Space-Saving count error over the exact top N.
+     *
+     * @return Mean absolute error
+     */
+    public double getSpaceSavingMeanError() {
+        return spaceSavingMeanError;
+    }
+
+    /**
+     * Gets the number of counters per sketch row.
+     *
+     * @return Width
+     */
+    public int getSketchWidth() {
+        return sketchWidth;
+    }
+
+    /**
+     * Gets the number of sketch rows.
+     *
+     * @return Depth
+     */
+    public int getSketchDepth() {
+        return sketchDepth;
+    }
+
+    /**
+     * Gets the memory held by the sketch counters.
+     *
+     * @return Bytes
+     */
+    public long getSketchBytes() {
+        return sketchBytes;
+    }
+
+    /**
+     * Gets the probabilistic Count-Min error bound.
+     *
+     * @return Maximum overestimate, holding with probability 1 - delta
+     */
+    public double getSketchBound() {
+        return sketchBound;
+    }
+
+    /**
+     * Gets the largest Count-Min overestimate over the exact top N.
+     *
+     * @return Maximum error
+     */
+    public long getSketchMaxError() {
+        return sketchMaxError;
+    }
+
+    /**
+     * Gets the mean Count-Min overestimate over the exact top N.
+     *
+     * @return Mean error
+     */
+    public double getSketchMeanError() {
+        return sketchMeanError;
+    }
+
+    /**
+     * Gets the mean Count-Min overestimate over every author.
+     *
+     * @return Mean error
+     */
+    public double getSketchAllMeanError() {
+        return sketchAllMeanError;
+    }
+
+    /**
+     * Gets the share of authors whose Count-Min estimate is within the bound.
+     *
+     * @return Share between 0 and 1
+     */
+    public double getSketchWithinBound() {
+        return sketchWithinBound;
+    }
+}
@@ -0,0 +1,123 @@
+package com.bookdepository.structures.sketch;
+
+/**
+ * Bloom filter of String keys.
+ *
+ * Each key sets hashCount bits of a bit array; a key whose bits are not all
+ * set was never added. A key whose bits are all set was probably added: the
+ * filter answers yes for a key never added with a probability that depends
+ * on the bits per key. For n keys and a false-positive rate p, the array
+ * has -n ln p / (ln 2)^2 bits and each key sets (bits / n) ln 2 of them.
+ *
+ * Bit positions come from two mixes of the key's hashCode combined as
+ * h1 + i * h2, as in {@link CountMinSketch}. String caches its hashCode,
+ * and a map lookup of the same key reuses it, so a check costs hashCount
+ * bit probes rather than another pass over the key's characters.
+ */
+public class BloomFilter {
+    private final long bitCount;
+    private final int hashCount;
+    private final long[] words;
+    private long insertions;
+
+    /**
+     * Creates a filter for a number of keys and a false-positive rate.
+     *
+     * @param expectedInsertions Number of keys to add
+     * @param falsePositiveRate  Probability of a yes for a key never added
+     */
+    public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 0) {
+            throw new IllegalArgumentException("Expected insertions must not be negative: " + expectedInsertions);
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False-positive rate must be between 0 and 1: " + falsePositiveRate);
+        }
+        int n = Math.max(expectedInsertions, 1);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        // Whole 64-bit words, at least one
+        this.bitCount = Math.max(64, (bits + 63) & ~63L);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        this.words = new long[(int) (bitCount >>> 6)];
+        this.insertions = 0;
+    }
+
+    /**
+     * Adds a key.
+     *
+     * @param key Key
+     */
+    public void add(String key) {
+        int h1 = CountMinSketch.mix(key.hashCode());
+        int h2 = CountMinSketch.mix(h1 ^ 0x9747b28c) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            words[(int) (bit >>> 6)] |= 1L << bit;
+        }
+        insertions++;
+    }
+
+    /**
+     * Checks whether a key may have been added.
+     *
+     * @param key Key
+     * @return False if the key was never added; true if it probably was
+     */
+    public boolean mightContain(String key) {
+        int h1 = CountMinSketch.mix(key.hashCode());
+        int h2 = CountMinSketch.mix(h1 ^ 0x9747b28c) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the expected false-positive rate for the keys added so far:
+     * (1 - e^(-hashCount * keys / bits))^hashCount.
+     *
+     * @return Probability of a yes for a key never added
+     */
+    public double getExpectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) hashCount * insertions / bitCount), hashCount);
+    }
+
+    /**
+     * Gets the number of keys added.
+     *
+     * @return Number of insertions
+     */
+    public long getInsertions() {
+        return insertions;
+    }
+
+    /**
+     * Gets the size of the bit array.
+     *
+     * @return Number of bits
+     */
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    /**
+     * Gets the number of bits each key sets.
+     *
+     * @return Number of hashes
+     */
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Gets the memory held by the bit array.
+     *
+     * @return Bytes
+     */
+    public long getMemoryBytes() {
+        return 8L * words.length;
+    }
+}
@@ -0,0 +1,158 @@
+package com.bookdepository.structures.sketch;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only view of a map whose lookups are first checked against a
+ * {@link BloomFilter} of its keys.
+ *
+ * A key the filter rules out is answered with null without probing the
+ * map, which saves the bucket walk and key comparisons of a miss when many
+ * keys looked up are not in the map, such as the dangling author ids of the
+ * records. The filter hashes the key's cached hashCode, which the map lookup
+ * would compute anyway, so the check itself only adds a few bit probes. A
+ * key the filter lets through that the map does not hold is a false
+ * positive. The view counts both, so the savings can be reported.
+ *
+ * The counters count key lookups, not calls: a containsKey followed by a get
+ * of the same key, as in {@code if (map.containsKey(id)) map.get(id)}, is
+ * one lookup, and the get is answered from the containsKey without probing
+ * the filter or the map again. The counters are not synchronized; use the
+ * view from one thread.
+ *
+ * @param <V> Value type; values must not be null
+ */
+public class BloomFilteredMap<V> extends AbstractMap<String, V> {
+    private final Map<String, V> map;
+    private final BloomFilter filter;
+    private long lookups;
+    private long filtered;
+    private long falsePositives;
+    private Object checkedKey;
+    private V checkedValue;
+
+    /**
+     * Builds the filter of a map's keys.
+     *
+     * @param map               Map to look keys up in; not copied, and must not change
+     * @param falsePositiveRate False-positive rate of the filter
+     */
+    public BloomFilteredMap(Map<String, V> map, double falsePositiveRate) {
+        this.map = map;
+        this.filter = new BloomFilter(map.size(), falsePositiveRate);
+        for (String key : map.keySet()) {
+            filter.add(key);
+        }
+    }
+
+    @Override
+    public V get(Object key) {
+        if (checkedKey != null) {
+            boolean checked = checkedKey.equals(key);
+            V value = checkedValue;
+            checkedKey = null;
+            checkedValue = null;
+            if (checked) {
+                return value;
+            }
+        }
+        return lookup(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        V value = get(key);
+        checkedKey = key;
+        checkedValue = value;
+        return value != null;
+    }
+
+    /**
+     * Looks a key up through the filter and counts the lookup.
+     *
+     * @param key Key to look up
+     * @return Value, or null if the map does not hold the key
+     */
+    private V lookup(Object key) {
+        lookups++;
+        if (!(key instanceof String) || !filter.mightContain((String) key)) {
+            filtered++;
+            return null;
+        }
+        V value = map.get(key);
+        if (value == null) {
+            falsePositives++;
+        }
+        return value;
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        return Collections.unmodifiableMap(map).entrySet();
+    }
+
+    /**
+     * Gets the filter of the map's keys.
+     *
+     * @return Bloom filter
+     */
+    public BloomFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Gets the number of lookups made through the view.
+     *
+     * @return Number of keys looked up, counting a containsKey and the get
+     *         of the same key that follows it once
+     */
+    public long getLookups() {
+        return lookups;
+    }
+
+    /**
+     * Gets the number of lookups answered by the filter alone.
+     *
+     * @return Number of map probes saved
+     */
+    public long getFiltered() {
+        return filtered;
+    }
+
+    /**
+     * Gets the number of lookups the filter let through for a missing key.
+     *
+     * @return Number of false positives
+     */
+    public long getFalsePositives() {
+        return falsePositives;
+    }
+
+    /**
+     * Gets the measured false-positive rate: the share of missing keys the
+     * filter let through.
+     *
+     * @return Rate between 0 and 1, or 0 if no missing key was looked up
+     */
+    public double getFalsePositiveRate() {
+        long misses = filtered + falsePositives;
+        return misses == 0 ? 0.0 : (double) falsePositives / misses;
+    }
+
+    /**
+     * Gets the share of lookups that did not probe the map.
+     *
+     * @return Share between 0 and 1, or 0 if nothing was looked up
+     */
+    public double getSavedLookupShare() {
+        return lookups == 0 ? 0.0 : (double) filtered / lookups;
+    }
+}
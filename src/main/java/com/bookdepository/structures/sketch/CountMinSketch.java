@@ -0,0 +1,164 @@
+package com.bookdepository.structures.sketch;
+
+/**
+ * Count-Min Sketch of key frequencies in fixed memory.
+ *
+ * Keeps depth rows of width counters; each key is counted in one counter per
+ * row, and its estimate is the smallest of those counters. Estimates never
+ * fall below the true count, and with probability at least 1 - delta they
+ * exceed it by at most epsilon times the total count, where width is
+ * ceil(e / epsilon) and depth is ceil(ln(1 / delta)).
+ *
+ * Row positions come from two mixes of the key's hashCode combined as
+ * h1 + i * h2, so a key is hashed once however many rows there are.
+ */
+public class CountMinSketch {
+    private final int width;
+    private final int depth;
+    private final long[] counters;
+    private long total;
+
+    /**
+     * Creates a sketch for an error bound.
+     *
+     * @param epsilon Error of an estimate, as a fraction of the total count
+     * @param delta   Probability that an estimate exceeds the error
+     */
+    public CountMinSketch(double epsilon, double delta) {
+        this(widthFor(epsilon), depthFor(delta));
+    }
+
+    /**
+     * Creates a sketch of a given size.
+     *
+     * @param width Counters per row
+     * @param depth Number of rows
+     */
+    public CountMinSketch(int width, int depth) {
+        if (width < 1 || depth < 1) {
+            throw new IllegalArgumentException("Sketch size must be positive: " + width + "x" + depth);
+        }
+        if ((long) width * depth > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Sketch too large: " + width + "x" + depth);
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counters = new long[width * depth];
+        this.total = 0;
+    }
+
+    private static int widthFor(double epsilon) {
+        if (!(epsilon > 0 && epsilon < 1)) {
+            throw new IllegalArgumentException("Epsilon must be between 0 and 1: " + epsilon);
+        }
+        return (int) Math.ceil(Math.E / epsilon);
+    }
+
+    private static int depthFor(double delta) {
+        if (!(delta > 0 && delta < 1)) {
+            throw new IllegalArgumentException("Delta must be between 0 and 1: " + delta);
+        }
+        return (int) Math.ceil(Math.log(1 / delta));
+    }
+
+    /**
+     * Finalization step of MurmurHash3: spreads every input bit over the result.
+     */
+    static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Counts one occurrence of a key.
+     *
+     * @param key Key
+     */
+    public void add(String key) {
+        add(key, 1);
+    }
+
+    /**
+     * Counts occurrences of a key.
+     *
+     * @param key   Key
+     * @param count Number of occurrences, not negative
+     */
+    public void add(String key, long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative: " + count);
+        }
+        int h1 = mix(key.hashCode());
+        int h2 = mix(h1 ^ 0x9747b28c) | 1;
+        for (int row = 0; row < depth; row++) {
+            counters[row * width + Math.floorMod(h1 + row * h2, width)] += count;
+        }
+        total += count;
+    }
+
+    /**
+     * Estimates the count of a key.
+     *
+     * @param key Key
+     * @return Estimated count, never below the true count
+     */
+    public long estimate(String key) {
+        int h1 = mix(key.hashCode());
+        int h2 = mix(h1 ^ 0x9747b28c) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters[row * width + Math.floorMod(h1 + row * h2, width)]);
+        }
+        return estimate;
+    }
+
+    /**
+     * Gets the total of all counts added.
+     *
+     * @return Total count
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Gets the error bound of an estimate for the counts added so far:
+     * e / width times the total count.
+     *
+     * @return Maximum overestimate, holding with probability 1 - delta
+     */
+    public double getErrorBound() {
+        return Math.E / width * total;
+    }
+
+    /**
+     * Gets the number of counters per row.
+     *
+     * @return Width
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the number of rows.
+     *
+     * @return Depth
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Gets the memory held by the counters.
+     *
+     * @return Counter bytes
+     */
+    public long getMemoryBytes() {
+        return 8L * counters.length;
+    }
+}
@@ -0,0 +1,264 @@
+package com.bookdepository.structures.sketch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitter counter in fixed memory.
+ *
+ * Monitors at most capacity keys. A monitored key is counted exactly from
+ * the time it is monitored; a new key takes over the counter with the
+ * smallest count and inherits that count as its possible overestimate. Any
+ * key occurring more than total / capacity times is monitored, and every
+ * count exceeds the true count by at most its error, itself at most
+ * total / capacity.
+ *
+ * Counters sit in a min-heap by count that tracks each counter's position,
+ * so counting a key costs O(log capacity).
+ */
+public class SpaceSaving {
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private final Counter[] heap;
+    private int size;
+    private long total;
+
+    /**
+     * Creates a counter.
+     *
+     * @param capacity Maximum number of monitored keys
+     */
+    public SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>();
+        this.heap = new Counter[capacity];
+        this.size = 0;
+        this.total = 0;
+    }
+
+    /**
+     * Creates a counter whose counts are off by at most epsilon times the total.
+     *
+     * @param epsilon Error of a count, as a fraction of the total count
+     * @return Counter with ceil(1 / epsilon) monitored keys
+     */
+    public static SpaceSaving forError(double epsilon) {
+        if (!(epsilon > 0 && epsilon < 1)) {
+            throw new IllegalArgumentException("Epsilon must be between 0 and 1: " + epsilon);
+        }
+        return new SpaceSaving((int) Math.ceil(1 / epsilon));
+    }
+
+    /**
+     * Counts one occurrence of a key.
+     *
+     * @param key Key
+     */
+    public void offer(String key) {
+        total++;
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            counter.count++;
+            siftDown(counter.index);
+        } else if (size < capacity) {
+            counter = new Counter(key, 1, 0);
+            counter.index = size;
+            heap[size++] = counter;
+            counters.put(key, counter);
+            siftUp(counter.index);
+        } else {
+            // Reuse the counter of the least counted key
+            counter = heap[0];
+            counters.remove(counter.key);
+            counter.key = key;
+            counter.error = counter.count;
+            counter.count++;
+            counters.put(key, counter);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Gets the count of a key.
+     *
+     * @param key Key
+     * @return Count, at most {@link #getError(String)} above the true count,
+     *         or 0 if the key is not monitored
+     */
+    public long estimate(String key) {
+        Counter counter = counters.get(key);
+        return counter == null ? 0 : counter.count;
+    }
+
+    /**
+     * Gets the maximum overestimate of a key's count.
+     *
+     * @param key Key
+     * @return Error of the count, or 0 if the key is not monitored
+     */
+    public long getError(String key) {
+        Counter counter = counters.get(key);
+        return counter == null ? 0 : counter.error;
+    }
+
+    /**
+     * Gets the most counted keys.
+     *
+     * @param n Number of keys
+     * @return Up to n keys, by decreasing count, then increasing error, then key
+     */
+    public List<Entry> top(int n) {
+        List<Entry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entries.add(new Entry(heap[i].key, heap[i].count, heap[i].error));
+        }
+        Collections.sort(entries, (a, b) -> {
+            if (a.count != b.count) {
+                return Long.compare(b.count, a.count);
+            }
+            if (a.error != b.error) {
+                return Long.compare(a.error, b.error);
+            }
+            return a.key.compareTo(b.key);
+        });
+        return new ArrayList<>(entries.subList(0, Math.min(Math.max(n, 0), entries.size())));
+    }
+
+    /**
+     * Gets the total number of occurrences counted.
+     *
+     * @return Total count
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Gets the maximum number of monitored keys.
+     *
+     * @return Capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the number of keys monitored.
+     *
+     * @return Number of counters in use
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the error bound of every count: total / capacity.
+     *
+     * @return Maximum overestimate
+     */
+    public double getErrorBound() {
+        return (double) total / capacity;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (heap[parent].count <= heap[i].count) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && heap[left].count < heap[smallest].count) {
+                smallest = left;
+            }
+            if (right < size && heap[right].count < heap[smallest].count) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        Counter counter = heap[i];
+        heap[i] = heap[j];
+        heap[j] = counter;
+        heap[i].index = i;
+        heap[j].index = j;
+    }
+
+    /**
+     * Counter of a monitored key.
+     */
+    private static final class Counter {
+        private String key;
+        private long count;
+        private long error;
+        private int index;
+
+        Counter(String key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Count of a monitored key.
+     */
+    public static final class Entry {
+        private final String key;
+        private final long count;
+        private final long error;
+
+        Entry(String key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+
+        /**
+         * Gets the key.
+         *
+         * @return Key
+         */
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * Gets the count, at most {@link #getError()} above the true count.
+         *
+         * @return Count
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Gets the maximum overestimate of the count.
+         *
+         * @return Error
+         */
+        public long getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.bookdepository.utils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Reads the number of heap bytes allocated by the current thread.
+ * Relies on the HotSpot extension of ThreadMXBean; on JVMs without it,
+ * {@link #isSupported()} returns false and the byte count is -1.
+ */
+public final class AllocationCounter {
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN = loadThreadBean();
+
+    private AllocationCounter() {
+    }
+
+    /**
+     * Checks if per-thread allocation counting is available.
+     *
+     * @return true if allocated bytes can be read
+     */
+    public static boolean isSupported() {
+        return THREAD_BEAN != null;
+    }
+
+    /**
+     * Gets the total number of bytes allocated by the current thread so far.
+     * Take the difference of two readings to measure a piece of code.
+     *
+     * @return Allocated bytes, or -1 if unsupported
+     */
+    public static long currentThreadAllocatedBytes() {
+        if (THREAD_BEAN == null) {
+            return -1;
+        }
+        return THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Looks up the HotSpot thread bean and enables allocation counting.
+     *
+     * @return Thread bean, or null if unsupported
+     */
+    private static com.sun.management.ThreadMXBean loadThreadBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean hotSpotBean = (com.sun.management.ThreadMXBean) bean;
+        if (!hotSpotBean.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        hotSpotBean.setThreadAllocatedMemoryEnabled(true);
+        return hotSpotBean;
+    }
+}
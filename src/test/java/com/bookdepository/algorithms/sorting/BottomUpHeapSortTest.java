@@ -0,0 +1,81 @@
+package com.bookdepository.algorithms.sorting;
+
+import com.bookdepository.model.Record;
+import com.bookdepository.io.PerformanceResult;
+import com.bookdepository.test.TestUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BottomUpHeapSort algorithm.
+ */
+@DisplayName("BottomUpHeapSort Tests")
+class BottomUpHeapSortTest {
+
+    @Test
+    @DisplayName("Should handle null and empty arrays")
+    void testSortNullAndEmpty() {
+        BottomUpHeapSort heapSort = new BottomUpHeapSort();
+
+        PerformanceResult nullResult = heapSort.sort(null);
+        PerformanceResult emptyResult = heapSort.sort(new Record[0]);
+
+        assertEquals(0, nullResult.getComparisons());
+        assertEquals(0, emptyResult.getSwaps());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 3, 4, 8})
+    @DisplayName("Should sort random arrays for any arity")
+    void testSortRandomForArity(int arity) {
+        BottomUpHeapSort heapSort = new BottomUpHeapSort(arity);
+        Record[] records = TestUtils.generateRandomRecords(10000);
+
+        PerformanceResult result = heapSort.sort(records);
+
+        assertTrue(TestUtils.isSorted(records));
+        assertTrue(result.getComparisons() > 0);
+        assertTrue(result.getSwaps() > 0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 4, 8})
+    @DisplayName("Should sort sorted, reverse sorted and zero-ranked input")
+    void testSortSpecialInputs(int arity) {
+        BottomUpHeapSort heapSort = new BottomUpHeapSort(arity);
+        Record[] sorted = TestUtils.generateSortedRecords(1000);
+        Record[] reverse = TestUtils.generateReverseSortedRecords(1000);
+        Record[] duplicates = TestUtils.generateDuplicateHeavyRecords(1000, 0.4, 20);
+
+        heapSort.sort(sorted);
+        heapSort.sort(reverse);
+        heapSort.sort(duplicates);
+
+        assertTrue(TestUtils.isSorted(sorted));
+        assertTrue(TestUtils.isSorted(reverse));
+        assertTrue(TestUtils.isSorted(duplicates));
+    }
+
+    @Test
+    @DisplayName("Should need fewer comparisons than the classic HeapSort")
+    void testFewerComparisonsThanHeapSort() {
+        Record[] records = TestUtils.generateRandomRecords(10000);
+        Record[] copy = TestUtils.cloneRecords(records);
+
+        PerformanceResult classic = new HeapSort().sort(records);
+        PerformanceResult bottomUp = new BottomUpHeapSort().sort(copy);
+
+        assertTrue(TestUtils.isSorted(copy));
+        assertTrue(bottomUp.getComparisons() < classic.getComparisons(),
+            "Bottom-up sift should save comparisons");
+    }
+
+    @Test
+    @DisplayName("Should reject an arity below two")
+    void testInvalidArity() {
+        assertThrows(IllegalArgumentException.class, () -> new BottomUpHeapSort(1));
+    }
+}
@@ -1,7 +1,9 @@
 package com.bookdepository.algorithms.sorting;
 
 import com.bookdepository.model.Record;
+import com.bookdepository.model.RecordStore;
 import com.bookdepository.io.PerformanceResult;
+import com.bookdepository.io.SortMetrics;
 import com.bookdepository.test.TestUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -199,5 +201,84 @@ class HeapSortTest {
         assertNotNull(result);
         assertTrue(TestUtils.isSorted(records));
     }
-}
 
+    @Test
+    @DisplayName("Rank-key sort should match record sort order and counters")
+    void testSortByRankKeyMatchesSort() {
+        Record[] records = TestUtils.generateRandomRecords(1000);
+        for (int i = 0; i < records.length; i += 7) {
+            records[i].setBestsellersRank(0);
+        }
+        Record[] copy = records.clone();
+
+        PerformanceResult expected = heapSort.sort(records);
+        PerformanceResult actual = heapSort.sortByRankKey(copy);
+
+        assertEquals(expected.getComparisons(), actual.getComparisons());
+        assertEquals(expected.getSwaps(), actual.getSwaps());
+        for (int i = 0; i < records.length; i++) {
+            assertSame(records[i], copy[i], "Records should match at index " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Rank-key sort should handle null and empty arrays")
+    void testSortByRankKeyEmpty() {
+        PerformanceResult nullResult = heapSort.sortByRankKey(null);
+        PerformanceResult emptyResult = heapSort.sortByRankKey(new Record[0]);
+
+        assertEquals(0, nullResult.getComparisons());
+        assertEquals(0, emptyResult.getSwaps());
+    }
+
+    @Test
+    @DisplayName("Should sort only the requested range")
+    void testSortRange() {
+        Record[] records = TestUtils.generateReverseSortedRecords(20);
+        Record[] original = records.clone();
+
+        heapSort.sort(records, 5, 15);
+
+        Record[] range = java.util.Arrays.copyOfRange(records, 5, 15);
+        assertTrue(TestUtils.isSorted(range));
+        for (int i = 0; i < 5; i++) {
+            assertSame(original[i], records[i]);
+            assertSame(original[i + 15], records[i + 15]);
+        }
+    }
+
+    @Test
+    @DisplayName("Metrics should match the result and time both heap phases")
+    void testLastMetrics() {
+        Record[] records = TestUtils.generateRandomRecords(2000);
+
+        PerformanceResult result = heapSort.sort(records);
+        SortMetrics metrics = heapSort.getLastMetrics();
+
+        assertEquals(result.getComparisons(), metrics.getComparisons());
+        assertEquals(result.getSwaps(), metrics.getSwaps());
+        assertTrue(metrics.getExecutionTimeNanos() > 0);
+        assertEquals(result.getExecutionTime(), metrics.getExecutionTimeNanos() / 1_000_000);
+        assertTrue(metrics.getPhaseNanos().containsKey("heapBuild"));
+        assertTrue(metrics.getPhaseNanos().containsKey("extraction"));
+        long phases = metrics.getPhaseNanos().get("heapBuild") + metrics.getPhaseNanos().get("extraction");
+        assertTrue(phases <= metrics.getExecutionTimeNanos());
+    }
+
+    @Test
+    @DisplayName("Should sort a record store like the record array")
+    void testSortRecordStore() {
+        Record[] records = TestUtils.generateDuplicateHeavyRecords(500, 0.2, 40);
+        RecordStore store = RecordStore.fromRecords(java.util.Arrays.asList(records));
+
+        PerformanceResult storeResult = heapSort.sortStore(store);
+        PerformanceResult arrayResult = new HeapSort().sort(records);
+
+        assertEquals(arrayResult.getComparisons(), storeResult.getComparisons());
+        assertEquals(arrayResult.getSwaps(), storeResult.getSwaps());
+        for (int i = 0; i < records.length; i++) {
+            assertEquals(records[i].getBestsellersRank(), store.getRank(i));
+            assertEquals(records[i].getId(), store.getId(i));
+        }
+    }
+}
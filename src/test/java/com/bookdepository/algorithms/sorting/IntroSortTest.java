@@ -0,0 +1,99 @@
+package com.bookdepository.algorithms.sorting;
+
+import com.bookdepository.model.Record;
+import com.bookdepository.io.PerformanceResult;
+import com.bookdepository.test.TestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for IntroSort algorithm.
+ */
+@DisplayName("IntroSort Tests")
+class IntroSortTest {
+
+    private IntroSort introSort;
+
+    @BeforeEach
+    void setUp() {
+        introSort = new IntroSort();
+    }
+
+    @Test
+    @DisplayName("Should handle null and empty arrays")
+    void testSortNullAndEmpty() {
+        PerformanceResult nullResult = introSort.sort(null);
+        PerformanceResult emptyResult = introSort.sort(new Record[0]);
+
+        assertEquals(0, nullResult.getComparisons());
+        assertEquals(0, emptyResult.getSwaps());
+    }
+
+    @Test
+    @DisplayName("Should sort array with zero ranks")
+    void testSortWithZeroRanks() {
+        Record[] records = {
+            TestUtils.createRecord(1, 0),
+            TestUtils.createRecord(2, 3),
+            TestUtils.createRecord(3, 1),
+            TestUtils.createRecord(4, 0),
+            TestUtils.createRecord(5, 2)
+        };
+
+        introSort.sort(records);
+
+        assertTrue(TestUtils.isSorted(records));
+        assertEquals(0, records[3].getBestsellersRank());
+        assertEquals(0, records[4].getBestsellersRank());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100, 1000, 10000})
+    @DisplayName("Should sort random arrays of different sizes")
+    void testSortDifferentSizes(int size) {
+        Record[] records = TestUtils.generateRandomRecords(size);
+        PerformanceResult result = introSort.sort(records);
+
+        assertTrue(TestUtils.isSorted(records));
+        assertTrue(result.getComparisons() > 0);
+    }
+
+    @Test
+    @DisplayName("Should sort large sorted input in O(n log n) without overflowing the stack")
+    void testSortLargeSortedInput() {
+        Record[] records = TestUtils.generateSortedRecords(200000);
+        PerformanceResult result = introSort.sort(records);
+
+        assertTrue(TestUtils.isSorted(records));
+        assertTrue(result.getComparisons() < 200000L * 18 * 2,
+            "Too many comparisons for sorted input");
+    }
+
+    @Test
+    @DisplayName("Should sort large reverse sorted input without overflowing the stack")
+    void testSortLargeReverseSortedInput() {
+        Record[] records = TestUtils.generateReverseSortedRecords(200000);
+        introSort.sort(records);
+
+        assertTrue(TestUtils.isSorted(records));
+    }
+
+    @Test
+    @DisplayName("Should fall back to HeapSort when partitions degenerate")
+    void testHeapSortFallback() {
+        Record[] records = new Record[50000];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = TestUtils.createRecord(i + 1, 0);
+        }
+
+        PerformanceResult result = introSort.sort(records);
+
+        assertTrue(TestUtils.isSorted(records));
+        assertTrue(introSort.getHeapSortFallbacks() > 0);
+        assertEquals(introSort.getComparisons(), result.getComparisons());
+    }
+}
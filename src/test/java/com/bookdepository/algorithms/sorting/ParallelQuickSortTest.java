@@ -0,0 +1,72 @@
+package com.bookdepository.algorithms.sorting;
+
+import com.bookdepository.model.Record;
+import com.bookdepository.io.PerformanceResult;
+import com.bookdepository.test.TestUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ParallelQuickSort algorithm.
+ */
+@DisplayName("ParallelQuickSort Tests")
+class ParallelQuickSortTest {
+
+    @Test
+    @DisplayName("Should handle null and empty arrays")
+    void testSortNullAndEmpty() {
+        ParallelQuickSort parallelQuickSort = new ParallelQuickSort();
+
+        PerformanceResult nullResult = parallelQuickSort.sort(null);
+        PerformanceResult emptyResult = parallelQuickSort.sort(new Record[0]);
+
+        assertEquals(0, nullResult.getComparisons());
+        assertEquals(0, emptyResult.getSwaps());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 16, 1000, 100000})
+    @DisplayName("Should match sequential QuickSort order and counters for any threshold")
+    void testMatchesSequentialSort(int threshold) {
+        Record[] records = TestUtils.generateRandomRecords(5000);
+        for (int i = 0; i < records.length; i += 97) {
+            records[i].setBestsellersRank(0);
+        }
+        Record[] copy = records.clone();
+
+        PerformanceResult expected = new QuickSort().sort(records);
+        PerformanceResult actual = new ParallelQuickSort(threshold).sort(copy);
+
+        assertTrue(TestUtils.isSorted(copy));
+        assertEquals(expected.getComparisons(), actual.getComparisons());
+        assertEquals(expected.getSwaps(), actual.getSwaps());
+        for (int i = 0; i < records.length; i++) {
+            assertSame(records[i], copy[i], "Records should match at index " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Should run on a caller-supplied pool")
+    void testCustomPool() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Record[] records = TestUtils.generateRandomRecords(50000);
+            PerformanceResult result = new ParallelQuickSort(1024, pool).sort(records);
+
+            assertTrue(TestUtils.isSorted(records));
+            assertTrue(result.getComparisons() > 0);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a non-positive threshold")
+    void testInvalidThreshold() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelQuickSort(0));
+    }
+}
@@ -1,7 +1,9 @@
 package com.bookdepository.algorithms.sorting;
 
 import com.bookdepository.model.Record;
+import com.bookdepository.model.RecordStore;
 import com.bookdepository.io.PerformanceResult;
+import com.bookdepository.io.SortMetrics;
 import com.bookdepository.test.TestUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -197,5 +199,63 @@ class QuickSortTest {
         assertTrue(TestUtils.isSorted(records));
         assertTrue((endTime - startTime) < 10000, "Sorting took too long");
     }
-}
 
+    @Test
+    @DisplayName("Rank-key sort should match record sort order and counters")
+    void testSortByRankKeyMatchesSort() {
+        Record[] records = TestUtils.generateRandomRecords(1000);
+        for (int i = 0; i < records.length; i += 7) {
+            records[i].setBestsellersRank(0);
+        }
+        Record[] copy = records.clone();
+
+        PerformanceResult expected = quickSort.sort(records);
+        PerformanceResult actual = quickSort.sortByRankKey(copy);
+
+        assertEquals(expected.getComparisons(), actual.getComparisons());
+        assertEquals(expected.getSwaps(), actual.getSwaps());
+        for (int i = 0; i < records.length; i++) {
+            assertSame(records[i], copy[i], "Records should match at index " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Rank-key sort should handle null and empty arrays")
+    void testSortByRankKeyEmpty() {
+        PerformanceResult nullResult = quickSort.sortByRankKey(null);
+        PerformanceResult emptyResult = quickSort.sortByRankKey(new Record[0]);
+
+        assertEquals(0, nullResult.getComparisons());
+        assertEquals(0, emptyResult.getSwaps());
+    }
+
+    @Test
+    @DisplayName("Metrics should split the run into partition and recursion")
+    void testLastMetricsPhases() {
+        Record[] records = TestUtils.generateRandomRecords(5000);
+
+        quickSort.sort(records);
+        SortMetrics metrics = quickSort.getLastMetrics();
+
+        assertTrue(metrics.getPhaseNanos().get("partition") > 0);
+        long phases = metrics.getPhaseNanos().get("partition") + metrics.getPhaseNanos().get(QuickSort.REMAINDER_PHASE);
+        assertEquals(metrics.getExecutionTimeNanos(), phases);
+    }
+
+    @Test
+    @DisplayName("Should sort a record store like the record array")
+    void testSortRecordStore() {
+        Record[] records = TestUtils.generateDuplicateHeavyRecords(500, 0.2, 40);
+        RecordStore store = RecordStore.fromRecords(java.util.Arrays.asList(records));
+
+        PerformanceResult storeResult = quickSort.sortStore(store);
+        PerformanceResult arrayResult = new QuickSort().sort(records);
+
+        assertEquals(arrayResult.getComparisons(), storeResult.getComparisons());
+        assertEquals(arrayResult.getSwaps(), storeResult.getSwaps());
+        for (int i = 0; i < records.length; i++) {
+            assertEquals(records[i].getBestsellersRank(), store.getRank(i));
+            assertEquals(records[i].getId(), store.getId(i));
+        }
+    }
+}
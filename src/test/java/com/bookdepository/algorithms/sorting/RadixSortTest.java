@@ -0,0 +1,95 @@
+package com.bookdepository.algorithms.sorting;
+
+import com.bookdepository.model.Record;
+import com.bookdepository.io.PerformanceResult;
+import com.bookdepository.test.TestUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RadixSort algorithm.
+ */
+@DisplayName("RadixSort Tests")
+class RadixSortTest {
+
+    @Test
+    @DisplayName("Should handle null and empty arrays")
+    void testSortNullAndEmpty() {
+        RadixSort radixSort = new RadixSort();
+
+        PerformanceResult nullResult = radixSort.sort(null);
+        PerformanceResult emptyResult = radixSort.sort(new Record[0]);
+
+        assertEquals(0, nullResult.getSwaps());
+        assertEquals(0, emptyResult.getSwaps());
+        assertEquals(0, radixSort.getPasses());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {8, 11})
+    @DisplayName("Should sort duplicate-heavy arrays with zero ranks last")
+    void testSortDuplicateHeavy(int radixBits) {
+        RadixSort radixSort = new RadixSort(radixBits);
+        Record[] records = TestUtils.generateDuplicateHeavyRecords(10000, 0.4, 200);
+
+        PerformanceResult result = radixSort.sort(records);
+
+        assertTrue(TestUtils.isSorted(records));
+        assertEquals(0, result.getComparisons());
+        assertEquals(radixSort.getMoves(), result.getSwaps());
+    }
+
+    @Test
+    @DisplayName("Should be stable")
+    void testStability() {
+        Record[] records = TestUtils.generateDuplicateHeavyRecords(5000, 0.3, 20);
+
+        new RadixSort().sort(records);
+
+        for (int i = 1; i < records.length; i++) {
+            if (records[i - 1].getBestsellersRank() == records[i].getBestsellersRank()) {
+                assertTrue(Integer.parseInt(records[i - 1].getId()) < Integer.parseInt(records[i].getId()),
+                    "Equal ranks should keep their input order at index " + i);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should skip passes over digits that never vary")
+    void testSkipsConstantDigits() {
+        RadixSort radixSort = new RadixSort(8);
+        Record[] records = TestUtils.generateRandomRecords(1000);
+
+        PerformanceResult result = radixSort.sort(records);
+
+        // Ranks 1..1000 only use the two low bytes
+        assertTrue(TestUtils.isSorted(records));
+        assertEquals(2, radixSort.getPasses());
+        assertEquals(2 * records.length, result.getSwaps());
+    }
+
+    @Test
+    @DisplayName("Should reuse a caller-supplied scratch buffer")
+    void testScratchReuse() {
+        RadixSort radixSort = new RadixSort();
+        Record[] scratch = new Record[2000];
+
+        Record[] first = TestUtils.generateRandomRecords(2000);
+        Record[] second = TestUtils.generateRandomRecords(500);
+        radixSort.sort(first, scratch);
+        radixSort.sort(second, scratch);
+
+        assertTrue(TestUtils.isSorted(first));
+        assertTrue(TestUtils.isSorted(second));
+    }
+
+    @Test
+    @DisplayName("Should reject an invalid digit width")
+    void testInvalidRadixBits() {
+        assertThrows(IllegalArgumentException.class, () -> new RadixSort(0));
+        assertThrows(IllegalArgumentException.class, () -> new RadixSort(17));
+    }
+}
@@ -0,0 +1,53 @@
+package com.bookdepository.algorithms.sorting;
+
+import com.bookdepository.model.Record;
+import com.bookdepository.test.TestUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RankKeys.
+ */
+@DisplayName("RankKeys Tests")
+class RankKeysTest {
+
+    @Test
+    @DisplayName("Should apply a permutation in place")
+    void testApplyPermutation() {
+        Random random = new Random(42);
+        for (int size : new int[]{0, 1, 2, 17, 500}) {
+            Record[] records = TestUtils.generateRandomRecords(size);
+            Record[] original = records.clone();
+            long[] keys = RankKeys.pack(records);
+            for (int i = keys.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                long tmp = keys[i];
+                keys[i] = keys[j];
+                keys[j] = tmp;
+            }
+            long[] shuffled = keys.clone();
+
+            RankKeys.applyPermutation(records, keys);
+
+            for (int i = 0; i < records.length; i++) {
+                assertSame(original[RankKeys.index(shuffled[i])], records[i], "Wrong record at index " + i);
+                assertEquals(RankKeys.rank(shuffled[i]), RankKeys.rank(keys[i]), "Rank bits should be kept at index " + i);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should leave records alone for the identity permutation")
+    void testIdentity() {
+        Record[] records = TestUtils.generateRandomRecords(50);
+        Record[] original = records.clone();
+        long[] keys = RankKeys.pack(records);
+
+        RankKeys.applyPermutation(records, keys);
+
+        assertArrayEquals(original, records);
+        assertArrayEquals(RankKeys.pack(original), keys);
+    }
+}
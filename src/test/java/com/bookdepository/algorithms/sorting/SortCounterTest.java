@@ -0,0 +1,66 @@
+package com.bookdepository.algorithms.sorting;
+
+import com.bookdepository.io.PerformanceResult;
+import com.bookdepository.io.SortMetrics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SortCounter.
+ */
+@DisplayName("SortCounter Tests")
+class SortCounterTest {
+
+    @Test
+    @DisplayName("Should count past the int range and saturate the legacy result")
+    void testLongCounters() {
+        SortCounter counter = new SortCounter();
+        counter.start();
+        counter.addSwaps(3L * Integer.MAX_VALUE);
+        counter.stop();
+
+        SortMetrics metrics = counter.toMetrics();
+        PerformanceResult result = counter.toResult();
+
+        assertEquals(3L * Integer.MAX_VALUE, metrics.getSwaps());
+        assertEquals(Integer.MAX_VALUE, result.getSwaps());
+    }
+
+    @Test
+    @DisplayName("Should sum repeated phases and keep their order")
+    void testPhases() {
+        SortCounter counter = new SortCounter();
+        counter.start();
+        counter.endPhase("first", counter.startPhase());
+        counter.endPhase("second", counter.startPhase());
+        counter.endPhase("first", counter.startPhase());
+        counter.stop();
+        counter.endRemainderPhase("rest");
+
+        SortMetrics metrics = counter.toMetrics();
+
+        assertArrayEquals(new Object[] {"first", "second", "rest"}, metrics.getPhaseNanos().keySet().toArray());
+        long total = 0;
+        for (long nanos : metrics.getPhaseNanos().values()) {
+            total += nanos;
+        }
+        assertEquals(metrics.getExecutionTimeNanos(), total);
+    }
+
+    @Test
+    @DisplayName("Should clear counters and phases when restarted")
+    void testRestart() {
+        SortCounter counter = new SortCounter();
+        counter.start();
+        counter.addSwaps(5);
+        counter.endPhase("phase", counter.startPhase());
+        counter.stop();
+
+        counter.start();
+        counter.stop();
+
+        assertEquals(0, counter.getSwaps());
+        assertTrue(counter.toMetrics().getPhaseNanos().isEmpty());
+    }
+}
@@ -0,0 +1,59 @@
+package com.bookdepository.algorithms.sorting;
+
+import com.bookdepository.model.Record;
+import com.bookdepository.test.TestUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SortWorkspace.
+ */
+@DisplayName("SortWorkspace Tests")
+class SortWorkspaceTest {
+
+    @Test
+    @DisplayName("Should refill the same buffer with the original prefix")
+    void testFillReusesBuffer() {
+        Record[] master = TestUtils.generateRandomRecords(100);
+        Record[] original = master.clone();
+        SortWorkspace workspace = new SortWorkspace(Arrays.asList(master));
+
+        Record[] first = workspace.fill(50);
+        new QuickSort().sort(first);
+        Record[] second = workspace.fill(50);
+
+        assertSame(first, second);
+        assertEquals(50, second.length);
+        for (int i = 0; i < second.length; i++) {
+            assertSame(original[i], second[i], "Buffer should hold the original order at index " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Should give each thread its own buffer")
+    void testBuffersPerThread() throws InterruptedException {
+        SortWorkspace workspace = new SortWorkspace(TestUtils.generateRandomRecords(100));
+        Record[] mine = workspace.fill(100);
+        AtomicReference<Record[]> theirs = new AtomicReference<>();
+
+        Thread thread = new Thread(() -> theirs.set(workspace.fill(100)));
+        thread.start();
+        thread.join();
+
+        assertNotNull(theirs.get());
+        assertNotSame(mine, theirs.get());
+    }
+
+    @Test
+    @DisplayName("Should reject sizes outside the snapshot")
+    void testInvalidSize() {
+        SortWorkspace workspace = new SortWorkspace(TestUtils.generateRandomRecords(10));
+
+        assertEquals(10, workspace.size());
+        assertThrows(IllegalArgumentException.class, () -> workspace.fill(11));
+        assertThrows(IllegalArgumentException.class, () -> workspace.fill(-1));
+    }
+}
@@ -0,0 +1,74 @@
+package com.bookdepository.algorithms.sorting;
+
+import com.bookdepository.model.Record;
+import com.bookdepository.io.PerformanceResult;
+import com.bookdepository.test.TestUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SorterRegistry.
+ */
+@DisplayName("SorterRegistry Tests")
+class SorterRegistryTest {
+
+    @Test
+    @DisplayName("Every registered algorithm should sort and report under its name")
+    void testAllRegisteredSorters() {
+        for (String name : SorterRegistry.getNames()) {
+            Sorter sorter = SorterRegistry.create(name);
+            Record[] records = TestUtils.generateDuplicateHeavyRecords(2000, 0.2, 300);
+
+            PerformanceResult result = sorter.sort(records);
+
+            assertEquals(name, sorter.getName());
+            assertNotNull(result, name + " should return a result");
+            assertTrue(TestUtils.isSorted(records), name + " should sort correctly");
+        }
+    }
+
+    @Test
+    @DisplayName("Should look up names case-insensitively and create fresh instances")
+    void testCreateCaseInsensitive() {
+        Sorter first = SorterRegistry.create("quicksort");
+        Sorter second = SorterRegistry.create("QUICKSORT");
+
+        assertTrue(first instanceof QuickSort);
+        assertNotSame(first, second);
+    }
+
+    @Test
+    @DisplayName("Should create several algorithms from names and comma-separated lists")
+    void testCreateAll() {
+        List<Sorter> sorters = SorterRegistry.createAll("QuickSort,HeapSort", "RadixSort11");
+
+        assertEquals(3, sorters.size());
+        assertEquals("QuickSort", sorters.get(0).getName());
+        assertEquals("HeapSort", sorters.get(1).getName());
+        assertEquals("RadixSort11", sorters.get(2).getName());
+    }
+
+    @Test
+    @DisplayName("Should register additional algorithms")
+    void testRegister() {
+        SorterRegistry.register("TestIntroSort", () -> new IntroSort() {
+            @Override
+            public String getName() {
+                return "TestIntroSort";
+            }
+        });
+
+        assertTrue(SorterRegistry.create("TestIntroSort") instanceof IntroSort);
+    }
+
+    @Test
+    @DisplayName("Should reject unknown algorithm names")
+    void testUnknownName() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> SorterRegistry.create("BogoSort"));
+
+        assertTrue(e.getMessage().contains("QuickSort"));
+    }
+}
@@ -0,0 +1,105 @@
+package com.bookdepository.algorithms.sorting;
+
+import com.bookdepository.model.Record;
+import com.bookdepository.io.PerformanceResult;
+import com.bookdepository.test.TestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ThreeWayQuickSort algorithm.
+ */
+@DisplayName("ThreeWayQuickSort Tests")
+class ThreeWayQuickSortTest {
+
+    private ThreeWayQuickSort threeWayQuickSort;
+
+    @BeforeEach
+    void setUp() {
+        threeWayQuickSort = new ThreeWayQuickSort();
+    }
+
+    @Test
+    @DisplayName("Should handle null and empty arrays")
+    void testSortNullAndEmpty() {
+        PerformanceResult nullResult = threeWayQuickSort.sort(null);
+        PerformanceResult emptyResult = threeWayQuickSort.sort(new Record[0]);
+
+        assertEquals(0, nullResult.getComparisons());
+        assertEquals(0, emptyResult.getSwaps());
+    }
+
+    @Test
+    @DisplayName("Should sort array with zero ranks")
+    void testSortWithZeroRanks() {
+        Record[] records = {
+            TestUtils.createRecord(1, 0),
+            TestUtils.createRecord(2, 3),
+            TestUtils.createRecord(3, 1),
+            TestUtils.createRecord(4, 0),
+            TestUtils.createRecord(5, 3)
+        };
+
+        threeWayQuickSort.sort(records);
+
+        assertTrue(TestUtils.isSorted(records));
+        assertEquals(0, records[3].getBestsellersRank());
+        assertEquals(0, records[4].getBestsellersRank());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100, 1000, 10000})
+    @DisplayName("Should sort random arrays of different sizes")
+    void testSortDifferentSizes(int size) {
+        Record[] records = TestUtils.generateRandomRecords(size);
+        PerformanceResult result = threeWayQuickSort.sort(records);
+
+        assertTrue(TestUtils.isSorted(records));
+        assertTrue(result.getComparisons() > 0);
+    }
+
+    @Test
+    @DisplayName("Should sort sorted and reverse sorted input")
+    void testSortSortedAndReverse() {
+        Record[] sorted = TestUtils.generateSortedRecords(100000);
+        Record[] reverse = TestUtils.generateReverseSortedRecords(100000);
+
+        threeWayQuickSort.sort(sorted);
+        threeWayQuickSort.sort(reverse);
+
+        assertTrue(TestUtils.isSorted(sorted));
+        assertTrue(TestUtils.isSorted(reverse));
+    }
+
+    @Test
+    @DisplayName("Should sort duplicate-heavy input in close to linear comparisons")
+    void testSortDuplicateHeavyInput() {
+        int size = 100000;
+        Record[] records = TestUtils.generateDuplicateHeavyRecords(size, 0.4, 50);
+
+        PerformanceResult result = threeWayQuickSort.sort(records);
+
+        assertTrue(TestUtils.isSorted(records));
+        // About log2(51) partitioning levels over the whole array
+        assertTrue(result.getComparisons() < size * 20L,
+            "Too many comparisons for duplicate-heavy input");
+    }
+
+    @Test
+    @DisplayName("Should sort array with all same ranks in one pass")
+    void testSortAllSameRanks() {
+        Record[] records = new Record[1000];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = TestUtils.createRecord(i + 1, 0);
+        }
+
+        PerformanceResult result = threeWayQuickSort.sort(records);
+
+        assertTrue(TestUtils.isSorted(records));
+        assertTrue(result.getComparisons() < 2 * records.length);
+    }
+}
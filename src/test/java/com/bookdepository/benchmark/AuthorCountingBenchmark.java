@@ -0,0 +1,155 @@
+package com.bookdepository.benchmark;
+
+import com.bookdepository.experiments.HashTableExperiment;
+import com.bookdepository.io.RecordSource;
+import com.bookdepository.model.Author;
+import com.bookdepository.model.Record;
+import com.bookdepository.model.RecordStore;
+import com.bookdepository.structures.hashtable.AuthorFrequencyTable;
+import com.bookdepository.structures.hashtable.AuthorHashTable;
+import com.bookdepository.structures.hashtable.ParallelAuthorCounter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH microbenchmarks for author frequency counting.
+ * 
+ * Compares the insertOrIncrement loop of {@link HashTableExperiment} over
+ * {@link AuthorHashTable} with ordinal counting in {@link AuthorFrequencyTable},
+ * sequential and on a {@link ParallelAuthorCounter} with 1 to 64 threads.
+ * The records are synthetic, with a skewed author popularity like the dataset's.
+ * 
+ * Usage: mvn test -Dtest=AuthorCountingBenchmark
+ * Or: java -jar target/benchmarks.jar AuthorCountingBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class AuthorCountingBenchmark {
+
+    @Param({"1", "4", "16", "64"})
+    public int threads;
+
+    @Param({"1000000"})
+    public int records;
+
+    @Param({"200000"})
+    public int authors;
+
+    private RecordStore store;
+    private List<Record> recordList;
+    private Map<String, Author> authorMap;
+    private ForkJoinPool pool;
+    private ParallelAuthorCounter counter;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        authorMap = new HashMap<>();
+        for (int i = 0; i < authors; i++) {
+            authorMap.put("A" + i, new Author("A" + i, "Author " + i));
+        }
+        RecordStore.Builder builder = new RecordStore.Builder(records);
+        recordList = new ArrayList<>(records);
+        for (int i = 0; i < records; i++) {
+            List<String> ids = new ArrayList<>();
+            for (int k = 1 + random.nextInt(3); k > 0; k--) {
+                // Squaring a uniform value favours low ids, as popular authors are
+                double u = random.nextDouble();
+                ids.add("A" + (int) (u * u * authors));
+            }
+            builder.add(String.valueOf(i), i, Float.NaN, Float.NaN, ids);
+            Record record = new Record();
+            record.setId(String.valueOf(i));
+            record.setAuthors(ids);
+            recordList.add(record);
+        }
+        store = builder.build();
+        pool = new ForkJoinPool(threads);
+        counter = new ParallelAuthorCounter(ParallelAuthorCounter.DEFAULT_THRESHOLD, pool);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Current path: one String lookup and one insertOrIncrement per occurrence.
+     * Single-threaded; repeated for every thread count as the baseline.
+     */
+    @Benchmark
+    public AuthorHashTable authorHashTable() {
+        AuthorHashTable table = HashTableExperiment.newAuthorHashTable(authorMap);
+        HashTableExperiment.countAuthors(new ListSource(recordList), authorMap, table, new ArrayList<>());
+        return table;
+    }
+
+    @Benchmark
+    public AuthorFrequencyTable ordinalTable() {
+        AuthorFrequencyTable table = new AuthorFrequencyTable(store.getDistinctAuthorCount());
+        table.countAll(store);
+        return table;
+    }
+
+    @Benchmark
+    public AuthorFrequencyTable parallelOrdinals() {
+        return counter.count(store);
+    }
+
+    /**
+     * Records already in memory, served as a record source so the benchmark
+     * times counting and not CSV parsing.
+     */
+    private static final class ListSource implements RecordSource {
+        private final Iterator<Record> records;
+
+        ListSource(List<Record> records) {
+            this.records = records.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return records.hasNext();
+        }
+
+        @Override
+        public Record next() {
+            return records.next();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Main method to run benchmarks.
+     * Can be executed directly or via Maven.
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(AuthorCountingBenchmark.class.getSimpleName())
+                .forks(1)
+                .warmupIterations(2)
+                .measurementIterations(3)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
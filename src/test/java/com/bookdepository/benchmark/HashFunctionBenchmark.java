@@ -0,0 +1,136 @@
+package com.bookdepository.benchmark;
+
+import com.bookdepository.io.RecordReaders;
+import com.bookdepository.io.RecordSnapshot;
+import com.bookdepository.io.RecordStream;
+import com.bookdepository.model.Record;
+import com.bookdepository.structures.hashtable.DoubleHashingRecordTable;
+import com.bookdepository.structures.hashtable.ProbeHistogram;
+import com.bookdepository.structures.hashtable.RecordTable;
+import com.bookdepository.structures.hashtable.RobinHoodRecordTable;
+import com.bookdepository.structures.hashtable.StandardHashFunction;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH microbenchmarks for the hash functions of author ids.
+ * 
+ * Uses the author ids of data/authors.csv, or sequential numeric ids like
+ * the dataset's when the file is missing. Measures hashing every id, and
+ * looking every id up in a double-hashing and a Robin Hood table built with
+ * the function, both at most 0.75 full. The probe-length distribution of
+ * both tables is printed at setup.
+ * 
+ * Usage: mvn test -Dtest=HashFunctionBenchmark
+ * Or: java -jar target/benchmarks.jar HashFunctionBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class HashFunctionBenchmark {
+
+    private static final double LOAD_FACTOR = 0.75;
+
+    @Param({"STRING_HASH_CODE", "MURMUR3_FINALIZER", "XXHASH32"})
+    public StandardHashFunction function;
+
+    @Param({"1000000"})
+    public int syntheticAuthors;
+
+    private String[] keys;
+    private RecordTable doubleHashing;
+    private RecordTable robinHood;
+
+    @Setup
+    public void setup() throws IOException {
+        if (Files.exists(Paths.get(RecordSnapshot.DEFAULT_AUTHORS_FILE))) {
+            keys = RecordReaders.readAuthorsMap(RecordStream.DEFAULT_RECORDS_FILE).keySet().toArray(new String[0]);
+        } else {
+            System.out.println("\n" + RecordSnapshot.DEFAULT_AUTHORS_FILE + " not found; using "
+                + syntheticAuthors + " sequential ids");
+            keys = new String[syntheticAuthors];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = String.valueOf(i + 1);
+            }
+        }
+        doubleHashing = new DoubleHashingRecordTable(keys.length, LOAD_FACTOR, false, function);
+        robinHood = new RobinHoodRecordTable(keys.length, LOAD_FACTOR, function);
+        for (String key : keys) {
+            Record record = new Record();
+            record.setId(key);
+            doubleHashing.put(record);
+            robinHood.put(record);
+        }
+        print("double hashing", doubleHashing);
+        print("Robin Hood", robinHood);
+    }
+
+    private void print(String name, RecordTable table) {
+        ProbeHistogram histogram = table.getProbeHistogram();
+        System.out.println(String.format(Locale.ROOT,
+            "%n%s, %s, %d keys, load %.3f: mean %.3f, p99 %d, p99.9 %d, max %d, histogram %s",
+            function, name, keys.length, table.getLoadFactor(), histogram.getMean(),
+            histogram.getPercentile(0.99), histogram.getPercentile(0.999), histogram.getMax(), histogram));
+    }
+
+    /**
+     * Hashes every author id once.
+     */
+    @Benchmark
+    public int hashAll() {
+        int combined = 0;
+        for (String key : keys) {
+            combined += function.hash(key);
+        }
+        return combined;
+    }
+
+    @Benchmark
+    public int doubleHashingLookupAll() {
+        int found = 0;
+        for (String key : keys) {
+            if (doubleHashing.get(key) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int robinHoodLookupAll() {
+        int found = 0;
+        for (String key : keys) {
+            if (robinHood.get(key) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Main method to run benchmarks.
+     * Can be executed directly or via Maven.
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(HashFunctionBenchmark.class.getSimpleName())
+                .forks(1)
+                .warmupIterations(2)
+                .measurementIterations(3)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
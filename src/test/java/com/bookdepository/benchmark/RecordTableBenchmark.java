@@ -0,0 +1,134 @@
+package com.bookdepository.benchmark;
+
+import com.bookdepository.model.Record;
+import com.bookdepository.structures.hashtable.DoubleHashingRecordTable;
+import com.bookdepository.structures.hashtable.ProbeHistogram;
+import com.bookdepository.structures.hashtable.RecordTable;
+import com.bookdepository.structures.hashtable.RobinHoodRecordTable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH microbenchmarks for record tables keyed by id.
+ * 
+ * Compares double hashing, the scheme of RecordHashTable, with Robin Hood
+ * linear probing at the same capacity and load factor. Hits look up stored
+ * ids and misses look up absent ones, both in random order. The probe-length
+ * histogram of each table is printed at setup.
+ * 
+ * Usage: mvn test -Dtest=RecordTableBenchmark
+ * Or: java -jar target/benchmarks.jar RecordTableBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class RecordTableBenchmark {
+
+    private static final int CAPACITY = 1 << 20;
+
+    @Param({"DoubleHashing", "RobinHood"})
+    public String table;
+
+    @Param({"0.5", "0.75", "0.9"})
+    public double loadFactor;
+
+    private RecordTable filled;
+    private Record[] records;
+    private String[] hits;
+    private String[] misses;
+    private int next;
+
+    @Setup
+    public void setup() {
+        int size = (int) (CAPACITY * loadFactor);
+        Random random = new Random(42);
+        records = new Record[size];
+        hits = new String[size];
+        misses = new String[size];
+        for (int i = 0; i < size; i++) {
+            // ISBN-like ids, as in the dataset
+            records[i] = new Record();
+            records[i].setId(String.valueOf(9780000000000L + 2L * random.nextInt(500000000)));
+            hits[i] = records[i].getId();
+            misses[i] = String.valueOf(9790000000001L + 2L * random.nextInt(500000000));
+        }
+        filled = create();
+        for (Record record : records) {
+            filled.put(record);
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            String swap = hits[i];
+            hits[i] = hits[j];
+            hits[j] = swap;
+        }
+        ProbeHistogram histogram = filled.getProbeHistogram();
+        System.out.println(String.format(Locale.ROOT,
+            "%n%s load %.3f: mean %.3f, p99 %d, max %d, histogram %s",
+            table, filled.getLoadFactor(), histogram.getMean(), histogram.getPercentile(0.99),
+            histogram.getMax(), histogram));
+    }
+
+    /**
+     * Creates an empty table with the benchmark capacity, growing only past the load factor.
+     */
+    private RecordTable create() {
+        // Allow a little more than the load factor, so the table keeps CAPACITY slots
+        double maxLoad = Math.min(loadFactor + 0.01, 0.99);
+        int expected = (int) (CAPACITY * loadFactor);
+        return "RobinHood".equals(table)
+            ? new RobinHoodRecordTable(expected, maxLoad)
+            : new DoubleHashingRecordTable(expected, maxLoad);
+    }
+
+    @Benchmark
+    public Record lookupHit() {
+        next = (next + 1) % hits.length;
+        return filled.get(hits[next]);
+    }
+
+    @Benchmark
+    public Record lookupMiss() {
+        next = (next + 1) % misses.length;
+        return filled.get(misses[next]);
+    }
+
+    /**
+     * Fills an empty table; reported per table, not per record.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public RecordTable insertAll() {
+        RecordTable empty = create();
+        for (Record record : records) {
+            empty.put(record);
+        }
+        return empty;
+    }
+
+    /**
+     * Main method to run benchmarks.
+     * Can be executed directly or via Maven.
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(RecordTableBenchmark.class.getSimpleName())
+                .forks(1)
+                .warmupIterations(2)
+                .measurementIterations(3)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,94 @@
+package com.bookdepository.benchmark;
+
+import com.bookdepository.model.Record;
+import com.bookdepository.structures.hashtable.AuthorFrequencyTable;
+import com.bookdepository.structures.hashtable.DoubleHashingRecordTable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH latency benchmarks for inserts into growing hash tables.
+ * 
+ * Every invocation inserts one new key into a table that starts small, so the
+ * samples include the inserts that trigger a resize. Sample-time mode reports
+ * the p99, p99.9 and maximum insert times, comparing resizing in one go with
+ * incremental resizing. A table that has taken every key is replaced by an
+ * empty one.
+ * 
+ * Usage: mvn test -Dtest=ResizeLatencyBenchmark
+ * Or: java -jar target/benchmarks.jar ResizeLatencyBenchmark
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class ResizeLatencyBenchmark {
+
+    @Param({"false", "true"})
+    public boolean incremental;
+
+    @Param({"2097152"})
+    public int keys;
+
+    private Record[] records;
+    private AuthorFrequencyTable frequencies;
+    private DoubleHashingRecordTable recordTable;
+    private int nextOrdinal;
+    private int nextRecord;
+
+    @Setup
+    public void setup() {
+        records = new Record[keys];
+        for (int i = 0; i < keys; i++) {
+            records[i] = new Record();
+            records[i].setId(String.valueOf(9780000000000L + i));
+        }
+        frequencies = new AuthorFrequencyTable(16, incremental);
+        recordTable = newRecordTable();
+    }
+
+    private DoubleHashingRecordTable newRecordTable() {
+        return new DoubleHashingRecordTable(16, DoubleHashingRecordTable.DEFAULT_MAX_LOAD_FACTOR, incremental);
+    }
+
+    @Benchmark
+    public AuthorFrequencyTable authorFrequencyInsert() {
+        if (nextOrdinal == keys) {
+            frequencies = new AuthorFrequencyTable(16, incremental);
+            nextOrdinal = 0;
+        }
+        frequencies.increment(nextOrdinal++);
+        return frequencies;
+    }
+
+    @Benchmark
+    public Record recordInsert() {
+        if (nextRecord == keys) {
+            recordTable = newRecordTable();
+            nextRecord = 0;
+        }
+        return recordTable.put(records[nextRecord++]);
+    }
+
+    /**
+     * Main method to run benchmarks.
+     * Can be executed directly or via Maven.
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(ResizeLatencyBenchmark.class.getSimpleName())
+                .forks(1)
+                .warmupIterations(2)
+                .measurementIterations(3)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
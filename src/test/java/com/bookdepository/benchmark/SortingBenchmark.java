@@ -1,10 +1,12 @@
 package com.bookdepository.benchmark;
 
-import com.bookdepository.algorithms.sorting.QuickSort;
-import com.bookdepository.algorithms.sorting.HeapSort;
+import com.bookdepository.algorithms.sorting.SortWorkspace;
+import com.bookdepository.algorithms.sorting.Sorter;
+import com.bookdepository.algorithms.sorting.SorterRegistry;
 import com.bookdepository.model.Record;
 import com.bookdepository.test.TestUtils;
 import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
 import org.openjdk.jmh.runner.options.Options;
@@ -16,6 +18,14 @@ import java.util.concurrent.TimeUnit;
  * JMH microbenchmarks for sorting algorithms.
  * Run this class to execute performance benchmarks.
  * 
+ * Algorithms are looked up by name in {@link SorterRegistry}. By default every
+ * registered algorithm runs on every size and input distribution; pass names
+ * to main, or -p algorithm=QuickSort,IntroSort to the JMH jar, to pick a subset.
+ * 
+ * Each invocation refills a per-thread buffer from a {@link SortWorkspace}
+ * instead of cloning the input, so the timings carry no copy allocations.
+ * main() adds the GC profiler, which reports the allocation rate of each run.
+ * 
  * Usage: mvn test -Dtest=SortingBenchmark
  * Or: java -jar target/benchmarks.jar
  */
@@ -24,90 +34,74 @@ import java.util.concurrent.TimeUnit;
 @State(Scope.Benchmark)
 @Warmup(iterations = 2, time = 1, timeUnit = TimeUnit.SECONDS)
 @Measurement(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
-@Fork(1)
+// Plain QuickSort recurses once per equal rank on the duplicate-heavy input
+@Fork(value = 1, jvmArgsAppend = "-Xss64m")
 public class SortingBenchmark {
 
-    private Record[] records100;
-    private Record[] records1000;
-    private Record[] records10000;
-    private Record[] records50000;
-    
-    private QuickSort quickSort;
-    private HeapSort heapSort;
+    /**
+     * Share of unranked (rank 0) records in the duplicate-heavy inputs.
+     */
+    private static final double ZERO_RANK_RATIO = 0.4;
 
-    @Setup
-    public void setup() {
-        quickSort = new QuickSort();
-        heapSort = new HeapSort();
-        
-        // Generate test data once
-        records100 = TestUtils.generateRandomRecords(100);
-        records1000 = TestUtils.generateRandomRecords(1000);
-        records10000 = TestUtils.generateRandomRecords(10000);
-        records50000 = TestUtils.generateRandomRecords(50000);
-    }
+    /**
+     * Number of distinct non-zero ranks in the duplicate-heavy inputs.
+     */
+    private static final int DISTINCT_RANKS = 200;
 
-    @Benchmark
-    public void quickSort100() {
-        Record[] copy = TestUtils.cloneRecords(records100);
-        quickSort.sort(copy);
-    }
+    @Param({"QuickSort", "HeapSort", "QuickSortRankKey", "HeapSortRankKey", "ParallelQuickSort",
+            "IntroSort", "ThreeWayQuickSort", "BottomUpHeapSort", "BottomUpHeapSort4",
+            "BottomUpHeapSort8", "RadixSort", "RadixSort11"})
+    public String algorithm;
 
-    @Benchmark
-    public void quickSort1000() {
-        Record[] copy = TestUtils.cloneRecords(records1000);
-        quickSort.sort(copy);
-    }
+    @Param({"100", "1000", "10000", "50000"})
+    public int size;
 
-    @Benchmark
-    public void quickSort10000() {
-        Record[] copy = TestUtils.cloneRecords(records10000);
-        quickSort.sort(copy);
-    }
-
-    @Benchmark
-    public void quickSort50000() {
-        Record[] copy = TestUtils.cloneRecords(records50000);
-        quickSort.sort(copy);
-    }
-
-    @Benchmark
-    public void heapSort100() {
-        Record[] copy = TestUtils.cloneRecords(records100);
-        heapSort.sort(copy);
-    }
+    /**
+     * Input distribution: "random" ranks 1-1000, or "duplicates" with
+     * dataset-like shares of zero and repeated ranks.
+     */
+    @Param({"random", "duplicates"})
+    public String distribution;
 
-    @Benchmark
-    public void heapSort1000() {
-        Record[] copy = TestUtils.cloneRecords(records1000);
-        heapSort.sort(copy);
-    }
+    private SortWorkspace workspace;
+    private Sorter sorter;
 
-    @Benchmark
-    public void heapSort10000() {
-        Record[] copy = TestUtils.cloneRecords(records10000);
-        heapSort.sort(copy);
+    @Setup
+    public void setup() {
+        sorter = SorterRegistry.create(algorithm);
+        
+        // Generate test data once
+        Record[] records;
+        if ("duplicates".equals(distribution)) {
+            records = TestUtils.generateDuplicateHeavyRecords(size, ZERO_RANK_RATIO, DISTINCT_RANKS);
+        } else {
+            records = TestUtils.generateRandomRecords(size);
+        }
+        workspace = new SortWorkspace(records);
     }
 
     @Benchmark
-    public void heapSort50000() {
-        Record[] copy = TestUtils.cloneRecords(records50000);
-        heapSort.sort(copy);
+    public void sort() {
+        sorter.sort(workspace.fill(size));
     }
 
     /**
      * Main method to run benchmarks.
      * Can be executed directly or via Maven.
+     * Arguments, if any, are the names of the algorithms to benchmark.
      */
     public static void main(String[] args) throws RunnerException {
-        Options opt = new OptionsBuilder()
-                .include(SortingBenchmark.class.getSimpleName())
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.include(SortingBenchmark.class.getSimpleName())
                 .forks(1)
                 .warmupIterations(2)
                 .measurementIterations(3)
-                .build();
+                .addProfiler(GCProfiler.class);
+        if (args.length > 0) {
+            builder.param("algorithm", args);
+        }
+        Options opt = builder.build();
 
         new Runner(opt).run();
     }
 }
-
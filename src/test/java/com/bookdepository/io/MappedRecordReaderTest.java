@@ -0,0 +1,110 @@
+package com.bookdepository.io;
+
+import com.bookdepository.model.Record;
+import com.bookdepository.test.ResourceLoader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumSet;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MappedRecordReader.
+ */
+@DisplayName("MappedRecordReader Tests")
+class MappedRecordReaderTest {
+
+    private static final String QUOTED_CSV = "\uFEFFid,title,authors,bestsellers-rank,rating\r\n"
+        + "1,\"Title, with comma\",\"[1, 2]\",7,4.5\r\n"
+        + "2,\"Two\r\nlines \"\"quoted\"\"\",[3],,3.9\r\n"
+        + "\r\n"
+        + "3,A\u00e7\u00e3o,[],\"12\",4.0\r\n"
+        + "4,Last,[5],1234567890,1.0";
+
+    private static String samplePath() throws URISyntaxException {
+        return Paths.get(ResourceLoader.class.getResource(ResourceLoader.Paths.SAMPLE_RECORDS).toURI()).toString();
+    }
+
+    private static Path writeTemp(String content) throws IOException {
+        Path file = Files.createTempFile("records", ".csv");
+        file.toFile().deleteOnExit();
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static void assertSameRecords(List<Record> expected, List<Record> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Record a = expected.get(i);
+            Record b = actual.get(i);
+            assertEquals(a.getId(), b.getId(), "Id at " + i);
+            assertEquals(a.getTitle(), b.getTitle(), "Title at " + i);
+            assertEquals(a.getAuthors(), b.getAuthors(), "Authors at " + i);
+            assertEquals(a.getBestsellersRank(), b.getBestsellersRank(), "Rank at " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Should read the same records as RecordStream from the fixture")
+    void testMatchesRecordStreamOnFixture() throws Exception {
+        String path = samplePath();
+        try (RecordSource expected = RecordStream.open(path);
+             RecordSource actual = new MappedRecordReader(path)) {
+            assertSameRecords(expected.nextChunk(100), actual.nextChunk(100));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 16, 1 << 20})
+    @DisplayName("Should match RecordStream on quoted rows for any window size")
+    void testMatchesRecordStreamOnQuotedRows(int windowSize) throws IOException {
+        Path file = writeTemp(QUOTED_CSV);
+        try (RecordSource expected = new RecordStream(new StringReader(QUOTED_CSV));
+             RecordSource actual = new MappedRecordReader(file.toString(),
+                 EnumSet.allOf(RecordField.class), windowSize)) {
+            List<Record> records = actual.nextChunk(100);
+            assertSameRecords(expected.nextChunk(100), records);
+            assertEquals("Two\r\nlines \"quoted\"", records.get(1).getTitle());
+            assertEquals("A\u00e7\u00e3o", records.get(2).getTitle());
+            assertEquals(12, records.get(2).getBestsellersRank());
+            assertEquals(1234567890, records.get(3).getBestsellersRank());
+        }
+    }
+
+    @Test
+    @DisplayName("Should only build the requested fields")
+    void testRequestedFieldsOnly() throws Exception {
+        try (MappedRecordReader reader = new MappedRecordReader(samplePath(),
+                EnumSet.of(RecordField.RANK, RecordField.AUTHORS))) {
+            Record first = reader.next();
+
+            assertNull(first.getId());
+            assertNull(first.getTitle());
+            assertEquals(5, first.getBestsellersRank());
+            assertEquals("A1", first.getAuthors().get(0));
+        }
+    }
+
+    @Test
+    @DisplayName("Should select readers by name")
+    void testReaderSelection() throws Exception {
+        String path = samplePath();
+        EnumSet<RecordField> fields = EnumSet.allOf(RecordField.class);
+
+        try (RecordSource stream = RecordReaders.open("stream", path, fields);
+             RecordSource mapped = RecordReaders.open("MMAP", path, fields)) {
+            assertTrue(stream instanceof RecordStream);
+            assertTrue(mapped instanceof MappedRecordReader);
+        }
+        assertThrows(IllegalArgumentException.class, () -> RecordReaders.open("other", path, fields));
+    }
+}
@@ -0,0 +1,113 @@
+package com.bookdepository.io;
+
+import com.bookdepository.model.Record;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ParallelRecordLoader.
+ */
+@DisplayName("ParallelRecordLoader Tests")
+class ParallelRecordLoaderTest {
+
+    private static final EnumSet<RecordField> ALL_FIELDS = EnumSet.allOf(RecordField.class);
+
+    /**
+     * Builds a CSV whose titles contain commas, escaped quotes and line breaks.
+     */
+    private static String generateCsv(int rows) {
+        Random random = new Random(42);
+        StringBuilder csv = new StringBuilder("id,title,authors,bestsellers-rank\r\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append(i).append(',');
+            switch (random.nextInt(4)) {
+                case 0:
+                    csv.append("Plain ").append(i);
+                    break;
+                case 1:
+                    csv.append("\"Comma, ").append(i).append('"');
+                    break;
+                case 2:
+                    csv.append("\"Line\r\nbreak \"\"").append(i).append("\"\"\"");
+                    break;
+                default:
+                    csv.append("\"Many\n\n\"\"lines\"\"\n").append(i).append('"');
+                    break;
+            }
+            csv.append(",\"[").append(random.nextInt(50)).append(", ").append(random.nextInt(50)).append("]\",")
+                .append(random.nextInt(10) == 0 ? "" : String.valueOf(random.nextInt(100000)))
+                .append("\r\n");
+        }
+        return csv.toString();
+    }
+
+    private static Path writeTemp(String content) throws IOException {
+        Path file = Files.createTempFile("records", ".csv");
+        file.toFile().deleteOnExit();
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static void assertSameRecords(List<Record> expected, List<Record> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getId(), actual.get(i).getId(), "Id at " + i);
+            assertEquals(expected.get(i).getTitle(), actual.get(i).getTitle(), "Title at " + i);
+            assertEquals(expected.get(i).getAuthors(), actual.get(i).getAuthors(), "Authors at " + i);
+            assertEquals(expected.get(i).getBestsellersRank(), actual.get(i).getBestsellersRank(), "Rank at " + i);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {7, 64, 1000, 1 << 20})
+    @DisplayName("Should load the same records in the same order as RecordStream")
+    void testLoadMatchesRecordStream(int chunkBytes) throws IOException {
+        String csv = generateCsv(500);
+        Path file = writeTemp(csv);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try (RecordStream expected = new RecordStream(new StringReader(csv))) {
+            List<Record> records = new ParallelRecordLoader(chunkBytes, pool).load(file.toString(), ALL_FIELDS);
+
+            assertSameRecords(expected.nextChunk(Integer.MAX_VALUE), records);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {16, 1000})
+    @DisplayName("Should stream chunks in file order and stop early")
+    void testOpenStreamsInOrder(int chunkBytes) throws IOException {
+        String csv = generateCsv(300);
+        Path file = writeTemp(csv);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try (RecordStream expected = new RecordStream(new StringReader(csv));
+             RecordSource actual = new ParallelRecordLoader(chunkBytes, pool).open(file.toString(), ALL_FIELDS)) {
+            assertSameRecords(expected.nextChunk(120), actual.nextChunk(120));
+            assertSameRecords(expected.nextChunk(Integer.MAX_VALUE), actual.nextChunk(Integer.MAX_VALUE));
+            assertFalse(actual.hasNext());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should load a file without data rows")
+    void testHeaderOnly() throws IOException {
+        Path file = writeTemp("id,title,authors,bestsellers_rank\n");
+
+        assertTrue(new ParallelRecordLoader(4).load(file.toString(), ALL_FIELDS).isEmpty());
+    }
+}
@@ -0,0 +1,182 @@
+package com.bookdepository.io;
+
+import com.bookdepository.model.Author;
+import com.bookdepository.model.Record;
+import com.bookdepository.test.ResourceLoader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RecordSnapshot.
+ */
+@DisplayName("RecordSnapshot Tests")
+class RecordSnapshotTest {
+
+    private Path recordsCsv;
+    private Path authorsCsv;
+    private Path snapshotFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path directory = Files.createTempDirectory("snapshot");
+        directory.toFile().deleteOnExit();
+        recordsCsv = copyResource(ResourceLoader.Paths.SAMPLE_RECORDS, directory.resolve("records.csv"));
+        authorsCsv = copyResource(ResourceLoader.Paths.SAMPLE_AUTHORS, directory.resolve("authors.csv"));
+        snapshotFile = directory.resolve("records.csv" + RecordSnapshot.SNAPSHOT_SUFFIX);
+        snapshotFile.toFile().deleteOnExit();
+    }
+
+    private static Path copyResource(String resource, Path target) throws IOException {
+        try (InputStream in = ResourceLoader.getResourceAsStream(resource)) {
+            Files.copy(in, target);
+        }
+        target.toFile().deleteOnExit();
+        return target;
+    }
+
+    /**
+     * Authors of sample-authors.csv, as FileReader reads them.
+     */
+    private static Map<String, Author> sampleAuthors() {
+        String[] names = {"Author One", "Author Two", "Author Three", "Author Four", "Author Five"};
+        Map<String, Author> authors = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            authors.put("A" + (i + 1), new Author("A" + (i + 1), names[i]));
+        }
+        return authors;
+    }
+
+    private RecordSnapshot openOrBuild() throws IOException {
+        return RecordSnapshot.openOrBuild(recordsCsv.toString(), authorsCsv.toString(),
+            RecordSnapshotTest::sampleAuthors, snapshotFile.toString());
+    }
+
+    private RecordSnapshot openExisting() throws IOException {
+        return RecordSnapshot.open(recordsCsv.toString(), authorsCsv.toString(), snapshotFile.toString());
+    }
+
+    private RecordSnapshot openVerified() throws IOException {
+        return RecordSnapshot.open(recordsCsv.toString(), authorsCsv.toString(), snapshotFile.toString(), true);
+    }
+
+    @Test
+    @DisplayName("Should read back the same records as the CSV")
+    void testRoundTrip() throws IOException {
+        RecordSnapshot snapshot = openOrBuild();
+
+        List<Record> expected;
+        try (RecordStream stream = RecordStream.open(recordsCsv.toString())) {
+            expected = stream.nextChunk(Integer.MAX_VALUE);
+        }
+        List<Record> actual;
+        try (RecordSource source = snapshot.source(EnumSet.allOf(RecordField.class))) {
+            actual = source.nextChunk(Integer.MAX_VALUE);
+        }
+
+        assertEquals(expected.size(), snapshot.size());
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getId(), actual.get(i).getId());
+            assertEquals(expected.get(i).getTitle(), actual.get(i).getTitle());
+            assertEquals(expected.get(i).getAuthors(), actual.get(i).getAuthors());
+            assertEquals(expected.get(i).getBestsellersRank(), actual.get(i).getBestsellersRank());
+            assertEquals(expected.get(i).getBestsellersRank(), snapshot.getRank(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Should carry the authors of authors.csv")
+    void testAuthorsMap() throws IOException {
+        Map<String, Author> authors = openOrBuild().getAuthorsMap();
+
+        assertEquals(5, authors.size());
+        assertEquals("Author One", authors.get("A1").getName());
+        assertEquals("A5", authors.get("A5").getId());
+    }
+
+    @Test
+    @DisplayName("Should reuse a current snapshot and rebuild it when the CSV changes")
+    void testInvalidationOnSourceChange() throws IOException {
+        openOrBuild();
+        assertNotNull(openExisting());
+
+        Files.write(recordsCsv, "11,\"Sample Book 11\",\"A4\",9,10.99,4.0\r\n".getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.APPEND);
+        Files.setLastModifiedTime(recordsCsv, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+
+        assertNull(openExisting());
+        RecordSnapshot rebuilt = openOrBuild();
+        assertEquals(11, rebuilt.size());
+        assertEquals(9, rebuilt.getRank(10));
+        assertNotNull(openExisting());
+    }
+
+    @Test
+    @DisplayName("Should reject a damaged snapshot when verifying its checksum")
+    void testChecksum() throws IOException {
+        openOrBuild();
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, channel.size() - 1);
+            last.put(0, (byte) (last.get(0) ^ 0x5A));
+            last.rewind();
+            channel.write(last, channel.size() - 1);
+        }
+
+        assertNull(openVerified());
+        // A plain open reads only the header
+        assertNotNull(openExisting());
+    }
+
+    @Test
+    @DisplayName("Should reject a truncated snapshot and rebuild it")
+    void testTruncated() throws IOException {
+        openOrBuild();
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+
+        assertNull(openExisting());
+        assertEquals(10, openOrBuild().size());
+        assertNotNull(openVerified());
+    }
+
+    @Test
+    @DisplayName("Should read missing ids and titles back as null, like the CSV reader")
+    void testMissingFields() throws IOException {
+        Files.write(recordsCsv, ("bestsellers_rank,author_id,id,title\r\n"
+            + "3,\"A1\"\r\n"
+            + "4,\"A2\",7,\"Title 7\"\r\n").getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(recordsCsv, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+
+        List<Record> expected;
+        try (RecordStream stream = RecordStream.open(recordsCsv.toString())) {
+            expected = stream.nextChunk(Integer.MAX_VALUE);
+        }
+        List<Record> actual;
+        try (RecordSource source = openOrBuild().source(EnumSet.allOf(RecordField.class))) {
+            actual = source.nextChunk(Integer.MAX_VALUE);
+        }
+
+        assertNull(expected.get(0).getId());
+        assertNull(actual.get(0).getId());
+        assertNull(actual.get(0).getTitle());
+        assertEquals("7", actual.get(1).getId());
+        assertEquals("Title 7", actual.get(1).getTitle());
+    }
+}
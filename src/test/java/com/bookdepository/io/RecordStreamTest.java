@@ -0,0 +1,86 @@
+package com.bookdepository.io;
+
+import com.bookdepository.model.Record;
+import com.bookdepository.test.ResourceLoader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RecordStream.
+ */
+@DisplayName("RecordStream Tests")
+class RecordStreamTest {
+
+    private static RecordStream openSample() throws IOException {
+        return new RecordStream(new InputStreamReader(
+            ResourceLoader.getResourceAsStream(ResourceLoader.Paths.SAMPLE_RECORDS), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should stream every fixture record in file order")
+    void testStreamFixture() throws IOException {
+        try (RecordStream stream = openSample()) {
+            List<Record> records = stream.stream().collect(Collectors.toList());
+
+            assertEquals(10, records.size());
+            assertEquals("1", records.get(0).getId());
+            assertEquals("Sample Book 1", records.get(0).getTitle());
+            assertEquals(Arrays.asList("A1"), records.get(0).getAuthors());
+            assertEquals(5, records.get(0).getBestsellersRank());
+            assertEquals("10", records.get(9).getId());
+            assertEquals(10, stream.getRecordsRead());
+        }
+    }
+
+    @Test
+    @DisplayName("Should hand out records in chunks")
+    void testChunks() throws IOException {
+        try (RecordStream stream = openSample()) {
+            assertEquals(4, stream.nextChunk(4).size());
+            assertEquals(4, stream.nextChunk(4).size());
+            List<Record> last = stream.nextChunk(4);
+            assertEquals(2, last.size());
+            assertEquals("9", last.get(0).getId());
+            assertTrue(stream.nextChunk(4).isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep quoted commas and line breaks inside a field")
+    void testQuotedFields() throws IOException {
+        String csv = "id,title,authors,bestsellers-rank\r\n"
+            + "1,\"Title, with comma\",\"[1, 2]\",7\r\n"
+            + "2,\"Two\nlines \"\"quoted\"\"\",[3],\r\n"
+            + "\r\n"
+            + "3,Plain,[],12";
+
+        try (RecordStream stream = new RecordStream(new StringReader(csv))) {
+            Record first = stream.next();
+            Record second = stream.next();
+            Record third = stream.next();
+
+            assertEquals("Title, with comma", first.getTitle());
+            assertEquals(Arrays.asList("1", "2"), first.getAuthors());
+            assertEquals(7, first.getBestsellersRank());
+            assertEquals("Two\nlines \"quoted\"", second.getTitle());
+            assertEquals(0, second.getBestsellersRank());
+            assertTrue(third.getAuthors().isEmpty());
+            assertEquals(12, third.getBestsellersRank());
+            assertFalse(stream.hasNext());
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a header without a rank column")
+    void testMissingRankColumn() {
+        assertThrows(IOException.class, () -> new RecordStream(new StringReader("id,title,authors\n1,a,[1]\n")));
+    }
+}
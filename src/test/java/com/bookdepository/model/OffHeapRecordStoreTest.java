@@ -0,0 +1,105 @@
+package com.bookdepository.model;
+
+import com.bookdepository.algorithms.sorting.QuickSort;
+import com.bookdepository.io.RecordStoreLoader;
+import com.bookdepository.test.ResourceLoader;
+import com.bookdepository.test.TestUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for OffHeapRecordStore.
+ */
+@DisplayName("OffHeapRecordStore Tests")
+class OffHeapRecordStoreTest {
+
+    private static InputStreamReader sampleReader() {
+        return new InputStreamReader(
+            ResourceLoader.getResourceAsStream(ResourceLoader.Paths.SAMPLE_RECORDS), StandardCharsets.UTF_8);
+    }
+
+    private static void assertSameColumns(ColumnarRecords expected, ColumnarRecords actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.getId(i), actual.getId(i), "Id at " + i);
+            assertEquals(expected.getRank(i), actual.getRank(i), "Rank at " + i);
+            assertEquals(expected.getPrice(i), actual.getPrice(i), "Price at " + i);
+            assertEquals(expected.getRating(i), actual.getRating(i), "Rating at " + i);
+            assertEquals(expected.getRecord(i).getAuthors(), actual.getRecord(i).getAuthors(), "Authors at " + i);
+        }
+        assertEquals(expected.getDistinctAuthorCount(), actual.getDistinctAuthorCount());
+        assertEquals(expected.getAuthorReferenceCount(), actual.getAuthorReferenceCount());
+    }
+
+    @Test
+    @DisplayName("Should hold the same columns as the heap store")
+    void testDirectMatchesRecordStore() throws IOException {
+        RecordStore expected = RecordStoreLoader.load(sampleReader(), Integer.MAX_VALUE);
+        try (OffHeapRecordStore actual = RecordStoreLoader.loadOffHeap(sampleReader(), Integer.MAX_VALUE, null)) {
+            assertSameColumns(expected, actual);
+            assertEquals(19.99f, actual.getPrice(0));
+            assertTrue(actual.getOffHeapBytes() >= 10L * OffHeapRecordStore.SLOT_BYTES);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep a mapped store in temporary files and delete them on close")
+    void testMappedStore() throws IOException {
+        Path directory = Files.createTempDirectory("offheap");
+        directory.toFile().deleteOnExit();
+        RecordStore expected = RecordStoreLoader.load(sampleReader(), Integer.MAX_VALUE);
+
+        OffHeapRecordStore actual = RecordStoreLoader.loadOffHeap(sampleReader(), Integer.MAX_VALUE, directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(5, files.count());
+        }
+        assertSameColumns(expected, actual);
+
+        actual.close();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Should grow past the expected size")
+    void testGrowth() {
+        List<Record> records = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Record record = TestUtils.createRecord(i, i % 37);
+            record.setAuthors(Arrays.asList("Author \u00e7" + (i % 50), "Co-author " + i));
+            records.add(record);
+        }
+
+        OffHeapRecordStore store = OffHeapRecordStore.fromRecords(records);
+
+        assertSameColumns(RecordStore.fromRecords(records), store);
+        assertEquals(1050, store.getDistinctAuthorCount());
+        assertTrue(Float.isNaN(store.getPrice(0)));
+    }
+
+    @Test
+    @DisplayName("Should sort through the position permutation")
+    void testSortPermutation() {
+        Record[] records = TestUtils.generateDuplicateHeavyRecords(400, 0.2, 30);
+        OffHeapRecordStore store = OffHeapRecordStore.fromRecords(Arrays.asList(records));
+
+        new QuickSort().sortStore(store);
+        new QuickSort().sort(records);
+
+        for (int i = 0; i < records.length; i++) {
+            assertEquals(records[i].getBestsellersRank(), store.getRank(i));
+            assertEquals(records[i].getId(), store.getId(i));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.bookdepository.model;
+
+import com.bookdepository.io.RecordStoreLoader;
+import com.bookdepository.test.ResourceLoader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RecordStore.
+ */
+@DisplayName("RecordStore Tests")
+class RecordStoreTest {
+
+    private static RecordStore loadSample(int limit) throws IOException {
+        return RecordStoreLoader.load(new InputStreamReader(
+            ResourceLoader.getResourceAsStream(ResourceLoader.Paths.SAMPLE_RECORDS), StandardCharsets.UTF_8), limit);
+    }
+
+    @Test
+    @DisplayName("Should load every column of the records CSV")
+    void testLoadColumns() throws IOException {
+        RecordStore store = loadSample(Integer.MAX_VALUE);
+
+        assertEquals(10, store.size());
+        assertEquals("1", store.getId(0));
+        assertEquals(5, store.getRank(0));
+        assertEquals(19.99f, store.getPrice(0));
+        assertEquals(4.5f, store.getRating(0));
+        assertEquals(1, store.getAuthorCount(0));
+        assertEquals("A1", store.getAuthorId(store.getAuthorOrdinal(0, 0)));
+        assertEquals(5, store.getDistinctAuthorCount());
+        assertEquals(10, store.getAuthorReferences().length);
+    }
+
+    @Test
+    @DisplayName("Should stop at the record limit")
+    void testLoadLimit() throws IOException {
+        assertEquals(4, loadSample(4).size());
+        assertEquals(0, loadSample(0).size());
+    }
+
+    @Test
+    @DisplayName("Should intern repeated author ids into one ordinal")
+    void testAuthorOrdinals() {
+        RecordStore store = new RecordStore.Builder(2)
+            .add("1", 3, Float.NaN, Float.NaN, Arrays.asList("A", "B"))
+            .add("2", 1, Float.NaN, Float.NaN, Arrays.asList("B"))
+            .add("3", 0, Float.NaN, Float.NaN, null)
+            .build();
+
+        assertEquals(2, store.getDistinctAuthorCount());
+        assertEquals(store.ordinalOf("B"), store.getAuthorOrdinal(1, 0));
+        assertEquals(-1, store.ordinalOf("C"));
+        assertArrayEquals(new int[] {0, 1, 1}, store.getAuthorReferences());
+        assertEquals(0, store.getAuthorCount(2));
+    }
+
+    @Test
+    @DisplayName("Should move every column of a record on swap")
+    void testSwapAndRecordView() {
+        RecordStore store = new RecordStore.Builder(0)
+            .add("1", 3, 9.5f, 4.0f, Arrays.asList("A", "B"))
+            .add("2", 1, 2.5f, 3.0f, Collections.singletonList("C"))
+            .build();
+
+        store.swap(0, 1);
+
+        assertEquals(1, store.getRank(0));
+        assertEquals("2", store.getId(0));
+        assertEquals(2.5f, store.getPrice(0));
+        assertEquals(3.0f, store.getRating(0));
+        Record record = store.getRecord(1);
+        assertEquals("1", record.getId());
+        assertEquals(3, record.getBestsellersRank());
+        assertEquals(Arrays.asList("A", "B"), record.getAuthors());
+    }
+}
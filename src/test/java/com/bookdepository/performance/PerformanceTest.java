@@ -2,6 +2,7 @@ package com.bookdepository.performance;
 
 import com.bookdepository.algorithms.sorting.QuickSort;
 import com.bookdepository.algorithms.sorting.HeapSort;
+import com.bookdepository.algorithms.sorting.IntroSort;
 import com.bookdepository.model.Record;
 import com.bookdepository.io.PerformanceResult;
 import com.bookdepository.test.TestUtils;
@@ -125,6 +126,26 @@ class PerformanceTest {
         new QuickSort().sort(random);
         double randomTime = (System.nanoTime() - start) / 1_000_000.0;
         System.out.printf("QuickSort (Random): %.2f ms%n", randomTime);
+
+        // Same inputs through the hardened QuickSort
+        sorted = TestUtils.generateSortedRecords(size);
+        start = System.nanoTime();
+        new IntroSort().sort(sorted);
+        System.out.printf("IntroSort (Sorted): %.2f ms%n", (System.nanoTime() - start) / 1_000_000.0);
+
+        reverse = TestUtils.generateReverseSortedRecords(size);
+        start = System.nanoTime();
+        new IntroSort().sort(reverse);
+        System.out.printf("IntroSort (Reverse): %.2f ms%n", (System.nanoTime() - start) / 1_000_000.0);
+
+        random = TestUtils.generateRandomRecords(size);
+        start = System.nanoTime();
+        new IntroSort().sort(random);
+        System.out.printf("IntroSort (Random): %.2f ms%n", (System.nanoTime() - start) / 1_000_000.0);
+
+        assertTrue(TestUtils.isSorted(sorted), "IntroSort should sort sorted input");
+        assertTrue(TestUtils.isSorted(reverse), "IntroSort should sort reverse input");
+        assertTrue(TestUtils.isSorted(random), "IntroSort should sort random input");
     }
 
     @Test
@@ -0,0 +1,178 @@
+package com.bookdepository.structures.hashtable;
+
+import com.bookdepository.experiments.HashTableExperiment;
+import com.bookdepository.io.RecordField;
+import com.bookdepository.io.RecordReaders;
+import com.bookdepository.io.RecordSource;
+import com.bookdepository.io.RecordStoreLoader;
+import com.bookdepository.model.Author;
+import com.bookdepository.model.RecordStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AuthorFrequencyTable.
+ */
+@DisplayName("AuthorFrequencyTable Tests")
+class AuthorFrequencyTableTest {
+
+    @Test
+    @DisplayName("Should count ordinals and grow past the expected size")
+    void testIncrementAndResize() {
+        AuthorFrequencyTable table = new AuthorFrequencyTable(2);
+        for (int ordinal = 0; ordinal < 1000; ordinal++) {
+            for (int k = 0; k <= ordinal % 5; k++) {
+                table.increment(ordinal * 7);
+            }
+        }
+
+        assertEquals(1000, table.size());
+        for (int ordinal = 0; ordinal < 1000; ordinal++) {
+            assertEquals(ordinal % 5 + 1, table.getFrequency(ordinal * 7));
+        }
+        assertEquals(0, table.getFrequency(3));
+        assertEquals(0, table.getFrequency(-1));
+        int[] ordinals = table.getOrdinals();
+        assertEquals(1000, ordinals.length);
+        assertEquals(0, ordinals[0]);
+        assertEquals(6993, ordinals[999]);
+    }
+
+    @Test
+    @DisplayName("Should count the same with incremental resizing")
+    void testIncrementalResize() {
+        AuthorFrequencyTable stopTheWorld = new AuthorFrequencyTable(2);
+        AuthorFrequencyTable incremental = new AuthorFrequencyTable(2, true);
+        Random random = new Random(3);
+        boolean resized = false;
+        for (int step = 0; step < 20000; step++) {
+            int ordinal = random.nextInt(4000);
+            stopTheWorld.increment(ordinal);
+            incremental.increment(ordinal);
+            if (incremental.isResizing()) {
+                resized = true;
+                // Lookups see both the moved and the not yet moved entries
+                assertEquals(stopTheWorld.getFrequency(ordinal), incremental.getFrequency(ordinal));
+                assertEquals(stopTheWorld.size(), incremental.size());
+            }
+        }
+        assertTrue(resized);
+        assertEquals(stopTheWorld.size(), incremental.size());
+        assertEquals(stopTheWorld.capacity(), incremental.capacity());
+        for (int ordinal = 0; ordinal < 4000; ordinal++) {
+            assertEquals(stopTheWorld.getFrequency(ordinal), incremental.getFrequency(ordinal));
+        }
+        assertArrayEquals(stopTheWorld.getOrdinals(), incremental.getOrdinals());
+        assertFalse(incremental.isResizing());
+    }
+
+    @Test
+    @DisplayName("Should reject negative ordinals")
+    void testNegativeOrdinal() {
+        assertThrows(IllegalArgumentException.class, () -> new AuthorFrequencyTable(4).increment(-1));
+    }
+
+    @Test
+    @DisplayName("Should produce the same frequencies, tie order and top N as AuthorHashTable")
+    void testMatchesAuthorHashTable() throws IOException {
+        Random random = new Random(7);
+        Map<String, Author> authorMap = new HashMap<>();
+        for (int i = 0; i < 150; i++) {
+            authorMap.put("A" + i, new Author("A" + i, "Author " + i));
+        }
+        Path csv = Files.createTempFile("records", ".csv");
+        List<String> firstOccurrences = new ArrayList<>();
+        try {
+            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(csv, StandardCharsets.UTF_8))) {
+                writer.println("id,title,author_id,bestsellers_rank,price,rating");
+                for (int i = 0; i < 2000; i++) {
+                    // Ids A150 and above are unknown to the map
+                    List<String> authors = new ArrayList<>();
+                    for (int k = random.nextInt(4); k > 0; k--) {
+                        String authorId = "A" + (int) Math.abs(random.nextGaussian() * 60);
+                        authors.add("'" + authorId + "'");
+                        if (authorMap.containsKey(authorId) && !firstOccurrences.contains(authorId)) {
+                            firstOccurrences.add(authorId);
+                        }
+                    }
+                    writer.println(i + ",\"Title " + i + "\",\"" + authors + "\"," + i + ",1.0,4.0");
+                }
+            }
+
+            // Streaming path of HashTableExperiment
+            AuthorHashTable authorHashTable = new AuthorHashTable(authorMap.size());
+            List<Author> expected = new ArrayList<>();
+            try (RecordSource records = RecordReaders.open(RecordReaders.STREAM, csv.toString(),
+                    EnumSet.of(RecordField.AUTHORS))) {
+                HashTableExperiment.countAuthors(records, copy(authorMap), authorHashTable, expected);
+            }
+
+            // --ordinals path
+            RecordStore store;
+            try (RecordSource records = RecordReaders.open(RecordReaders.STREAM, csv.toString(),
+                    EnumSet.of(RecordField.AUTHORS))) {
+                store = RecordStoreLoader.load(records, Integer.MAX_VALUE);
+            }
+            AuthorFrequencyTable table = new AuthorFrequencyTable(store.getDistinctAuthorCount());
+            table.countAll(store);
+            List<Author> actual = table.getAllAuthors(store, authorMap);
+
+            assertEquals(frequencies(authorHashTable.getAllAuthors()), frequencies(expected));
+            assertEquals(frequencies(expected), frequencies(actual));
+            // Both paths list authors in first-occurrence order, their tie order
+            assertEquals(firstOccurrences, ids(expected));
+            assertEquals(firstOccurrences, ids(actual));
+            // The same authors must win frequency ties at every cut
+            int tiedCuts = 0;
+            for (int n = 1; n < expected.size(); n++) {
+                List<Author> expectedTop = TopAuthors.select(expected, n + 1);
+                if (expectedTop.get(n - 1).compareByFrequency(expectedTop.get(n)) == 0) {
+                    tiedCuts++;
+                }
+                assertEquals(ids(TopAuthors.select(expected, n)), ids(TopAuthors.select(actual, n)), "Top " + n);
+            }
+            assertTrue(tiedCuts > 0);
+            for (Author author : authorMap.values()) {
+                assertEquals(0, author.getFrequency());
+            }
+        } finally {
+            Files.deleteIfExists(csv);
+        }
+    }
+
+    private static Map<String, Author> copy(Map<String, Author> authorMap) {
+        Map<String, Author> copy = new HashMap<>();
+        for (Author author : authorMap.values()) {
+            copy.put(author.getId(), new Author(author.getId(), author.getName()));
+        }
+        return copy;
+    }
+
+    private static List<String> ids(List<Author> authors) {
+        List<String> ids = new ArrayList<>();
+        for (Author author : authors) {
+            ids.add(author.getId());
+        }
+        return ids;
+    }
+
+    private static Map<String, Integer> frequencies(List<Author> authors) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (Author author : authors) {
+            frequencies.put(author.getId(), author.getFrequency());
+        }
+        return frequencies;
+    }
+}
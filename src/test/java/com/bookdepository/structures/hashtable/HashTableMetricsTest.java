@@ -0,0 +1,134 @@
+package com.bookdepository.structures.hashtable;
+
+import com.bookdepository.model.Record;
+import com.bookdepository.model.RecordStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for HashTableMetrics and the tables recording into it.
+ */
+@DisplayName("HashTableMetrics Tests")
+class HashTableMetricsTest {
+
+    @Test
+    @DisplayName("Should sum probes, collisions and the longest probe")
+    void testRecordProbe() {
+        HashTableMetrics metrics = new HashTableMetrics();
+        assertEquals(0.0, metrics.getMeanProbe());
+        metrics.recordProbe(1);
+        metrics.recordProbe(1);
+        metrics.recordProbe(4);
+
+        assertEquals(3, metrics.getOperations());
+        assertEquals(6, metrics.getProbes());
+        assertEquals(2.0, metrics.getMeanProbe(), 1e-9);
+        assertEquals(4, metrics.getMaxProbe());
+        assertEquals(1, metrics.getCollisions());
+    }
+
+    @Test
+    @DisplayName("Should record every resize of a growing table")
+    void testResizeTimeline() {
+        AuthorFrequencyTable table = new AuthorFrequencyTable(4);
+        HashTableMetrics metrics = new HashTableMetrics();
+        table.setMetrics(metrics);
+        for (int ordinal = 0; ordinal < 100; ordinal++) {
+            table.increment(ordinal);
+        }
+
+        assertEquals(100, metrics.getOperations());
+        List<HashTableMetrics.ResizeEvent> resizes = metrics.getResizes();
+        assertEquals(4, resizes.size()); // 16 -> 32 -> 64 -> 128 -> 256 slots
+        int capacity = 16;
+        long offset = -1;
+        for (HashTableMetrics.ResizeEvent resize : resizes) {
+            assertEquals(capacity, resize.getFromCapacity());
+            assertEquals(capacity * 2, resize.getToCapacity());
+            assertEquals(capacity / 2 + 1, resize.getSize());
+            assertTrue(resize.getOffsetNanos() >= offset);
+            assertTrue(resize.getDurationNanos() >= 0);
+            offset = resize.getOffsetNanos();
+            capacity *= 2;
+        }
+        assertEquals(capacity, table.capacity());
+        assertEquals(8L * capacity, table.getMemoryBytes());
+        assertEquals(100.0 / capacity, table.getLoadFactor(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should measure clusters of used slots, wrapping around the end")
+    void testClusters() {
+        boolean[] used = {true, true, false, true, false, false, true, true};
+        ProbeHistogram clusters = ProbeHistogram.ofClusters(used.length, i -> used[i]);
+        // Slots 6, 7, 0 and 1 form one cluster across the end
+        assertEquals("1=1;4=1", clusters.toString());
+        assertEquals(5, clusters.getProbes());
+
+        assertEquals("", ProbeHistogram.ofClusters(4, i -> false).toString());
+        assertEquals("4=1", ProbeHistogram.ofClusters(4, i -> true).toString());
+    }
+
+    @Test
+    @DisplayName("Should count one probe record per record table operation")
+    void testRecordTables() {
+        List<RecordTable> tables = Arrays.asList(new DoubleHashingRecordTable(1000),
+            new RobinHoodRecordTable(1000));
+        for (RecordTable table : tables) {
+            HashTableMetrics metrics = new HashTableMetrics();
+            table.setMetrics(metrics);
+            assertSame(metrics, table.getMetrics());
+            for (int i = 0; i < 1000; i++) {
+                Record record = new Record();
+                record.setId("R" + i);
+                table.put(record);
+            }
+            for (int i = 0; i < 1000; i++) {
+                table.get("R" + i);
+            }
+            table.remove("R0");
+
+            assertEquals(2001, metrics.getOperations());
+            assertTrue(metrics.getMeanProbe() >= 1.0);
+            assertTrue(metrics.getMaxProbe() >= 1);
+            assertTrue(metrics.getResizes().isEmpty());
+            // The tombstone left by double hashing still counts as a used slot
+            int used = table instanceof DoubleHashingRecordTable ? 1000 : 999;
+            assertEquals(used, table.getClusterHistogram().getProbes());
+            assertTrue(table.getMemoryBytes() >= 8L * table.capacity());
+        }
+    }
+
+    @Test
+    @DisplayName("Should share metrics between the tables of parallel tasks")
+    void testParallelCounter() {
+        Random random = new Random(5);
+        RecordStore.Builder builder = new RecordStore.Builder(0);
+        int references = 0;
+        for (int i = 0; i < 3000; i++) {
+            List<String> ids = new ArrayList<>();
+            for (int k = 1 + random.nextInt(3); k > 0; k--) {
+                ids.add("A" + random.nextInt(500));
+                references++;
+            }
+            builder.add(String.valueOf(i), i, Float.NaN, Float.NaN, ids);
+        }
+        RecordStore store = builder.build();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            HashTableMetrics metrics = new HashTableMetrics();
+            AuthorFrequencyTable table = new ParallelAuthorCounter(500, pool).count(store, metrics);
+            assertSame(metrics, table.getMetrics());
+            // Every reference is counted once, then merges add more operations
+            assertTrue(metrics.getOperations() >= references);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.bookdepository.structures.hashtable;
+
+import com.bookdepository.experiments.HashTableExperiment;
+import com.bookdepository.io.RecordSource;
+import com.bookdepository.model.Author;
+import com.bookdepository.model.Record;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for IncrementalAuthorCounts.
+ */
+@DisplayName("IncrementalAuthorCounts Tests")
+class IncrementalAuthorCountsTest {
+
+    private Map<String, Author> authorMap;
+
+    @BeforeEach
+    void setUp() {
+        authorMap = new HashMap<>();
+        for (int i = 0; i < 40; i++) {
+            authorMap.put("A" + i, new Author("A" + i, "Author " + i));
+        }
+    }
+
+    private static Record record(String... authors) {
+        Record record = new Record();
+        record.setAuthors(Arrays.asList(authors));
+        return record;
+    }
+
+    /**
+     * Recounts from scratch: most frequent first, ties in first-counted order.
+     */
+    private static List<String> expectedTop(LinkedHashMap<String, Integer> counts, int n) {
+        List<String> ids = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            if (entry.getValue() > 0) {
+                ids.add(entry.getKey());
+            }
+        }
+        List<String> order = new ArrayList<>(counts.keySet());
+        ids.sort((a, b) -> counts.get(a).equals(counts.get(b))
+            ? Integer.compare(order.indexOf(a), order.indexOf(b))
+            : Integer.compare(counts.get(b), counts.get(a)));
+        return ids.subList(0, Math.min(n, ids.size()));
+    }
+
+    private static List<String> ids(List<Author> authors) {
+        List<String> ids = new ArrayList<>();
+        for (Author author : authors) {
+            ids.add(author.getId());
+        }
+        return ids;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 5, 50})
+    @DisplayName("Should keep the top N equal to a full recount across inserts and deletes")
+    void testTopMatchesRecount(int n) {
+        Random random = new Random(n);
+        IncrementalAuthorCounts counts = new IncrementalAuthorCounts(authorMap, n);
+        LinkedHashMap<String, Integer> expected = new LinkedHashMap<>();
+        List<Record> inserted = new ArrayList<>();
+
+        for (int step = 0; step < 3000; step++) {
+            if (!inserted.isEmpty() && random.nextInt(3) == 0) {
+                Record record = inserted.remove(random.nextInt(inserted.size()));
+                counts.delete(record);
+                for (String authorId : record.getAuthors()) {
+                    expected.merge(authorId, -1, Integer::sum);
+                }
+            } else {
+                // A41 and above are unknown to the author map and never counted
+                Record record = record("A" + random.nextInt(45), "A" + random.nextInt(12));
+                counts.insert(record);
+                inserted.add(record);
+                for (String authorId : record.getAuthors()) {
+                    if (authorMap.containsKey(authorId)) {
+                        expected.merge(authorId, 1, Integer::sum);
+                    }
+                }
+            }
+            if (step % 7 == 0) {
+                assertEquals(expectedTop(expected, n), ids(counts.getTopAuthors()), "Step " + step);
+                assertEquals(expected.values().stream().filter(frequency -> frequency > 0).count(),
+                    counts.size(), "Step " + step);
+            }
+        }
+        for (Author author : counts.getTopAuthors()) {
+            assertEquals((int) expected.get(author.getId()), author.getFrequency());
+            assertEquals(authorMap.get(author.getId()).getName(), author.getName());
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject deleting an author that was not counted")
+    void testDeleteUncounted() {
+        IncrementalAuthorCounts counts = new IncrementalAuthorCounts(authorMap, 3);
+        counts.insert(record("A1"));
+
+        assertThrows(IllegalArgumentException.class, () -> counts.delete(record("A2")));
+        counts.delete(record("A1"));
+        assertThrows(IllegalArgumentException.class, () -> counts.delete(record("A1")));
+        assertEquals(0, counts.size());
+        assertTrue(counts.getTopAuthors().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should save and load the counts and their tie order")
+    void testSaveAndLoad() throws IOException {
+        Path file = Files.createTempFile("authors", ".state");
+        file.toFile().deleteOnExit();
+        IncrementalAuthorCounts counts = new IncrementalAuthorCounts(authorMap, 3);
+        counts.insert(record("A5", "A2"));
+        counts.insert(record("A9", "A2"));
+        counts.insert(record("A7"));
+        counts.delete(record("A7"));
+
+        counts.save(file);
+        IncrementalAuthorCounts loaded = IncrementalAuthorCounts.load(file, authorMap, 3);
+
+        assertEquals(Arrays.asList("A2", "A5", "A9"), ids(loaded.getTopAuthors()));
+        assertEquals(2, loaded.getFrequency("A2"));
+        assertEquals(0, loaded.getFrequency("A7"));
+        loaded.insert(record("A7"));
+        loaded.insert(record("A7"));
+        assertEquals(Arrays.asList("A2", "A7", "A5"), ids(loaded.getTopAuthors()));
+    }
+
+    @Test
+    @DisplayName("Should keep the ordinals and counts of saved authors missing from the author map")
+    void testLoadKeepsUnmappedAuthors() throws IOException {
+        Path file = Files.createTempFile("authors", ".state");
+        file.toFile().deleteOnExit();
+        Map<String, Author> withB1 = new HashMap<>(authorMap);
+        withB1.put("B1", new Author("B1", "Author B1"));
+        IncrementalAuthorCounts counts = new IncrementalAuthorCounts(withB1, 3);
+        counts.insert(record("B1", "A3"));
+        counts.insert(record("B1", "A1"));
+        counts.save(file);
+
+        IncrementalAuthorCounts withoutB1 = IncrementalAuthorCounts.load(file, authorMap, 3);
+        assertEquals(Arrays.asList("A3", "A1"), ids(withoutB1.getTopAuthors()));
+        assertEquals(0, withoutB1.getFrequency("B1"));
+        assertEquals(2, withoutB1.size());
+        withoutB1.insert(record("A1"));
+        withoutB1.save(file);
+
+        // B1 comes back with its count and ahead of A1 in the tie order
+        IncrementalAuthorCounts reloaded = IncrementalAuthorCounts.load(file, withB1, 3);
+        assertEquals(2, reloaded.getFrequency("B1"));
+        assertEquals(Arrays.asList("B1", "A1", "A3"), ids(reloaded.getTopAuthors()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 10, 40})
+    @DisplayName("Should write the same top N as a full recount of HashTableExperiment")
+    void testMatchesFreshCount(int n) throws IOException {
+        Random random = new Random(n);
+        List<Record> records = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            // Few distinct counts, so many authors tie at the cut
+            records.add(record("A" + random.nextInt(45), "A" + random.nextInt(45)));
+        }
+        List<Record> base = records.subList(0, 400);
+        List<Record> inserted = records.subList(400, records.size());
+
+        // First --state run counts the base, a later one applies inserts
+        Path file = Files.createTempFile("authors", ".state");
+        file.toFile().deleteOnExit();
+        IncrementalAuthorCounts counts = new IncrementalAuthorCounts(authorMap, n);
+        counts.insertAll(base.iterator());
+        assertEquals(freshTop(base, n), ids(counts.getTopAuthors()));
+        counts.save(file);
+        IncrementalAuthorCounts loaded = IncrementalAuthorCounts.load(file, authorMap, n);
+        loaded.insertAll(inserted.iterator());
+
+        assertEquals(freshTop(records, n), ids(loaded.getTopAuthors()));
+    }
+
+    /**
+     * Counts records the way HashTableExperiment does without --state.
+     */
+    private List<String> freshTop(List<Record> records, int n) {
+        Map<String, Author> fresh = new HashMap<>();
+        for (Author author : authorMap.values()) {
+            fresh.put(author.getId(), new Author(author.getId(), author.getName()));
+        }
+        List<Author> counted = new ArrayList<>();
+        HashTableExperiment.countAuthors(source(records), fresh, new AuthorHashTable(fresh.size()), counted);
+        return ids(TopAuthors.select(counted, n));
+    }
+
+    private static RecordSource source(List<Record> records) {
+        Iterator<Record> iterator = records.iterator();
+        return new RecordSource() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Record next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Should reject a damaged state file")
+    void testDamagedState() throws IOException {
+        Path file = Files.createTempFile("authors", ".state");
+        file.toFile().deleteOnExit();
+        IncrementalAuthorCounts counts = new IncrementalAuthorCounts(authorMap, 3);
+        counts.insert(record("A1", "A2"));
+        counts.save(file);
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[12] ^= 0x5A;
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> IncrementalAuthorCounts.load(file, authorMap, 3));
+
+        Files.write(file, Arrays.copyOf(bytes, 10));
+        assertThrows(IOException.class, () -> IncrementalAuthorCounts.load(file, authorMap, 3));
+    }
+}
@@ -0,0 +1,69 @@
+package com.bookdepository.structures.hashtable;
+
+import com.bookdepository.model.RecordStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ParallelAuthorCounter.
+ */
+@DisplayName("ParallelAuthorCounter Tests")
+class ParallelAuthorCounterTest {
+
+    private static RecordStore generateStore(int records, int authors) {
+        Random random = new Random(3);
+        RecordStore.Builder builder = new RecordStore.Builder(records);
+        for (int i = 0; i < records; i++) {
+            List<String> ids = new ArrayList<>();
+            for (int k = random.nextInt(4); k > 0; k--) {
+                ids.add("A" + random.nextInt(authors));
+            }
+            builder.add(String.valueOf(i), i, Float.NaN, Float.NaN, ids);
+        }
+        return builder.build();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 100, 1 << 20})
+    @DisplayName("Should count the same frequencies as a sequential count")
+    void testMatchesSequentialCount(int threshold) {
+        RecordStore store = generateStore(5000, 800);
+        AuthorFrequencyTable expected = new AuthorFrequencyTable(store.getDistinctAuthorCount());
+        expected.countAll(store);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            AuthorFrequencyTable actual = new ParallelAuthorCounter(threshold, pool).count(store);
+
+            assertEquals(expected.size(), actual.size());
+            assertArrayEquals(expected.getOrdinals(), actual.getOrdinals());
+            for (int ordinal : expected.getOrdinals()) {
+                assertEquals(expected.getFrequency(ordinal), actual.getFrequency(ordinal));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should count a store without authors")
+    void testEmptyStore() {
+        RecordStore store = new RecordStore.Builder(0).add("1", 1, Float.NaN, Float.NaN, null).build();
+
+        assertEquals(0, new ParallelAuthorCounter(4).count(store).size());
+    }
+
+    @Test
+    @DisplayName("Should reject a non-positive threshold and a missing pool")
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelAuthorCounter(0));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelAuthorCounter(8, null));
+    }
+}
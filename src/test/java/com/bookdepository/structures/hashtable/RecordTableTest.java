@@ -0,0 +1,187 @@
+package com.bookdepository.structures.hashtable;
+
+import com.bookdepository.model.Record;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DoubleHashingRecordTable and RobinHoodRecordTable.
+ */
+@DisplayName("RecordTable Tests")
+class RecordTableTest {
+
+    private static Record record(String id) {
+        Record record = new Record();
+        record.setId(id);
+        record.setTitle("Title " + id);
+        return record;
+    }
+
+    private static List<Supplier<RecordTable>> tables(int expectedSize) {
+        List<Supplier<RecordTable>> tables = new ArrayList<>();
+        tables.add(() -> new DoubleHashingRecordTable(expectedSize));
+        tables.add(() -> new DoubleHashingRecordTable(expectedSize,
+            DoubleHashingRecordTable.DEFAULT_MAX_LOAD_FACTOR, true));
+        tables.add(() -> new RobinHoodRecordTable(expectedSize));
+        return tables;
+    }
+
+    @Test
+    @DisplayName("Should put, replace, get and remove records")
+    void testPutGetRemove() {
+        for (Supplier<RecordTable> supplier : tables(4)) {
+            RecordTable table = supplier.get();
+            Record first = record("1");
+            assertNull(table.put(first));
+            assertNull(table.put(record("2")));
+            assertSame(first, table.get("1"));
+            assertNull(table.get("3"));
+
+            Record replacement = record("1");
+            assertSame(first, table.put(replacement));
+            assertSame(replacement, table.get("1"));
+            assertEquals(2, table.size());
+
+            assertSame(replacement, table.remove("1"));
+            assertNull(table.remove("1"));
+            assertNull(table.get("1"));
+            assertEquals("2", table.get("2").getId());
+            assertEquals(1, table.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject records without an id")
+    void testNullId() {
+        for (Supplier<RecordTable> supplier : tables(4)) {
+            assertThrows(IllegalArgumentException.class, () -> supplier.get().put(new Record()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should grow past the expected size")
+    void testResize() {
+        for (Supplier<RecordTable> supplier : tables(2)) {
+            RecordTable table = supplier.get();
+            for (int i = 0; i < 5000; i++) {
+                table.put(record("R" + i));
+            }
+            assertEquals(5000, table.size());
+            assertTrue(table.capacity() >= 5000);
+            assertTrue(table.getLoadFactor() <= 0.9);
+            for (int i = 0; i < 5000; i++) {
+                assertEquals("R" + i, table.get("R" + i).getId());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should match HashMap under random puts and removes")
+    void testMatchesHashMap() {
+        for (Supplier<RecordTable> supplier : tables(16)) {
+            Random random = new Random(11);
+            RecordTable table = supplier.get();
+            Map<String, Record> expected = new HashMap<>();
+            for (int step = 0; step < 50000; step++) {
+                String id = String.valueOf(random.nextInt(2000));
+                if (random.nextInt(3) == 0) {
+                    assertSame(expected.remove(id), table.remove(id));
+                } else {
+                    Record record = record(id);
+                    assertSame(expected.put(id, record), table.put(record));
+                }
+                assertEquals(expected.size(), table.size());
+            }
+            for (int i = 0; i < 2000; i++) {
+                String id = String.valueOf(i);
+                assertSame(expected.get(id), table.get(id));
+            }
+            assertEquals(expected.size(), table.getProbeHistogram().getLookups());
+        }
+    }
+
+    @Test
+    @DisplayName("Should find every record while an incremental resize is moving them")
+    void testIncrementalResize() {
+        DoubleHashingRecordTable table = new DoubleHashingRecordTable(12, 0.75, true);
+        int capacity = table.capacity();
+        int i = 0;
+        while (table.capacity() == capacity) {
+            table.put(record("R" + i++));
+        }
+        assertTrue(table.isResizing());
+        for (int k = 0; k < i; k++) {
+            assertEquals("R" + k, table.get("R" + k).getId());
+        }
+
+        // Updates of records not moved yet must survive the move
+        Record replacement = record("R0");
+        table.put(replacement);
+        assertNotNull(table.remove("R1"));
+        while (table.isResizing()) {
+            table.put(record("R" + i++));
+        }
+        assertSame(replacement, table.get("R0"));
+        assertNull(table.get("R1"));
+        assertEquals(i - 1, table.size());
+        for (int k = 2; k < i; k++) {
+            assertEquals("R" + k, table.get("R" + k).getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the longest Robin Hood probe shorter than double hashing at high load")
+    void testProbeHistograms() {
+        int size = 14000; // about 0.85 of 16384 slots
+        DoubleHashingRecordTable doubleHashing = new DoubleHashingRecordTable(size, 0.95);
+        RobinHoodRecordTable robinHood = new RobinHoodRecordTable(size, 0.95);
+        for (int i = 0; i < size; i++) {
+            doubleHashing.put(record("978" + (1000000 + i * 37)));
+            robinHood.put(record("978" + (1000000 + i * 37)));
+        }
+        assertEquals(doubleHashing.capacity(), robinHood.capacity());
+
+        ProbeHistogram dh = doubleHashing.getProbeHistogram();
+        ProbeHistogram rh = robinHood.getProbeHistogram();
+        assertEquals(size, dh.getLookups());
+        assertEquals(size, rh.getLookups());
+        // Linear probing visits more slots on average, but they are adjacent,
+        // and Robin Hood evens out displacements, cutting the worst case
+        assertTrue(rh.getMax() < dh.getMax(), rh.getMax() + " >= " + dh.getMax());
+        assertTrue(rh.getPercentile(0.5) <= rh.getPercentile(0.99));
+        assertTrue(rh.getPercentile(0.99) <= rh.getMax());
+    }
+
+    @Test
+    @DisplayName("Should summarize probe lengths")
+    void testProbeHistogram() {
+        ProbeHistogram histogram = new ProbeHistogram();
+        assertEquals(0.0, histogram.getMean());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(0.99));
+        for (int i = 0; i < 90; i++) {
+            histogram.add(1);
+        }
+        for (int i = 0; i < 9; i++) {
+            histogram.add(2);
+        }
+        histogram.add(40);
+
+        assertEquals(100, histogram.getLookups());
+        assertEquals(148, histogram.getProbes());
+        assertEquals(1.48, histogram.getMean(), 1e-9);
+        assertEquals(40, histogram.getMax());
+        assertEquals(1, histogram.getPercentile(0.9));
+        assertEquals(2, histogram.getPercentile(0.99));
+        assertEquals(40, histogram.getPercentile(1.0));
+        assertEquals("1=90;2=9;40=1", histogram.toString());
+        assertThrows(IllegalArgumentException.class, () -> histogram.add(0));
+    }
+}
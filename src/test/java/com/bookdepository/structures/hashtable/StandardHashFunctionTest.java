@@ -0,0 +1,65 @@
+package com.bookdepository.structures.hashtable;
+
+import com.bookdepository.model.Record;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.util.HashSet;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StandardHashFunction.
+ */
+@DisplayName("StandardHashFunction Tests")
+class StandardHashFunctionTest {
+
+    @Test
+    @DisplayName("Should match the xxHash32 reference on UTF-16LE bytes")
+    void testXxHash32Vectors() {
+        HashFunction xxHash = StandardHashFunction.XXHASH32;
+        assertEquals(0x02CC5D05, xxHash.hash(""));
+        assertEquals(0x0266166A, xxHash.hash("1"));
+        assertEquals(0x915A9152, xxHash.hash("42"));
+        assertEquals(0xECEE1AB3, xxHash.hash("123"));
+        assertEquals(0x440C6160, xxHash.hash("Ab\u00e7"));
+        assertEquals(0xD4C88961, xxHash.hash("1234567"));
+        assertEquals(0x261A1D2D, xxHash.hash("12345678"));
+        assertEquals(0x5613CBCD, xxHash.hash("978-0-13-468599-1"));
+    }
+
+    @Test
+    @DisplayName("Should keep String.hashCode as the default and mix it with the murmur3 finalizer")
+    void testStringHashCodeAndMurmur() {
+        assertEquals("author".hashCode(), StandardHashFunction.STRING_HASH_CODE.hash("author"));
+        assertEquals(0, StandardHashFunction.MURMUR3_FINALIZER.hash(""));
+        // Sequential ids hash to consecutive codes; the finalizer spreads them
+        Set<Integer> highBits = new HashSet<>();
+        for (int id = 1000; id < 1010; id++) {
+            highBits.add(StandardHashFunction.MURMUR3_FINALIZER.hash(String.valueOf(id)) >>> 24);
+        }
+        assertTrue(highBits.size() > 5);
+    }
+
+    @Test
+    @DisplayName("Should store and find records with every hash function")
+    void testTablesWithHashFunctions() {
+        for (StandardHashFunction function : StandardHashFunction.values()) {
+            RecordTable[] tables = {
+                new DoubleHashingRecordTable(16, 0.75, false, function),
+                new RobinHoodRecordTable(16, 0.9, function)
+            };
+            for (RecordTable table : tables) {
+                for (int id = 0; id < 3000; id++) {
+                    Record record = new Record();
+                    record.setId(String.valueOf(id));
+                    table.put(record);
+                }
+                for (int id = 0; id < 3000; id++) {
+                    assertEquals(String.valueOf(id), table.get(String.valueOf(id)).getId(), function.name());
+                }
+                assertNull(table.get("3000"));
+                assertEquals(3000, table.getProbeHistogram().getLookups());
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.bookdepository.structures.hashtable;
+
+import com.bookdepository.model.Author;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TopAuthors.
+ */
+@DisplayName("TopAuthors Tests")
+class TopAuthorsTest {
+
+    private static List<Author> generateAuthors(int count, int distinctFrequencies) {
+        Random random = new Random(11);
+        List<Author> authors = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Author author = new Author("A" + i, "Author " + i);
+            author.setFrequency(random.nextInt(distinctFrequencies));
+            authors.add(author);
+        }
+        return authors;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 10, 100, 999, 1000, 1500})
+    @DisplayName("Should match the first N authors of a stable full sort, ties included")
+    void testMatchesFullSort(int n) {
+        List<Author> authors = generateAuthors(1000, 8);
+        List<Author> sorted = new ArrayList<>(authors);
+        Collections.sort(sorted, (a, b) -> b.compareByFrequency(a));
+
+        List<Author> top = TopAuthors.select(authors, n);
+
+        assertEquals(sorted.subList(0, Math.min(n, sorted.size())), top);
+    }
+
+    @Test
+    @DisplayName("Should return nothing for N of zero or less and for no authors")
+    void testEmptySelections() {
+        List<Author> authors = generateAuthors(10, 3);
+
+        assertTrue(TopAuthors.select(authors, 0).isEmpty());
+        assertTrue(TopAuthors.select(authors, -4).isEmpty());
+        assertTrue(TopAuthors.select(new ArrayList<>(), 5).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should not modify the input list")
+    void testInputUnchanged() {
+        List<Author> authors = generateAuthors(50, 50);
+        List<Author> copy = new ArrayList<>(authors);
+
+        TopAuthors.select(authors, 5);
+
+        assertEquals(copy, authors);
+    }
+}
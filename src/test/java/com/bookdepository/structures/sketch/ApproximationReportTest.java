@@ -0,0 +1,70 @@
+package com.bookdepository.structures.sketch;
+
+import com.bookdepository.model.Author;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ApproximationReport.
+ */
+@DisplayName("ApproximationReport Tests")
+class ApproximationReportTest {
+
+    @Test
+    @DisplayName("Should report no error when the counters are large enough")
+    void testExactCounters() {
+        List<Author> exact = new ArrayList<>();
+        SpaceSaving spaceSaving = new SpaceSaving(100);
+        CountMinSketch sketch = new CountMinSketch(1 << 16, 4);
+        for (int i = 0; i < 20; i++) {
+            Author author = new Author("A" + i, "Author " + i);
+            author.setFrequency(i + 1);
+            exact.add(author);
+            for (int k = 0; k <= i; k++) {
+                spaceSaving.offer(author.getId());
+                sketch.add(author.getId());
+            }
+        }
+
+        ApproximationReport report = ApproximationReport.compare(exact, 5, spaceSaving, sketch);
+
+        assertEquals(210, report.getTotal());
+        assertEquals(1.0, report.getTopRecall());
+        assertEquals(0, report.getSpaceSavingMaxError());
+        assertEquals(0, report.getSketchMaxError());
+        assertEquals(1.0, report.getSketchWithinBound());
+    }
+
+    @Test
+    @DisplayName("Should measure the error of undersized counters")
+    void testUndersizedCounters() {
+        List<Author> exact = new ArrayList<>();
+        SpaceSaving spaceSaving = new SpaceSaving(3);
+        CountMinSketch sketch = new CountMinSketch(2, 1);
+        for (int i = 0; i < 10; i++) {
+            Author author = new Author("A" + i, "Author " + i);
+            author.setFrequency(10 - i);
+            exact.add(author);
+        }
+        // Interleave the occurrences so that counters are taken over
+        for (int round = 0; round < 10; round++) {
+            for (Author author : exact) {
+                if (round < author.getFrequency()) {
+                    spaceSaving.offer(author.getId());
+                    sketch.add(author.getId());
+                }
+            }
+        }
+
+        ApproximationReport report = ApproximationReport.compare(exact, 3, spaceSaving, sketch);
+
+        assertEquals(55, report.getTotal());
+        assertTrue(report.getSpaceSavingMaxError() > 0);
+        assertTrue(report.getSketchMaxError() > 0);
+        assertTrue(report.getSketchAllMeanError() > 0);
+        assertEquals(3, report.getSpaceSavingCapacity());
+    }
+}
@@ -0,0 +1,58 @@
+package com.bookdepository.structures.sketch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BloomFilter.
+ */
+@DisplayName("BloomFilter Tests")
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("Should never reject an added key")
+    void testNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(10000, 0.01);
+        for (int id = 0; id < 10000; id++) {
+            filter.add(String.valueOf(id));
+        }
+        for (int id = 0; id < 10000; id++) {
+            assertTrue(filter.mightContain(String.valueOf(id)));
+        }
+        assertEquals(10000, filter.getInsertions());
+    }
+
+    @Test
+    @DisplayName("Should size the filter for the false-positive rate and stay near it")
+    void testFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(20000, 0.01);
+        // About 9.6 bits and 7 hashes per key for 1%
+        assertEquals(7, filter.getHashCount());
+        assertTrue(filter.getBitCount() >= 191702 && filter.getBitCount() < 191702 + 64);
+        assertEquals(filter.getBitCount() / 8, filter.getMemoryBytes());
+
+        for (int id = 1; id <= 20000; id++) {
+            filter.add(String.valueOf(id));
+        }
+        int falsePositives = 0;
+        for (int id = 20001; id <= 120000; id++) {
+            if (filter.mightContain(String.valueOf(id))) {
+                falsePositives++;
+            }
+        }
+        double rate = falsePositives / 100000.0;
+        assertEquals(0.01, filter.getExpectedFalsePositiveRate(), 0.001);
+        assertTrue(rate > 0.005 && rate < 0.015, "rate " + rate);
+    }
+
+    @Test
+    @DisplayName("Should reject invalid sizes")
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(-1, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 1));
+        BloomFilter empty = new BloomFilter(0, 0.5);
+        assertFalse(empty.mightContain("A1"));
+    }
+}
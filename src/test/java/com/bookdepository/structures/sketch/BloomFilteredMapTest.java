@@ -0,0 +1,74 @@
+package com.bookdepository.structures.sketch;
+
+import com.bookdepository.model.Author;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.util.HashMap;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BloomFilteredMap.
+ */
+@DisplayName("BloomFilteredMap Tests")
+class BloomFilteredMapTest {
+
+    @Test
+    @DisplayName("Should answer like the map and count the lookups saved")
+    void testLookups() {
+        Map<String, Author> authors = new HashMap<>();
+        for (int id = 1; id <= 5000; id++) {
+            authors.put(String.valueOf(id), new Author(String.valueOf(id), "Author " + id));
+        }
+        BloomFilteredMap<Author> filtered = new BloomFilteredMap<>(authors, 0.01);
+        assertEquals(5000, filtered.size());
+
+        for (int id = 1; id <= 5000; id++) {
+            assertSame(authors.get(String.valueOf(id)), filtered.get(String.valueOf(id)));
+        }
+        // Dangling ids, as in the records
+        for (int id = 5001; id <= 15000; id++) {
+            assertNull(filtered.get(String.valueOf(id)));
+        }
+        assertFalse(filtered.containsKey(42));
+
+        assertEquals(15001, filtered.getLookups());
+        assertEquals(10001, filtered.getFiltered() + filtered.getFalsePositives());
+        assertTrue(filtered.getFalsePositiveRate() < 0.02, "rate " + filtered.getFalsePositiveRate());
+        assertEquals((double) filtered.getFiltered() / 15001, filtered.getSavedLookupShare(), 1e-12);
+        assertTrue(filtered.getSavedLookupShare() > 0.6);
+    }
+
+    @Test
+    @DisplayName("Should count a containsKey and the get that follows it as one lookup")
+    void testContainsKeyThenGet() {
+        Map<String, Author> authors = new HashMap<>();
+        authors.put("A1", new Author("A1", "Author One"));
+        BloomFilteredMap<Author> filtered = new BloomFilteredMap<>(authors, 0.01);
+
+        assertTrue(filtered.containsKey("A1"));
+        assertSame(authors.get("A1"), filtered.get("A1"));
+        assertEquals(1, filtered.getLookups());
+
+        // The pairing lasts for one get only
+        assertSame(authors.get("A1"), filtered.get("A1"));
+        assertEquals(2, filtered.getLookups());
+
+        assertFalse(filtered.containsKey("B2"));
+        assertSame(authors.get("A1"), filtered.get("A1"));
+        assertNull(filtered.get("B2"));
+        assertEquals(5, filtered.getLookups());
+        assertEquals(2, filtered.getFiltered() + filtered.getFalsePositives());
+    }
+
+    @Test
+    @DisplayName("Should be read-only")
+    void testReadOnly() {
+        Map<String, Author> authors = new HashMap<>();
+        authors.put("A1", new Author("A1", "Author One"));
+        BloomFilteredMap<Author> filtered = new BloomFilteredMap<>(authors, 0.01);
+        assertThrows(UnsupportedOperationException.class, () -> filtered.put("A2", new Author("A2", "Two")));
+        assertThrows(UnsupportedOperationException.class, () -> filtered.entrySet().clear());
+        assertEquals(1, filtered.entrySet().size());
+    }
+}
@@ -0,0 +1,64 @@
+package com.bookdepository.structures.sketch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CountMinSketch.
+ */
+@DisplayName("CountMinSketch Tests")
+class CountMinSketchTest {
+
+    @Test
+    @DisplayName("Should size the sketch from the error bound")
+    void testDimensions() {
+        CountMinSketch sketch = new CountMinSketch(0.001, 0.01);
+
+        assertEquals(2719, sketch.getWidth());
+        assertEquals(5, sketch.getDepth());
+        assertEquals(8L * 2719 * 5, sketch.getMemoryBytes());
+    }
+
+    @Test
+    @DisplayName("Should never underestimate and stay within the bound")
+    void testEstimates() {
+        Random random = new Random(5);
+        CountMinSketch sketch = new CountMinSketch(0.005, 0.01);
+        Map<String, Integer> exact = new HashMap<>();
+        for (int i = 0; i < 50000; i++) {
+            double u = random.nextDouble();
+            String key = "A" + (int) (u * u * 5000);
+            sketch.add(key);
+            exact.merge(key, 1, Integer::sum);
+        }
+
+        assertEquals(50000, sketch.getTotal());
+        int withinBound = 0;
+        for (Map.Entry<String, Integer> entry : exact.entrySet()) {
+            long estimate = sketch.estimate(entry.getKey());
+            assertTrue(estimate >= entry.getValue(), entry.getKey());
+            if (estimate - entry.getValue() <= sketch.getErrorBound()) {
+                withinBound++;
+            }
+        }
+        assertTrue(withinBound >= 0.99 * exact.size());
+    }
+
+    @Test
+    @DisplayName("Should count weighted additions and reject invalid arguments")
+    void testWeightsAndArguments() {
+        CountMinSketch sketch = new CountMinSketch(64, 3);
+        sketch.add("A1", 10);
+        sketch.add("A1");
+
+        assertEquals(11, sketch.estimate("A1"));
+        assertThrows(IllegalArgumentException.class, () -> sketch.add("A1", -1));
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0.0, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0.1, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0, 4));
+    }
+}
@@ -0,0 +1,70 @@
+package com.bookdepository.structures.sketch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SpaceSaving.
+ */
+@DisplayName("SpaceSaving Tests")
+class SpaceSavingTest {
+
+    @Test
+    @DisplayName("Should count exactly while every key fits")
+    void testExactWithinCapacity() {
+        SpaceSaving counter = new SpaceSaving(10);
+        for (int i = 0; i < 5; i++) {
+            for (int k = 0; k <= i; k++) {
+                counter.offer("A" + i);
+            }
+        }
+
+        List<SpaceSaving.Entry> top = counter.top(3);
+        assertEquals(3, top.size());
+        assertEquals("A4", top.get(0).getKey());
+        assertEquals(5, top.get(0).getCount());
+        assertEquals(0, top.get(0).getError());
+        assertEquals("A2", top.get(2).getKey());
+        assertEquals(5, counter.size());
+        assertEquals(0, counter.estimate("B"));
+    }
+
+    @Test
+    @DisplayName("Should keep heavy hitters within the error bound in fixed memory")
+    void testHeavyHitters() {
+        Random random = new Random(9);
+        SpaceSaving counter = SpaceSaving.forError(0.01);
+        Map<String, Integer> exact = new HashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            double u = random.nextDouble();
+            String key = "A" + (int) (u * u * u * 20000);
+            counter.offer(key);
+            exact.merge(key, 1, Integer::sum);
+        }
+
+        assertEquals(100, counter.getCapacity());
+        assertEquals(100, counter.size());
+        assertEquals(1000.0, counter.getErrorBound());
+        for (Map.Entry<String, Integer> entry : exact.entrySet()) {
+            if (entry.getValue() > counter.getErrorBound()) {
+                String key = entry.getKey();
+                long count = counter.estimate(key);
+                assertTrue(count >= entry.getValue(), key);
+                assertTrue(count - counter.getError(key) <= entry.getValue(), key);
+                assertTrue(counter.getError(key) <= counter.getErrorBound(), key);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a non-positive capacity")
+    void testInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new SpaceSaving(0));
+        assertThrows(IllegalArgumentException.class, () -> SpaceSaving.forError(1.5));
+    }
+}
@@ -67,6 +67,25 @@ public class TestUtils {
         return records;
     }
 
+    /**
+     * Generates an array of records with a dataset-like rank distribution:
+     * a share of zero (unranked) records and the rest drawn from a small
+     * set of ranks, so most ranks repeat many times.
+     *
+     * @param size          The number of records to generate
+     * @param zeroRatio     Fraction of records with rank 0
+     * @param distinctRanks Number of distinct non-zero ranks
+     * @return An array of duplicate-heavy records
+     */
+    public static Record[] generateDuplicateHeavyRecords(int size, double zeroRatio, int distinctRanks) {
+        Record[] records = new Record[size];
+        for (int i = 0; i < size; i++) {
+            int rank = random.nextDouble() < zeroRatio ? 0 : random.nextInt(distinctRanks) + 1;
+            records[i] = createRecord(i + 1, rank);
+        }
+        return records;
+    }
+
     /**
      * Checks if an array of records is sorted by bestseller rank.
      * Zero ranks are treated as being at the end.